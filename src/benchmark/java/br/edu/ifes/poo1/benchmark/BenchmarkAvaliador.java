@@ -0,0 +1,74 @@
+package br.edu.ifes.poo1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.edu.ifes.poo1.cln.cdp.ConstrucaoTabuleiroException;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.ia.AvaliadorPadrao;
+import br.edu.ifes.poo1.cln.cdp.ia.TipoTermoAvaliacao;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Mede quantas avaliações por segundo o {@link AvaliadorPadrao} faz, com cada
+ * termo separado e com todos juntos. Comparar o custo de cada termo com o
+ * ganho de força ajuda a escolher os termos de cada nível da máquina.
+ *
+ * Com a tabela de peões, a mesma posição é avaliada repetidamente, então os
+ * termos de peões sempre a encontram na tabela: a medida mostra o custo de
+ * uma consulta, e sem a tabela, o de calcular os termos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkAvaliador {
+
+	/** Posição avaliada. */
+	@Param
+	public PosicaoBenchmark posicao;
+
+	/** Termo avaliado (ver {@link TipoTermoAvaliacao}), ou TODOS. */
+	@Param({ "MATERIAL", "MOBILIDADE", "ESTRUTURA_PEOES", "SEGURANCA_REI",
+			"PEOES_PASSADOS", "TODOS" })
+	public String termo;
+
+	/** Memória da tabela de peões, em megabytes (0 para não usar a tabela). */
+	@Param({ "0", "1" })
+	public int megabytesPeoes;
+
+	private TabuleiroXadrez tabuleiro;
+
+	private TipoCorJogador vez;
+
+	private AvaliadorPadrao avaliador;
+
+	@Setup
+	public void preparar() throws ConstrucaoTabuleiroException {
+		tabuleiro = posicao.criarTabuleiro();
+		vez = posicao.getVez();
+		if (termo.equals("TODOS"))
+			avaliador = new AvaliadorPadrao(megabytesPeoes);
+		else
+			avaliador = new AvaliadorPadrao(megabytesPeoes,
+					TipoTermoAvaliacao.valueOf(termo));
+	}
+
+	@Benchmark
+	public int avaliar() {
+		return avaliador.avaliar(tabuleiro, vez);
+	}
+}
@@ -0,0 +1,64 @@
+package br.edu.ifes.poo1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.ConstrucaoTabuleiroException;
+import br.edu.ifes.poo1.cln.cdp.Jogada;
+import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.ia.IAElaborada;
+
+/**
+ * Mede a escolha de uma jogada pela máquina, com profundidade fixa. O tempo
+ * máximo é grande o bastante para que a busca sempre chegue à profundidade
+ * pedida.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkIA {
+
+	/** Tempo máximo da busca, em segundos. */
+	private static final int TEMPO_MAXIMO = 3600;
+
+	/** Posição em que a máquina escolhe a jogada. */
+	@Param
+	public PosicaoBenchmark posicao;
+
+	/** Profundidade da busca. */
+	@Param({ "2" })
+	public int alcance;
+
+	private TabuleiroXadrez tabuleiro;
+
+	private IAElaborada maquina;
+
+	@Setup
+	public void preparar() throws ConstrucaoTabuleiroException {
+		tabuleiro = posicao.criarTabuleiro();
+		maquina = new IAElaborada("Benchmark", posicao.getVez(), alcance,
+				TEMPO_MAXIMO, true);
+	}
+
+	@Benchmark
+	public Jogada escolherJogada() throws CasaOcupadaException,
+			JogadaInvalidaException {
+		return maquina.escolherJogada(tabuleiro);
+	}
+}
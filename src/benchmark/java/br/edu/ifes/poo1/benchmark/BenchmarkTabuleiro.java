@@ -0,0 +1,86 @@
+package br.edu.ifes.poo1.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.ConstrucaoTabuleiroException;
+import br.edu.ifes.poo1.cln.cdp.Jogada;
+import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.ia.Estado;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Mede as operações do tabuleiro usadas a cada nó da busca da máquina. O
+ * tabuleiro volta ao estado original após cada operação, então todas as
+ * chamadas são feitas sobre a mesma posição.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkTabuleiro {
+
+	/** Posição sobre a qual as operações são medidas. */
+	@Param
+	public PosicaoBenchmark posicao;
+
+	private TabuleiroXadrez tabuleiro;
+
+	private TipoCorJogador vez;
+
+	@Setup
+	public void preparar() throws ConstrucaoTabuleiroException {
+		tabuleiro = posicao.criarTabuleiro();
+		vez = posicao.getVez();
+	}
+
+	@Benchmark
+	public List<Jogada> geraJogadasPossiveis() throws CasaOcupadaException,
+			JogadaInvalidaException {
+		return tabuleiro.geraJogadasPossiveis(vez);
+	}
+
+	@Benchmark
+	public List<Estado> proximosEstadosPossiveis()
+			throws CasaOcupadaException, JogadaInvalidaException {
+		return tabuleiro.getGeraEstado().proximosEstadosPossiveis(tabuleiro,
+				vez);
+	}
+
+	@Benchmark
+	public boolean verificarXeque() {
+		return tabuleiro.verificarXeque(vez);
+	}
+
+	@Benchmark
+	public boolean verificarXequeMate() throws CasaOcupadaException,
+			JogadaInvalidaException {
+		return tabuleiro.verificarXequeMate(vez);
+	}
+
+	@Benchmark
+	public int valorTabuleiro() {
+		return tabuleiro.valorTabuleiro(vez, 0);
+	}
+
+	@Benchmark
+	public TabuleiroXadrez tabuleiroClonado() throws CasaOcupadaException {
+		return tabuleiro.tabuleiroClonado();
+	}
+}
@@ -0,0 +1,49 @@
+package br.edu.ifes.poo1.benchmark;
+
+import br.edu.ifes.poo1.cln.cdp.ConstrucaoTabuleiroException;
+import br.edu.ifes.poo1.cln.cdp.NotacaoFen;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Posições fixas sobre as quais os benchmarks são executados, uma para cada
+ * fase da partida.
+ */
+public enum PosicaoBenchmark {
+	/** Abertura italiana, após 1.e4 e5 2.Cf3 Cc6 3.Bc4. */
+	ABERTURA("r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3"),
+
+	/** Meio-jogo com todas as peças menores e maiores ainda no tabuleiro. */
+	MEIO_JOGO("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"),
+
+	/** Final de torre e peões. */
+	FINAL("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+
+	/** Posição em notação FEN. */
+	private final String fen;
+
+	private PosicaoBenchmark(String fen) {
+		this.fen = fen;
+	}
+
+	/**
+	 * Monta um novo tabuleiro com a posição.
+	 * 
+	 * @return O tabuleiro.
+	 * @throws ConstrucaoTabuleiroException
+	 */
+	public TabuleiroXadrez criarTabuleiro() throws ConstrucaoTabuleiroException {
+		return NotacaoFen.lerTabuleiro(fen);
+	}
+
+	/**
+	 * Cor de quem joga na posição.
+	 */
+	public TipoCorJogador getVez() {
+		return NotacaoFen.lerVez(fen);
+	}
+
+	public String getFen() {
+		return fen;
+	}
+}
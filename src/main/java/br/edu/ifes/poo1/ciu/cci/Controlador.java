@@ -27,6 +27,9 @@ import br.edu.ifes.poo1.cln.cdp.Jogada;
 import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
 import br.edu.ifes.poo1.cln.cdp.Jogador;
 import br.edu.ifes.poo1.cln.cdp.Pessoa;
+import br.edu.ifes.poo1.cln.cdp.ia.AvaliadorPadrao;
+import br.edu.ifes.poo1.cln.cdp.ia.GerenciadorTempo;
+import br.edu.ifes.poo1.cln.cdp.ia.IAAlfaBeta;
 import br.edu.ifes.poo1.cln.cdp.ia.IAElaborada;
 import br.edu.ifes.poo1.cln.cdp.ia.IARandomica;
 import br.edu.ifes.poo1.cln.cdp.ia.Maquina;
@@ -192,13 +195,20 @@ public class Controlador {
 			maquina = new IARandomica("Dionísio", corMaquina);
 			break;
 		case "ARES":
-			maquina = new IAElaborada("Ares", corMaquina, 1, 15, true);
+			// Com uma só camada, Ares precisa olhar as recapturas para não
+			// entregar peças
+			IAElaborada ares = new IAElaborada("Ares", corMaquina, 1, 15, true);
+			ares.setQuiescencia(true);
+			maquina = ares;
 			break;
 		case "ZEUS":
-			maquina = new IAElaborada("Zeus", corMaquina, 10, 15, true);
+			maquina = new IAAlfaBeta("Zeus", corMaquina, 10, 15);
 			break;
 		case "PROMETEU":
-			maquina = new IAElaborada("Prometeu", corMaquina, 10, 45, true);
+			// O nível mais forte avalia todos os termos do avaliador padrão
+			maquina = new IAAlfaBeta("Prometeu", corMaquina, 10,
+					new GerenciadorTempo(45 * 1000L), 64,
+					new AvaliadorPadrao());
 			break;
 		}
 		return maquina;
@@ -412,11 +422,14 @@ public class Controlador {
 		boolean podeRecomendar = pessoa.verificarRecomendacoesRealizadas();
 		if (podeRecomendar) {
 			Jogada recomendacao = null;
+			List<Jogada> continuacao = new ArrayList<Jogada>();
 			try {
-				// Cria uma IAElaborada de grau 1 e pede a ela uma jogada
-				IAElaborada recomendaIa = new IAElaborada("", apl
-						.getJogadorTurnoAtual().getCor(), 1, 45, true);
+				// Cria uma IAAlfaBeta e pede a ela uma jogada e a continuação
+				// que ela espera
+				IAAlfaBeta recomendaIa = new IAAlfaBeta("", apl
+						.getJogadorTurnoAtual().getCor(), 8, 10);
 				recomendacao = recomendaIa.escolherJogada(apl.getTabuleiro());
+				continuacao = recomendaIa.getVariacaoPrincipal();
 			} catch (CasaOcupadaException | JogadaInvalidaException e) {
 				IARandomica suporteIa = new IARandomica(apl
 						.getJogadorTurnoAtual().getCor());
@@ -427,6 +440,8 @@ public class Controlador {
 				cli.imprimirRecomendacao(pessoa.getRecomendacoes(), apl
 						.getTabuleiro().espiarPeca(recomendacao.getOrigem()),
 						recomendacao);
+				cli.imprimirContinuacao(continuacao, apl.getJogadorTurnoAtual()
+						.getCor());
 			} else {
 				cli.exibirAlerta("Não foi possível realizar uma recomendação");
 			}
@@ -2,13 +2,16 @@ package br.edu.ifes.poo1.ciu.cih;
 
 import java.text.SimpleDateFormat;
 import java.util.GregorianCalendar;
+import java.util.List;
 
 import br.edu.ifes.poo1.cln.cdp.DadosPartida;
 import br.edu.ifes.poo1.cln.cdp.DadosPessoa;
 import br.edu.ifes.poo1.cln.cdp.Jogada;
 import br.edu.ifes.poo1.cln.cdp.Jogador;
+import br.edu.ifes.poo1.cln.cdp.Perft;
 import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
 import br.edu.ifes.poo1.cln.cdp.pecas.Peca;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 
 /**
  * Interface de Linha de Comando (CLI da sigla em inglês). É responsável pela
@@ -264,6 +267,27 @@ public abstract class Cli {
 		}
 	}
 
+	/**
+	 * Imprime a continuação esperada depois de uma recomendação, em notação de
+	 * coordenadas (como "e2e4")
+	 * 
+	 * @param variacao
+	 *            Jogadas esperadas, começando pela recomendada
+	 * @param cor
+	 *            Cor de quem faz a primeira jogada
+	 */
+	public void imprimirContinuacao(List<Jogada> variacao, TipoCorJogador cor) {
+		// A jogada recomendada já foi descrita
+		if (variacao.size() < 2)
+			return;
+		StringBuilder continuacao = new StringBuilder("Continuação esperada:");
+		for (Jogada jogada : variacao) {
+			continuacao.append(' ').append(Perft.descrever(jogada, cor));
+			cor = TipoCorJogador.getCorOposta(cor);
+		}
+		io.imprimirLinha(continuacao.append('\n').toString());
+	}
+
 	/**
 	 * Informa na tela todos os dados de uma determinada partida que ainda não
 	 * terminou
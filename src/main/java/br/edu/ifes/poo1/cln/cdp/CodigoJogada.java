@@ -0,0 +1,190 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogada;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Codifica uma jogada num único int, para que a busca da máquina possa gerar e
+ * guardar jogadas em vetores de int reaproveitados, sem criar objetos. Uma
+ * {@link Jogada} tem duas posições, o tipo e a peça da promoção; o código
+ * guarda o mesmo em bits:
+ * 
+ * <pre>
+ * bits  0 a  5: casa de origem (de 0 a 63)
+ * bits  6 a 11: casa de destino (de 0 a 63)
+ * bits 12 a 14: tipo da jogada (ordinal de TipoJogada)
+ * bit       15: se é promoção
+ * bits 16 a 18: peça da promoção (ordinal de TipoPeca)
+ * </pre>
+ * 
+ * Diferente da {@link Jogada}, o código sempre tem origem e destino: no roque,
+ * são as casas do rei, e no en passant, o destino é a casa para onde o peão
+ * vai. Nenhuma jogada real tem código 0 (andar de a1 para a1).
+ */
+public final class CodigoJogada {
+
+	/** Código que não corresponde a jogada alguma. */
+	public static final int NENHUMA = 0;
+
+	/** Maior quantidade de jogadas possíveis numa posição de xadrez. */
+	public static final int MAXIMO_JOGADAS = 256;
+
+	private static final int BITS_DESTINO = 6;
+	private static final int BITS_TIPO = 12;
+	private static final int BIT_PROMOCAO = 1 << 15;
+	private static final int BITS_PECA_PROMOCAO = 16;
+
+	private static final TipoJogada[] TIPOS = TipoJogada.values();
+	private static final TipoPeca[] PECAS = TipoPeca.values();
+
+	/** Não deve ser instanciada. */
+	private CodigoJogada() {
+	}
+
+	/**
+	 * Codifica uma jogada sem promoção.
+	 * 
+	 * @param origem
+	 *            Casa de origem (de 0 a 63).
+	 * @param destino
+	 *            Casa de destino (de 0 a 63).
+	 * @param tipo
+	 *            Tipo da jogada.
+	 * @return O código da jogada.
+	 */
+	public static int codificar(int origem, int destino, TipoJogada tipo) {
+		return origem | (destino << BITS_DESTINO)
+				| (tipo.ordinal() << BITS_TIPO);
+	}
+
+	/**
+	 * Codifica uma jogada com promoção.
+	 * 
+	 * @param origem
+	 *            Casa de origem (de 0 a 63).
+	 * @param destino
+	 *            Casa de destino (de 0 a 63).
+	 * @param tipo
+	 *            Tipo da jogada.
+	 * @param promocao
+	 *            Peça para a qual o peão é promovido.
+	 * @return O código da jogada.
+	 */
+	public static int codificar(int origem, int destino, TipoJogada tipo,
+			TipoPeca promocao) {
+		return codificar(origem, destino, tipo) | BIT_PROMOCAO
+				| (promocao.ordinal() << BITS_PECA_PROMOCAO);
+	}
+
+	/**
+	 * Codifica um objeto jogada.
+	 * 
+	 * @param jogada
+	 *            Jogada a ser codificada.
+	 * @param cor
+	 *            Cor de quem faz a jogada, necessária para saber as casas do
+	 *            roque e do en passant.
+	 * @return O código da jogada.
+	 */
+	public static int codificar(Jogada jogada, TipoCorJogador cor) {
+		TipoJogada tipo = jogada.getTipoJogada();
+		int origem;
+		int destino;
+		switch (tipo) {
+		case ROQUE_MENOR:
+		case ROQUE_MAIOR:
+			int linha = cor == TipoCorJogador.BRANCO ? TabuleiroXadrez.LINHAINFERIOR
+					: TabuleiroXadrez.LINHASUPERIOR;
+			origem = Bitboard.casa(5, linha);
+			destino = Bitboard.casa(tipo == TipoJogada.ROQUE_MENOR ? 7 : 3,
+					linha);
+			break;
+		case EN_PASSANT_ESQUERDA:
+		case EN_PASSANT_DIREITA:
+			origem = Bitboard.casa(jogada.getOrigem());
+			destino = origem
+					+ (tipo == TipoJogada.EN_PASSANT_ESQUERDA ? -1 : 1)
+					+ (cor == TipoCorJogador.BRANCO ? 8 : -8);
+			break;
+		default:
+			origem = Bitboard.casa(jogada.getOrigem());
+			destino = Bitboard.casa(jogada.getDestino());
+			break;
+		}
+		if (jogada.ehPromocao())
+			return codificar(origem, destino, tipo,
+					jogada.getPromocao() != null ? jogada.getPromocao()
+							: TipoPeca.RAINHA);
+		return codificar(origem, destino, tipo);
+	}
+
+	/**
+	 * Converte o código de volta num objeto jogada, como os criados pelo
+	 * restante do jogo.
+	 * 
+	 * @param codigo
+	 *            Código da jogada.
+	 * @return A jogada.
+	 */
+	public static Jogada paraJogada(int codigo) {
+		TipoJogada tipo = tipo(codigo);
+		Posicao origem = Bitboard.posicao(origem(codigo));
+		switch (tipo) {
+		case ROQUE_MENOR:
+		case ROQUE_MAIOR:
+			try {
+				return new Jogada(tipo);
+			} catch (JogadaInvalidaException e) {
+				// Só é lançada para jogadas que não são roque
+				throw new IllegalStateException(e);
+			}
+		case EN_PASSANT_ESQUERDA:
+		case EN_PASSANT_DIREITA:
+			return new Jogada(origem, tipo);
+		default:
+			Posicao destino = Bitboard.posicao(destino(codigo));
+			if (ehPromocao(codigo))
+				return new Jogada(origem, destino, tipo, promocao(codigo));
+			return new Jogada(origem, destino, tipo);
+		}
+	}
+
+	/** @return A casa de origem (de 0 a 63). */
+	public static int origem(int codigo) {
+		return codigo & 63;
+	}
+
+	/** @return A casa de destino (de 0 a 63). */
+	public static int destino(int codigo) {
+		return (codigo >>> BITS_DESTINO) & 63;
+	}
+
+	/** @return O tipo da jogada. */
+	public static TipoJogada tipo(int codigo) {
+		return TIPOS[(codigo >>> BITS_TIPO) & 7];
+	}
+
+	/**
+	 * @return Se a jogada captura uma peça: um ataque ou um en passant.
+	 */
+	public static boolean ehCaptura(int codigo) {
+		TipoJogada tipo = tipo(codigo);
+		return tipo == TipoJogada.ATACAR
+				|| tipo == TipoJogada.EN_PASSANT_ESQUERDA
+				|| tipo == TipoJogada.EN_PASSANT_DIREITA;
+	}
+
+	/** @return Se a jogada é uma promoção. */
+	public static boolean ehPromocao(int codigo) {
+		return (codigo & BIT_PROMOCAO) != 0;
+	}
+
+	/** @return A peça da promoção. Ou 'null', se não for promoção. */
+	public static TipoPeca promocao(int codigo) {
+		if (!ehPromocao(codigo))
+			return null;
+		return PECAS[(codigo >>> BITS_PECA_PROMOCAO) & 7];
+	}
+}
@@ -197,11 +197,11 @@ public abstract class Jogador implements Serializable {
 		int linha = getMinhaLinhaDeRoque();
 
 		// Executa o roque.
-		Peca torre = tabuleiro.retirarPeca(new Posicao(1, linha));
-		Peca rei = tabuleiro.retirarPeca(new Posicao(5, linha));
+		Peca torre = tabuleiro.retirarPeca(Posicao.de(1, linha));
+		Peca rei = tabuleiro.retirarPeca(Posicao.de(5, linha));
 		try {
-			tabuleiro.colocarPeca(new Posicao(3, linha), rei);
-			tabuleiro.colocarPeca(new Posicao(4, linha), torre);
+			tabuleiro.colocarPeca(Posicao.de(3, linha), rei);
+			tabuleiro.colocarPeca(Posicao.de(4, linha), torre);
 		} catch (CasaOcupadaException e) {
 			throw new JogadaInvalidaException(
 					"O caminho para fazer o Roque Maior não está livre.");
@@ -218,11 +218,11 @@ public abstract class Jogador implements Serializable {
 		int linha = getMinhaLinhaDeRoque();
 
 		// Executa o roque.
-		Peca torre = tabuleiro.retirarPeca(new Posicao(8, linha));
-		Peca rei = tabuleiro.retirarPeca(new Posicao(5, linha));
+		Peca torre = tabuleiro.retirarPeca(Posicao.de(8, linha));
+		Peca rei = tabuleiro.retirarPeca(Posicao.de(5, linha));
 		try {
-			tabuleiro.colocarPeca(new Posicao(7, linha), rei);
-			tabuleiro.colocarPeca(new Posicao(6, linha), torre);
+			tabuleiro.colocarPeca(Posicao.de(7, linha), rei);
+			tabuleiro.colocarPeca(Posicao.de(6, linha), torre);
 		} catch (CasaOcupadaException e) {
 			throw new JogadaInvalidaException(
 					"O caminho para fazer o Roque Menor não está livre.");
@@ -245,17 +245,17 @@ public abstract class Jogador implements Serializable {
 		tabuleiro.retirarPeca(jogada.getOrigem());
 		// Retirar a peça inimiga à esquerda e acrescentar a lista de peças
 		// capturadas.
-		Peca pecaCapturada = tabuleiro.retirarPeca(new Posicao(jogada
+		Peca pecaCapturada = tabuleiro.retirarPeca(Posicao.de(jogada
 				.getOrigem().getColuna() - 1, jogada.getOrigem().getLinha()));
 		this.pecasCapturadas.add(pecaCapturada);
 		// Se o en passant for favorável as peças brancas
 		if (corJogador == TipoCorJogador.BRANCO)
-			tabuleiro.colocarPeca(new Posicao(
+			tabuleiro.colocarPeca(Posicao.de(
 					jogada.getOrigem().getColuna() - 1, jogada.getOrigem()
 							.getLinha() + 1), peca);
 		// Se en passant for favorável as peças pretas
 		else
-			tabuleiro.colocarPeca(new Posicao(
+			tabuleiro.colocarPeca(Posicao.de(
 					jogada.getOrigem().getColuna() - 1, jogada.getOrigem()
 							.getLinha() - 1), peca);
 	}
@@ -276,17 +276,17 @@ public abstract class Jogador implements Serializable {
 		tabuleiro.retirarPeca(jogada.getOrigem());
 		// Retirar a peça inimiga à esquerda e acrescentar a lista de peças
 		// capturadas.
-		Peca pecaCapturada = tabuleiro.retirarPeca(new Posicao(jogada
+		Peca pecaCapturada = tabuleiro.retirarPeca(Posicao.de(jogada
 				.getOrigem().getColuna() + 1, jogada.getOrigem().getLinha()));
 		this.pecasCapturadas.add(pecaCapturada);
 		// Se o en passant for favorável as peças brancas
 		if (corJogador == TipoCorJogador.BRANCO)
-			tabuleiro.colocarPeca(new Posicao(
+			tabuleiro.colocarPeca(Posicao.de(
 					jogada.getOrigem().getColuna() + 1, jogada.getOrigem()
 							.getLinha() + 1), peca);
 		// Se en passant for favorável as peças pretas
 		else
-			tabuleiro.colocarPeca(new Posicao(
+			tabuleiro.colocarPeca(Posicao.de(
 					jogada.getOrigem().getColuna() + 1, jogada.getOrigem()
 							.getLinha() - 1), peca);
 	}
@@ -0,0 +1,159 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import br.edu.ifes.poo1.cln.cdp.pecas.Bispo;
+import br.edu.ifes.poo1.cln.cdp.pecas.Cavalo;
+import br.edu.ifes.poo1.cln.cdp.pecas.Peao;
+import br.edu.ifes.poo1.cln.cdp.pecas.Peca;
+import br.edu.ifes.poo1.cln.cdp.pecas.Rainha;
+import br.edu.ifes.poo1.cln.cdp.pecas.Rei;
+import br.edu.ifes.poo1.cln.cdp.pecas.Torre;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Lê posições escritas na notação FEN (Forsyth-Edwards). Como o tabuleiro não
+ * guarda direitos de roque nem a casa de en passant, eles são traduzidos para
+ * os atributos das peças: reis e torres sem direito a roque, e peões fora da
+ * linha inicial, são marcados como já movimentados; o peão que acabou de andar
+ * duas casas é marcado como passível de en passant.
+ */
+public class NotacaoFen {
+
+	/** Posição inicial de uma partida de xadrez. */
+	public static final String POSICAO_INICIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	/** Não deve ser instanciada. */
+	private NotacaoFen() {
+	}
+
+	/**
+	 * Monta o tabuleiro descrito pela notação.
+	 *
+	 * @param fen
+	 *            Posição na notação FEN.
+	 * @return O tabuleiro com as peças posicionadas.
+	 * @throws ConstrucaoTabuleiroException
+	 *             Se a notação não descrever uma posição válida.
+	 */
+	public static TabuleiroXadrez lerTabuleiro(String fen)
+			throws ConstrucaoTabuleiroException {
+		String[] campos = fen.trim().split("\\s+");
+		String roques = campos.length > 2 ? campos[2] : "-";
+		String enPassant = campos.length > 3 ? campos[3] : "-";
+		TabuleiroXadrez tabuleiro = new TabuleiroXadrez();
+
+		try {
+			// Posiciona as peças, da linha 8 para a linha 1
+			String[] linhas = campos[0].split("/");
+			if (linhas.length != 8)
+				throw new IllegalArgumentException("São esperadas 8 linhas.");
+			for (int i = 0; i < 8; i++) {
+				int linha = 8 - i;
+				int coluna = 1;
+				for (char simbolo : linhas[i].toCharArray()) {
+					if (Character.isDigit(simbolo)) {
+						coluna += simbolo - '0';
+						continue;
+					}
+					Peca peca = criarPeca(simbolo);
+					marcarMovimento(peca, coluna, linha, roques);
+					tabuleiro.colocarPeca(Posicao.de(coluna, linha), peca);
+					coluna++;
+				}
+				if (coluna != 9)
+					throw new IllegalArgumentException("A linha " + linha
+							+ " não tem 8 casas.");
+			}
+
+			// O peão que acabou de andar duas casas está à frente da casa de
+			// en passant
+			if (!enPassant.equals("-")) {
+				int coluna = enPassant.charAt(0) - 'a' + 1;
+				int linha = enPassant.charAt(1) - '0';
+				Posicao posicaoPeao = Posicao.de(coluna, linha == 3 ? 4 : 5);
+				Peca peca = tabuleiro.espiarPeca(posicaoPeao);
+				if (peca == null || peca.getTipoPeca() != TipoPeca.PEAO)
+					throw new IllegalArgumentException(
+							"Não há peão para a casa de en passant.");
+				((Peao) peca).setPodeEnPassant(true);
+			}
+		} catch (CasaOcupadaException | IllegalArgumentException
+				| IndexOutOfBoundsException e) {
+			throw new ConstrucaoTabuleiroException("Notação FEN inválida: "
+					+ fen, e);
+		}
+		return tabuleiro;
+	}
+
+	/**
+	 * Lê de quem é a vez de jogar.
+	 *
+	 * @param fen
+	 *            Posição na notação FEN.
+	 * @return A cor do jogador da vez.
+	 */
+	public static TipoCorJogador lerVez(String fen) {
+		String[] campos = fen.trim().split("\\s+");
+		if (campos.length > 1 && campos[1].equals("b"))
+			return TipoCorJogador.PRETO;
+		return TipoCorJogador.BRANCO;
+	}
+
+	/**
+	 * Cria a peça correspondente ao símbolo. Maiúsculas são brancas e
+	 * minúsculas, pretas.
+	 */
+	private static Peca criarPeca(char simbolo) {
+		TipoCorJogador cor = Character.isUpperCase(simbolo) ? TipoCorJogador.BRANCO
+				: TipoCorJogador.PRETO;
+		switch (Character.toLowerCase(simbolo)) {
+		case 'p':
+			return new Peao(cor);
+		case 'n':
+			return new Cavalo(cor);
+		case 'b':
+			return new Bispo(cor);
+		case 'r':
+			return new Torre(cor);
+		case 'q':
+			return new Rainha(cor);
+		case 'k':
+			return new Rei(cor);
+		default:
+			throw new IllegalArgumentException("Peça desconhecida: " + simbolo);
+		}
+	}
+
+	/**
+	 * Marca a peça como já movimentada quando a posição indicar que ela saiu
+	 * do lugar: peões fora da linha inicial, e reis e torres sem o roque
+	 * correspondente.
+	 */
+	private static void marcarMovimento(Peca peca, int coluna, int linha,
+			String roques) {
+		boolean branca = peca.getCorJogador() == TipoCorJogador.BRANCO;
+		int linhaInicial = branca ? 1 : 8;
+		String menor = branca ? "K" : "k";
+		String maior = branca ? "Q" : "q";
+		boolean moveu;
+		switch (peca.getTipoPeca()) {
+		case PEAO:
+			moveu = linha != (branca ? 2 : 7);
+			break;
+		case REI:
+			moveu = linha != linhaInicial || coluna != 5
+					|| !(roques.contains(menor) || roques.contains(maior));
+			break;
+		case TORRE:
+			moveu = linha != linhaInicial
+					|| !((coluna == 8 && roques.contains(menor)) || (coluna == 1 && roques
+							.contains(maior)));
+			break;
+		default:
+			moveu = false;
+			break;
+		}
+		if (moveu)
+			peca.setJaMoveu();
+	}
+}
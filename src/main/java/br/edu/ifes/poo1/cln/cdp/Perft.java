@@ -0,0 +1,200 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogada;
+
+/**
+ * Conta as posições alcançáveis a partir de um tabuleiro até uma profundidade
+ * fixa ("perft"). Comparar a contagem com valores de referência conhecidos
+ * verifica a geração de jogadas, e o tempo gasto mede a sua velocidade.
+ *
+ * Pode ser executado pela linha de comando, informando a posição em notação
+ * FEN, a profundidade e, opcionalmente, "dividir" para ver a contagem de cada
+ * jogada da raiz:
+ *
+ * <pre>
+ * java br.edu.ifes.poo1.cln.cdp.Perft "&lt;fen&gt;" 4 dividir
+ * </pre>
+ */
+public class Perft {
+
+	/** Tabuleiro sobre o qual as jogadas são feitas e desfeitas. */
+	private final TabuleiroXadrez tabuleiro;
+
+	/** Cor de quem joga na raiz. */
+	private final TipoCorJogador vez;
+
+	/**
+	 * Vetores onde são geradas as jogadas de cada nível, reaproveitados entre
+	 * os nós do mesmo nível.
+	 */
+	private int[][] jogadasPorNivel = new int[0][];
+
+	/**
+	 * Prepara a contagem a partir do tabuleiro indicado. O tabuleiro é usado
+	 * diretamente e volta ao estado original ao fim de cada contagem.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro da raiz.
+	 * @param vez
+	 *            Cor de quem joga na raiz.
+	 */
+	public Perft(TabuleiroXadrez tabuleiro, TipoCorJogador vez) {
+		this.tabuleiro = tabuleiro;
+		this.vez = vez;
+	}
+
+	/**
+	 * Prepara a contagem a partir de uma posição em notação FEN.
+	 *
+	 * @param fen
+	 *            Posição da raiz.
+	 * @throws ConstrucaoTabuleiroException
+	 */
+	public Perft(String fen) throws ConstrucaoTabuleiroException {
+		this(NotacaoFen.lerTabuleiro(fen), NotacaoFen.lerVez(fen));
+	}
+
+	/**
+	 * Conta as folhas da árvore de jogadas legais com a profundidade indicada.
+	 *
+	 * @param profundidade
+	 *            Quantidade de meias-jogadas.
+	 * @return Quantidade de folhas.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public long contar(int profundidade) throws CasaOcupadaException,
+			JogadaInvalidaException {
+		return contar(vez, profundidade);
+	}
+
+	/**
+	 * Conta as folhas separadamente para cada jogada da raiz.
+	 *
+	 * @param profundidade
+	 *            Quantidade de meias-jogadas, contando a da raiz.
+	 * @return A contagem de cada jogada da raiz, descrita em notação de
+	 *         coordenadas, na ordem em que foram geradas.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public Map<String, Long> dividir(int profundidade)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		Map<String, Long> contagens = new LinkedHashMap<String, Long>();
+		for (Jogada jogada : tabuleiro.jogadasLegais(vez)) {
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada, vez);
+			contagens.put(descrever(jogada, vez),
+					contar(TipoCorJogador.getCorOposta(vez), profundidade - 1));
+			tabuleiro.desfazerJogada(registro);
+		}
+		return contagens;
+	}
+
+	private long contar(TipoCorJogador cor, int profundidade)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		if (profundidade <= 0)
+			return 1;
+		int[] jogadas = nivel(profundidade);
+		int quantidade = tabuleiro.gerarJogadasLegais(cor, jogadas);
+		// No último nível, basta contar as jogadas legais
+		if (profundidade == 1)
+			return quantidade;
+		long folhas = 0;
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		for (int i = 0; i < quantidade; i++) {
+			RegistroJogada registro = tabuleiro.fazerJogada(jogadas[i], cor);
+			folhas += contar(corOposta, profundidade - 1);
+			tabuleiro.desfazerJogada(registro);
+		}
+		return folhas;
+	}
+
+	/**
+	 * Vetor de jogadas do nível com a profundidade restante indicada, criado
+	 * se ainda não existir.
+	 */
+	private int[] nivel(int profundidade) {
+		if (profundidade >= jogadasPorNivel.length)
+			jogadasPorNivel = Arrays.copyOf(jogadasPorNivel, profundidade + 1);
+		if (jogadasPorNivel[profundidade] == null)
+			jogadasPorNivel[profundidade] = new int[CodigoJogada.MAXIMO_JOGADAS];
+		return jogadasPorNivel[profundidade];
+	}
+
+	/**
+	 * Descreve a jogada em notação de coordenadas, como "e2e4", "e7e8q" ou
+	 * "O-O".
+	 *
+	 * @param jogada
+	 *            Jogada a ser descrita.
+	 * @param cor
+	 *            Cor de quem faz a jogada.
+	 * @return A descrição da jogada.
+	 */
+	public static String descrever(Jogada jogada, TipoCorJogador cor) {
+		switch (jogada.getTipoJogada()) {
+		case ROQUE_MENOR:
+			return "O-O";
+		case ROQUE_MAIOR:
+			return "O-O-O";
+		case EN_PASSANT_ESQUERDA:
+		case EN_PASSANT_DIREITA:
+			int lado = jogada.getTipoJogada() == TipoJogada.EN_PASSANT_ESQUERDA ? -1
+					: 1;
+			int avanco = cor == TipoCorJogador.BRANCO ? 1 : -1;
+			Posicao origem = jogada.getOrigem();
+			return descrever(origem)
+					+ descrever(Posicao.de(origem.getColuna() + lado,
+							origem.getLinha() + avanco));
+		default:
+			return descrever(jogada.getOrigem())
+					+ descrever(jogada.getDestino())
+					+ (jogada.ehPromocao() ? "q" : "");
+		}
+	}
+
+	/** Descreve a posição como "a1" a "h8". */
+	private static String descrever(Posicao posicao) {
+		return "" + (char) ('a' + posicao.getColuna() - 1) + posicao.getLinha();
+	}
+
+	/**
+	 * Executa a contagem pela linha de comando, informando o total de folhas,
+	 * o tempo gasto e a quantidade de folhas por segundo.
+	 *
+	 * @param args
+	 *            A posição em notação FEN (ou "inicial"), a profundidade e,
+	 *            opcionalmente, "dividir".
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		String fen = args.length > 0 && !args[0].equals("inicial") ? args[0]
+				: NotacaoFen.POSICAO_INICIAL;
+		int profundidade = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		boolean dividir = args.length > 2 && args[2].equals("dividir");
+		Perft perft = new Perft(fen);
+
+		long inicio = System.nanoTime();
+		long folhas;
+		if (dividir) {
+			folhas = 0;
+			for (Map.Entry<String, Long> contagem : perft.dividir(profundidade)
+					.entrySet()) {
+				System.out.println(contagem.getKey() + ": "
+						+ contagem.getValue());
+				folhas += contagem.getValue();
+			}
+		} else
+			folhas = perft.contar(profundidade);
+		long nanos = Math.max(1, System.nanoTime() - inicio);
+
+		System.out.println("Profundidade " + profundidade + ": " + folhas
+				+ " folhas em " + (nanos / 1000000) + " ms ("
+				+ (folhas * 1000000000L / nanos) + " folhas/s)");
+	}
+}
@@ -2,11 +2,23 @@ package br.edu.ifes.poo1.cln.cdp;
 
 /**
  * Indica uma casa do tabuleiro.
+ * 
+ * As posições não mudam depois de criadas. As 64 casas do tabuleiro já ficam
+ * prontas, e devem ser obtidas por {@link #de(int, int)}, que não cria objetos;
+ * o construtor fica para posições fora do tabuleiro.
  */
 public class Posicao {
 
-	private int coluna;
-	private int linha;
+	/** As casas do tabuleiro, indexadas de 0 (a1) a 63 (h8). */
+	private static final Posicao[] CASAS = new Posicao[64];
+
+	static {
+		for (int indice = 0; indice < CASAS.length; indice++)
+			CASAS[indice] = new Posicao((indice & 7) + 1, (indice >>> 3) + 1);
+	}
+
+	private final int coluna;
+	private final int linha;
 
 	/**
 	 * Instancia uma posição com base em sua coluna e posição do tabuleiro.
@@ -21,6 +33,33 @@ public class Posicao {
 		this.linha = linha;
 	}
 
+	/**
+	 * Obtém a posição da coluna e linha indicadas. Se ela estiver dentro do
+	 * tabuleiro, a mesma instância é sempre devolvida.
+	 * 
+	 * @param coluna
+	 *            Coluna do tabuleiro.
+	 * @param linha
+	 *            Linha do tabuleiro.
+	 * @return A posição.
+	 */
+	public static Posicao de(int coluna, int linha) {
+		if (coluna >= 1 && coluna <= 8 && linha >= 1 && linha <= 8)
+			return CASAS[(coluna - 1) + 8 * (linha - 1)];
+		return new Posicao(coluna, linha);
+	}
+
+	/**
+	 * Obtém a posição de uma casa do tabuleiro pelo seu índice.
+	 * 
+	 * @param indice
+	 *            Índice da casa, de 0 (a1) a 63 (h8).
+	 * @return A posição.
+	 */
+	public static Posicao de(int indice) {
+		return CASAS[indice];
+	}
+
 	public int getColuna() {
 		return coluna;
 	}
@@ -29,6 +68,14 @@ public class Posicao {
 		return linha;
 	}
 
+	/**
+	 * @return O índice da casa, de 0 (a1) a 63 (h8), na mesma numeração dos
+	 *         bitboards.
+	 */
+	public int getIndice() {
+		return (coluna - 1) + 8 * (linha - 1);
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		// Faz casting do objeto para posição.
@@ -46,4 +93,10 @@ public class Posicao {
 		else
 			return false;
 	}
+
+	@Override
+	public int hashCode() {
+		// Dentro do tabuleiro, é o próprio índice da casa
+		return getIndice();
+	}
 }
@@ -0,0 +1,100 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.edu.ifes.poo1.cln.cdp.pecas.Peao;
+import br.edu.ifes.poo1.cln.cdp.pecas.Peca;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Guarda tudo o que uma jogada feita sobre o tabuleiro alterou, para que ela
+ * possa ser desfeita depois, deixando o tabuleiro exatamente como estava. É
+ * criado por {@link TabuleiroXadrez#fazerJogada(Jogada, TipoCorJogador)} e
+ * consumido por {@link TabuleiroXadrez#desfazerJogada(RegistroJogada)}.
+ */
+public class RegistroJogada {
+
+	/** Código da jogada que foi feita (ver {@link CodigoJogada}). */
+	private final int codigo;
+
+	/** Cor do jogador que fez a jogada. */
+	private final TipoCorJogador corJogador;
+
+	/** Casa de onde a peça saiu. */
+	Posicao origem;
+
+	/** Casa onde a peça chegou. */
+	Posicao destino;
+
+	/** Peça que foi movida (antes de uma eventual promoção). */
+	Peca pecaMovida;
+
+	/** Se a peça movida já havia se movido antes da jogada. */
+	boolean jaMoviaAntes;
+
+	/** Se a peça movida, sendo um peão, podia sofrer en passant. */
+	boolean podiaEnPassantAntes;
+
+	/** Casa da peça capturada. Ou 'null', se não houve captura. */
+	Posicao casaCaptura;
+
+	/** Peça capturada. Ou 'null', se não houve captura. */
+	Peca pecaCapturada;
+
+	/** Casa de onde a torre saiu no roque. Ou 'null', se não foi roque. */
+	Posicao origemTorre;
+
+	/** Casa onde a torre chegou no roque. */
+	Posicao destinoTorre;
+
+	/** Torre movida no roque. */
+	Peca torre;
+
+	/** Se a torre já havia se movido antes do roque. */
+	boolean torreJaMoviaAntes;
+
+	/** Peões do jogador que deixaram de poder sofrer en passant. */
+	List<Peao> enPassantResetados;
+
+	/**
+	 * Inicia o registro de uma jogada.
+	 *
+	 * @param codigo
+	 *            Código da jogada que será feita.
+	 * @param corJogador
+	 *            Cor do jogador que faz a jogada.
+	 */
+	RegistroJogada(int codigo, TipoCorJogador corJogador) {
+		this.codigo = codigo;
+		this.corJogador = corJogador;
+	}
+
+	/**
+	 * Anota um peão que deixou de poder sofrer en passant.
+	 *
+	 * @param peao
+	 *            Peão alterado.
+	 */
+	void adicionarEnPassantResetado(Peao peao) {
+		if (enPassantResetados == null)
+			enPassantResetados = new ArrayList<Peao>(1);
+		enPassantResetados.add(peao);
+	}
+
+	public Jogada getJogada() {
+		return CodigoJogada.paraJogada(codigo);
+	}
+
+	public int getCodigo() {
+		return codigo;
+	}
+
+	public TipoCorJogador getCorJogador() {
+		return corJogador;
+	}
+
+	public Peca getPecaCapturada() {
+		return pecaCapturada;
+	}
+}
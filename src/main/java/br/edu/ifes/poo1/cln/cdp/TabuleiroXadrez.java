@@ -1,10 +1,16 @@
 package br.edu.ifes.poo1.cln.cdp;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-import br.edu.ifes.poo1.cln.cdp.ia.Estado;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
+import br.edu.ifes.poo1.cln.cdp.bitboard.ConjuntoBitboards;
+import br.edu.ifes.poo1.cln.cdp.bitboard.TabelaAtaques;
+import br.edu.ifes.poo1.cln.cdp.bitboard.ValoresPosicionais;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Zobrist;
 import br.edu.ifes.poo1.cln.cdp.ia.GeraEstado;
 import br.edu.ifes.poo1.cln.cdp.pecas.Bispo;
 import br.edu.ifes.poo1.cln.cdp.pecas.Cavalo;
@@ -16,6 +22,7 @@ import br.edu.ifes.poo1.cln.cdp.pecas.Torre;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogada;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoSituacaoTabuleiro;
 
 /**
  * Um tabuleiro é composto por 64 casas, estas podem estar ocupadas por uma peça
@@ -45,6 +52,25 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 */
 	private Peca[][] pecas;
 
+	/**
+	 * Bitboards das peças, mantidos junto com a matriz a cada peça colocada ou
+	 * retirada. Não são salvos com o tabuleiro, sendo refeitos a partir da
+	 * matriz ao carregá-lo.
+	 */
+	private transient ConjuntoBitboards bitboards = new ConjuntoBitboards();
+
+	/**
+	 * Vetor reaproveitado pelas consultas que só precisam saber se há jogadas,
+	 * como {@link #temJogadaLegal(TipoCorJogador)}.
+	 */
+	private transient int[] jogadasConsulta;
+
+	/**
+	 * Vetor reaproveitado por {@link #avaliarTroca(int)} para os ganhos de
+	 * cada passo da troca.
+	 */
+	private transient int[] ganhosTroca;
+
 	/**
 	 * Inicia um tabuleiro vazio, sem peça alguma.
 	 */
@@ -71,34 +97,34 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 		// Posiciona as peças.
 		try {
 			// Posiciona as peças brancas, exceto os peões.
-			this.colocarPeca(new Posicao(1, 1), new Torre(brancas.getCor()));
-			this.colocarPeca(new Posicao(2, 1), new Cavalo(brancas.getCor()));
-			this.colocarPeca(new Posicao(3, 1), new Bispo(brancas.getCor()));
-			this.colocarPeca(new Posicao(4, 1), new Rainha(brancas.getCor()));
-			this.colocarPeca(new Posicao(5, 1), new Rei(brancas.getCor()));
-			this.colocarPeca(new Posicao(6, 1), new Bispo(brancas.getCor()));
-			this.colocarPeca(new Posicao(7, 1), new Cavalo(brancas.getCor()));
-			this.colocarPeca(new Posicao(8, 1), new Torre(brancas.getCor()));
+			this.colocarPeca(Posicao.de(1, 1), new Torre(brancas.getCor()));
+			this.colocarPeca(Posicao.de(2, 1), new Cavalo(brancas.getCor()));
+			this.colocarPeca(Posicao.de(3, 1), new Bispo(brancas.getCor()));
+			this.colocarPeca(Posicao.de(4, 1), new Rainha(brancas.getCor()));
+			this.colocarPeca(Posicao.de(5, 1), new Rei(brancas.getCor()));
+			this.colocarPeca(Posicao.de(6, 1), new Bispo(brancas.getCor()));
+			this.colocarPeca(Posicao.de(7, 1), new Cavalo(brancas.getCor()));
+			this.colocarPeca(Posicao.de(8, 1), new Torre(brancas.getCor()));
 
 			// Posiciona os peões brancos.
 			for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++) {
-				this.colocarPeca(new Posicao(coluna, 2),
+				this.colocarPeca(Posicao.de(coluna, 2),
 						new Peao(brancas.getCor()));
 			}
 
 			// Posiciona as peças brancas, exceto os peões.
-			this.colocarPeca(new Posicao(1, 8), new Torre(pretas.getCor()));
-			this.colocarPeca(new Posicao(2, 8), new Cavalo(pretas.getCor()));
-			this.colocarPeca(new Posicao(3, 8), new Bispo(pretas.getCor()));
-			this.colocarPeca(new Posicao(4, 8), new Rainha(pretas.getCor()));
-			this.colocarPeca(new Posicao(5, 8), new Rei(pretas.getCor()));
-			this.colocarPeca(new Posicao(6, 8), new Bispo(pretas.getCor()));
-			this.colocarPeca(new Posicao(7, 8), new Cavalo(pretas.getCor()));
-			this.colocarPeca(new Posicao(8, 8), new Torre(pretas.getCor()));
+			this.colocarPeca(Posicao.de(1, 8), new Torre(pretas.getCor()));
+			this.colocarPeca(Posicao.de(2, 8), new Cavalo(pretas.getCor()));
+			this.colocarPeca(Posicao.de(3, 8), new Bispo(pretas.getCor()));
+			this.colocarPeca(Posicao.de(4, 8), new Rainha(pretas.getCor()));
+			this.colocarPeca(Posicao.de(5, 8), new Rei(pretas.getCor()));
+			this.colocarPeca(Posicao.de(6, 8), new Bispo(pretas.getCor()));
+			this.colocarPeca(Posicao.de(7, 8), new Cavalo(pretas.getCor()));
+			this.colocarPeca(Posicao.de(8, 8), new Torre(pretas.getCor()));
 
 			// Posiciona os peões pretos.
 			for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++) {
-				this.colocarPeca(new Posicao(coluna, 7),
+				this.colocarPeca(Posicao.de(coluna, 7),
 						new Peao(pretas.getCor()));
 			}
 		} catch (CasaOcupadaException e) {
@@ -122,6 +148,18 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 		return pecas[posicao.getColuna() - 1][posicao.getLinha() - 1];
 	}
 
+	/**
+	 * Tipo da peça que está na casa indicada.
+	 * 
+	 * @param casa
+	 *            Índice da casa (de 0 a 63).
+	 * @return O tipo da peça. Ou 'null', se a casa estiver vazia.
+	 */
+	public TipoPeca tipoPeca(int casa) {
+		Peca peca = pecas[Bitboard.coluna(casa) - 1][Bitboard.linha(casa) - 1];
+		return peca == null ? null : peca.getTipoPeca();
+	}
+
 	/**
 	 * Retira a peça da posição indicada e tal peça é retornada. Se não houver
 	 * qualquer peça no local indicado, nada será feito e será retornado 'null'.
@@ -134,6 +172,9 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	public Peca retirarPeca(Posicao posicao) {
 		Peca peca = pecas[posicao.getColuna() - 1][posicao.getLinha() - 1];
 		pecas[posicao.getColuna() - 1][posicao.getLinha() - 1] = null;
+		if (peca != null)
+			bitboards.retirar(Bitboard.casa(posicao), peca.getTipoPeca(),
+					peca.getCorJogador());
 		return peca;
 	}
 
@@ -154,7 +195,176 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 			throw new CasaOcupadaException();
 		} else
 			// Coloca a peça na posição indicada.
-			pecas[posicao.getColuna() - 1][posicao.getLinha() - 1] = peca;
+			posicionar(posicao, peca);
+	}
+
+	/**
+	 * Coloca a peça na posição indicada, sem verificar se ela está ocupada.
+	 * Usado quando já se sabe que a casa está livre, como ao desfazer uma
+	 * jogada.
+	 * 
+	 * @param posicao
+	 *            Local onde a peça será colocada.
+	 * @param peca
+	 *            Peça que será posicionada no tabuleiro.
+	 */
+	private void posicionar(Posicao posicao, Peca peca) {
+		pecas[posicao.getColuna() - 1][posicao.getLinha() - 1] = peca;
+		bitboards.colocar(Bitboard.casa(posicao), peca.getTipoPeca(),
+				peca.getCorJogador());
+	}
+
+	/**
+	 * Casas ocupadas por qualquer peça.
+	 * 
+	 * @return Bitboard da ocupação do tabuleiro.
+	 */
+	public long getOcupacao() {
+		return bitboards.getOcupacao();
+	}
+
+	/**
+	 * Casas ocupadas pelas peças da cor indicada.
+	 * 
+	 * @param cor
+	 *            Cor das peças.
+	 * @return Bitboard da ocupação da cor.
+	 */
+	public long getOcupacao(TipoCorJogador cor) {
+		return bitboards.getOcupacao(cor);
+	}
+
+	/**
+	 * Casas ocupadas pelas peças do tipo e cor indicados.
+	 *
+	 * @param tipo
+	 *            Tipo das peças.
+	 * @param cor
+	 *            Cor das peças.
+	 * @return Bitboard das peças.
+	 */
+	public long getPecas(TipoPeca tipo, TipoCorJogador cor) {
+		return bitboards.getPecas(tipo, cor);
+	}
+
+	/**
+	 * Chave Zobrist da posição, que a identifica com alta probabilidade: duas
+	 * posições com as mesmas peças nas mesmas casas, os mesmos direitos de
+	 * roque e de en passant e a mesma vez têm a mesma chave. A parte das peças
+	 * é mantida a cada peça colocada ou retirada (inclusive pelas jogadas
+	 * feitas pela máquina e por {@link Jogador#executarJogada(Jogada)}); os
+	 * direitos de roque e de en passant, que estão nos atributos das peças, são
+	 * lidos de poucas casas. Como o tabuleiro não sabe de quem é a vez, ela é
+	 * informada.
+	 * 
+	 * @param vez
+	 *            Cor de quem joga.
+	 * @return A chave da posição.
+	 */
+	public long getChave(TipoCorJogador vez) {
+		long chave = bitboards.getChave() ^ Zobrist.roques(direitosRoque());
+		int colunaEnPassant = colunaEnPassant(TipoCorJogador.getCorOposta(vez));
+		if (colunaEnPassant != 0)
+			chave ^= Zobrist.enPassant(colunaEnPassant);
+		if (vez == TipoCorJogador.PRETO)
+			chave ^= Zobrist.VEZ_PRETAS;
+		return chave;
+	}
+
+	/**
+	 * Chave Zobrist somente dos peões: duas posições com os mesmos peões nas
+	 * mesmas casas têm a mesma chave, quaisquer que sejam as demais peças. É
+	 * mantida a cada peça colocada ou retirada.
+	 * 
+	 * @return A chave da estrutura de peões.
+	 */
+	public long getChavePeoes() {
+		return bitboards.getChavePeoes();
+	}
+
+	/**
+	 * Direitos de roque, conforme o rei e as torres de cada cor ainda não
+	 * tenham se movido.
+	 * 
+	 * @return A soma das constantes Zobrist.ROQUE_* dos roques ainda
+	 *         possíveis.
+	 */
+	private int direitosRoque() {
+		int direitos = 0;
+		if (intacta(5, LINHAINFERIOR, TipoPeca.REI)) {
+			if (intacta(8, LINHAINFERIOR, TipoPeca.TORRE))
+				direitos |= Zobrist.ROQUE_MENOR_BRANCO;
+			if (intacta(1, LINHAINFERIOR, TipoPeca.TORRE))
+				direitos |= Zobrist.ROQUE_MAIOR_BRANCO;
+		}
+		if (intacta(5, LINHASUPERIOR, TipoPeca.REI)) {
+			if (intacta(8, LINHASUPERIOR, TipoPeca.TORRE))
+				direitos |= Zobrist.ROQUE_MENOR_PRETO;
+			if (intacta(1, LINHASUPERIOR, TipoPeca.TORRE))
+				direitos |= Zobrist.ROQUE_MAIOR_PRETO;
+		}
+		return direitos;
+	}
+
+	/**
+	 * Se na casa está uma peça do tipo indicado, da cor que começa naquela
+	 * linha, que ainda não se moveu.
+	 */
+	private boolean intacta(int coluna, int linha, TipoPeca tipo) {
+		Peca peca = pecas[coluna - 1][linha - 1];
+		TipoCorJogador cor = linha == LINHAINFERIOR ? TipoCorJogador.BRANCO
+				: TipoCorJogador.PRETO;
+		return peca != null && peca.getTipoPeca() == tipo
+				&& peca.getCorJogador() == cor && !peca.getJaMoveu();
+	}
+
+	/**
+	 * Coluna do peão da cor indicada que acabou de andar duas casas e pode
+	 * sofrer en passant. Tal peão só pode estar na quarta linha, se for
+	 * branco, ou na quinta, se for preto. Os peões de quem está na vez são
+	 * ignorados, pois só perdem a marca quando o seu jogador voltar a jogar.
+	 * 
+	 * @param cor
+	 *            Cor do peão, oposta à de quem joga.
+	 * @return A coluna (de 1 a 8), ou 0 se não houver tal peão.
+	 */
+	private int colunaEnPassant(TipoCorJogador cor) {
+		long peoes = peoesLinhaEnPassant(cor);
+		while (peoes != 0L) {
+			int casa = Bitboard.primeiraCasa(peoes);
+			peoes &= peoes - 1;
+			Peao peao = (Peao) pecas[Bitboard.coluna(casa) - 1][Bitboard
+					.linha(casa) - 1];
+			if (peao.isPodeEnPassant())
+				return Bitboard.coluna(casa);
+		}
+		return 0;
+	}
+
+	/**
+	 * Peões da cor indicada na linha em que um peão que acabou de andar duas
+	 * casas fica: a quarta, se for branco, ou a quinta, se for preto.
+	 */
+	private long peoesLinhaEnPassant(TipoCorJogador cor) {
+		long linha = cor == TipoCorJogador.BRANCO ? Bitboard.LINHA_1 << 24
+				: Bitboard.LINHA_1 << 32;
+		return bitboards.getPecas(TipoPeca.PEAO, cor) & linha;
+	}
+
+	/**
+	 * Refaz os bitboards a partir da matriz, ao carregar um tabuleiro salvo.
+	 */
+	private void readObject(ObjectInputStream entrada) throws IOException,
+			ClassNotFoundException {
+		entrada.defaultReadObject();
+		bitboards = new ConjuntoBitboards();
+		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++)
+			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++) {
+				Peca peca = pecas[coluna - 1][linha - 1];
+				if (peca != null)
+					bitboards.colocar(Bitboard.casa(coluna, linha),
+							peca.getTipoPeca(), peca.getCorJogador());
+			}
 	}
 
 	/**
@@ -178,12 +388,8 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 * @return Se está vazio.
 	 */
 	public boolean estaAliado(TipoCorJogador corJogador, Posicao destino) {
-		if (this.estaVazio(new Posicao(destino.getColuna(), destino.getLinha())) == false)
-			if (this.espiarPeca(
-					new Posicao(destino.getColuna(), destino.getLinha()))
-					.getCorJogador() == corJogador)
-				return true;
-		return false;
+		Peca peca = this.espiarPeca(destino);
+		return peca != null && peca.getCorJogador() == corJogador;
 	}
 
 	/**
@@ -195,12 +401,8 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 * @return Se está vazio.
 	 */
 	public boolean estaInimigo(TipoCorJogador corJogador, Posicao destino) {
-		if (this.estaVazio(new Posicao(destino.getColuna(), destino.getLinha())) == false)
-			if (this.espiarPeca(
-					new Posicao(destino.getColuna(), destino.getLinha()))
-					.getCorJogador() != corJogador)
-				return true;
-		return false;
+		Peca peca = this.espiarPeca(destino);
+		return peca != null && peca.getCorJogador() != corJogador;
 	}
 
 	/**
@@ -252,13 +454,14 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 			// Se não tivermos chegado na posição
 			linha = linha + sentidoHorizontal;
 			coluna = coluna + sentidoVertical;
-			if (estaForaDoTabuleiro(new Posicao(coluna, linha)) == true) {
+			if (coluna < COLUNAINFERIOR || coluna > COLUNASUPERIOR
+					|| linha < LINHAINFERIOR || linha > LINHASUPERIOR) {
 				return false;
 			}
 			if (!(linha == destino.getLinha() && coluna == destino.getColuna())) {
 				// Se a posição no tabuleiro não for nula, informe que o
 				// movimento é proibido
-				if (!this.estaVazio(new Posicao(coluna, linha))) {
+				if (!this.estaVazio(Posicao.de(coluna, linha))) {
 					return false;
 				}
 			}
@@ -308,12 +511,12 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	public boolean ehRoqueMenor(TipoCorJogador corJogador) {
 		// Se for um roque menor do jogador de peças brancas
 		if (corJogador == TipoCorJogador.BRANCO)
-			return verificaRoque(new Posicao(5, 1), new Posicao(8, 1),
-					new Posicao(7, 1), new Posicao(6, 1));
+			return verificaRoque(Posicao.de(5, 1), Posicao.de(8, 1),
+					Posicao.de(7, 1), Posicao.de(6, 1));
 		// Se for um roque menor do jogador de peças pretas
 		else {
-			return verificaRoque(new Posicao(5, 8), new Posicao(8, 8),
-					new Posicao(7, 8), new Posicao(6, 8));
+			return verificaRoque(Posicao.de(5, 8), Posicao.de(8, 8),
+					Posicao.de(7, 8), Posicao.de(6, 8));
 		}
 	}
 
@@ -327,12 +530,12 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	public boolean ehRoqueMaior(TipoCorJogador corJogador) {
 		// Se for um roque maior do jogador de peças brancas
 		if (corJogador == TipoCorJogador.BRANCO)
-			return verificaRoque(new Posicao(5, 1), new Posicao(1, 1),
-					new Posicao(3, 1), new Posicao(4, 1));
+			return verificaRoque(Posicao.de(5, 1), Posicao.de(1, 1),
+					Posicao.de(3, 1), Posicao.de(4, 1));
 		// Se for um roque maior do jogador de peças pretas
 		else
-			return verificaRoque(new Posicao(5, 8), new Posicao(1, 8),
-					new Posicao(3, 8), new Posicao(4, 8));
+			return verificaRoque(Posicao.de(5, 8), Posicao.de(1, 8),
+					Posicao.de(3, 8), Posicao.de(4, 8));
 	}
 
 	/**
@@ -343,7 +546,9 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 * @return Posições ao redor do rei.
 	 */
 	public boolean ehEnPassantEsquerda(Posicao posicaoPeca) {
-		Posicao esquerda = new Posicao(posicaoPeca.getColuna() - 1,
+		if (posicaoPeca.getColuna() == COLUNAINFERIOR)
+			return false;
+		Posicao esquerda = Posicao.de(posicaoPeca.getColuna() - 1,
 				posicaoPeca.getLinha());
 		return ehEnPassant(posicaoPeca, esquerda);
 	}
@@ -356,7 +561,9 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 * @return Posições ao redor do rei.
 	 */
 	public boolean ehEnPassantDireita(Posicao posicaoPeca) {
-		Posicao direita = new Posicao(posicaoPeca.getColuna() + 1,
+		if (posicaoPeca.getColuna() == COLUNASUPERIOR)
+			return false;
+		Posicao direita = Posicao.de(posicaoPeca.getColuna() + 1,
 				posicaoPeca.getLinha());
 		return ehEnPassant(posicaoPeca, direita);
 	}
@@ -394,10 +601,10 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	public void resetaPodeEnPassant(TipoCorJogador corJogador) {
 		for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++)
 			for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++)
-				if (this.estaAliado(corJogador, new Posicao(coluna, linha)))
-					if (this.espiarPeca(new Posicao(coluna, linha))
+				if (this.estaAliado(corJogador, Posicao.de(coluna, linha)))
+					if (this.espiarPeca(Posicao.de(coluna, linha))
 							.getTipoPeca() == TipoPeca.PEAO) {
-						Peao peao = (Peao) this.espiarPeca(new Posicao(coluna,
+						Peao peao = (Peao) this.espiarPeca(Posicao.de(coluna,
 								linha));
 						peao.setPodeEnPassant(false);
 					}
@@ -421,10 +628,10 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 					// Se a peça se encontra na linha 7
 					if (posicaoPeca.getLinha() == 7)
 						if (peao.podeAndar(posicaoPeca,
-								new Posicao(posicaoPeca.getColuna(), 8), this)
-								|| peao.podeAtacar(posicaoPeca, new Posicao(
+								Posicao.de(posicaoPeca.getColuna(), 8), this)
+								|| peao.podeAtacar(posicaoPeca, Posicao.de(
 										posicaoPeca.getColuna() - 1, 8), this)
-								|| peao.podeAtacar(posicaoPeca, new Posicao(
+								|| peao.podeAtacar(posicaoPeca, Posicao.de(
 										posicaoPeca.getColuna() + 1, 8), this))
 
 							return true;
@@ -433,10 +640,10 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 					// Se a peça se encontra na linha 2
 					if (posicaoPeca.getLinha() == 2)
 						if (peao.podeAndar(posicaoPeca,
-								new Posicao(posicaoPeca.getColuna(), 1), this)
-								|| peao.podeAtacar(posicaoPeca, new Posicao(
+								Posicao.de(posicaoPeca.getColuna(), 1), this)
+								|| peao.podeAtacar(posicaoPeca, Posicao.de(
 										posicaoPeca.getColuna() - 1, 1), this)
-								|| peao.podeAtacar(posicaoPeca, new Posicao(
+								|| peao.podeAtacar(posicaoPeca, Posicao.de(
 										posicaoPeca.getColuna() + 1, 1), this))
 							return true;
 				}
@@ -457,26 +664,510 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 */
 	public boolean jogadaSuicida(Jogada jogada, TipoCorJogador corJogador) {
 		if (this.estaAliado(corJogador, jogada.getOrigem())) {
-			TipoCorJogador corAdversario = TipoCorJogador
-					.getCorOposta(corJogador);
-
-			TabuleiroXadrez novoTabuleiro;
+			RegistroJogada registro;
 			try {
-				novoTabuleiro = geraEstado.geraTabuleiroJogada(jogada, this,
-						corJogador);
-			} catch (CasaOcupadaException e) {
+				registro = fazerJogada(jogada, corJogador);
+			} catch (CasaOcupadaException | JogadaInvalidaException e) {
 				// Jogada nem pode vir a ocorrer
 				return false;
 			}
 
-			Posicao posicaoRei = novoTabuleiro.encontrarRei(corJogador);
-
-			// Verificamos se está ameaçado
-			return novoTabuleiro.estaAmeacadoPor(posicaoRei, corAdversario);
+			// Verificamos se está ameaçado e voltamos o tabuleiro ao que era
+			boolean suicida = verificarXeque(corJogador);
+			desfazerJogada(registro);
+			return suicida;
 		}
 		return false;
 	}
 
+	/**
+	 * Faz a jogada diretamente sobre este tabuleiro, da mesma forma que a
+	 * máquina a considera: os peões do jogador deixam de poder sofrer en
+	 * passant, a peça movida é marcada como já movimentada, o peão que anda
+	 * duas casas passa a poder sofrer en passant e a promoção é sempre para
+	 * rainha. Nada é alterado se a jogada não puder ser feita. A jogada não é
+	 * validada quanto às regras de movimento das peças nem quanto ao xeque.
+	 * 
+	 * @param jogada
+	 *            Jogada a ser feita.
+	 * @param corJogador
+	 *            Cor do jogador que faz a jogada.
+	 * @return O registro que permite desfazer a jogada.
+	 * @throws CasaOcupadaException
+	 *             Se a casa de destino de alguma peça estiver ocupada.
+	 * @throws JogadaInvalidaException
+	 *             Se não houver peça para ser movida.
+	 */
+	public RegistroJogada fazerJogada(Jogada jogada, TipoCorJogador corJogador)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		// Somente o roque pode não ter origem, e somente o en passant e o
+		// roque podem não ter destino
+		TipoJogada tipo = jogada.getTipoJogada();
+		boolean roque = tipo == TipoJogada.ROQUE_MENOR
+				|| tipo == TipoJogada.ROQUE_MAIOR;
+		boolean enPassant = tipo == TipoJogada.EN_PASSANT_ESQUERDA
+				|| tipo == TipoJogada.EN_PASSANT_DIREITA;
+		if (!roque
+				&& (jogada.getOrigem() == null
+						|| estaForaDoTabuleiro(jogada.getOrigem()) || (!enPassant && (jogada
+						.getDestino() == null || estaForaDoTabuleiro(jogada
+						.getDestino())))))
+			throw new JogadaInvalidaException(
+					"A jogada não está dentro do tabuleiro.");
+		return fazerJogada(CodigoJogada.codificar(jogada, corJogador),
+				corJogador);
+	}
+
+	/**
+	 * Faz a jogada codificada (ver {@link CodigoJogada}) diretamente sobre
+	 * este tabuleiro, da mesma forma que
+	 * {@link #fazerJogada(Jogada, TipoCorJogador)}, mas sem criar o objeto da
+	 * jogada.
+	 * 
+	 * @param codigo
+	 *            Código da jogada a ser feita.
+	 * @param corJogador
+	 *            Cor do jogador que faz a jogada.
+	 * @return O registro que permite desfazer a jogada.
+	 * @throws CasaOcupadaException
+	 *             Se a casa de destino de alguma peça estiver ocupada.
+	 * @throws JogadaInvalidaException
+	 *             Se não houver peça para ser movida.
+	 */
+	public RegistroJogada fazerJogada(int codigo, TipoCorJogador corJogador)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		RegistroJogada registro = new RegistroJogada(codigo, corJogador);
+		TipoJogada tipo = CodigoJogada.tipo(codigo);
+		registro.origem = Bitboard.posicao(CodigoJogada.origem(codigo));
+		registro.destino = Bitboard.posicao(CodigoJogada.destino(codigo));
+
+		// Descobre as demais casas envolvidas na jogada
+		switch (tipo) {
+		case ROQUE_MENOR:
+		case ROQUE_MAIOR:
+			int linhaRoque = registro.origem.getLinha();
+			boolean menor = tipo == TipoJogada.ROQUE_MENOR;
+			registro.origemTorre = Posicao.de(menor ? 8 : 1, linhaRoque);
+			registro.destinoTorre = Posicao.de(menor ? 6 : 4, linhaRoque);
+			break;
+		case EN_PASSANT_ESQUERDA:
+		case EN_PASSANT_DIREITA:
+			// O peão capturado está ao lado da origem
+			registro.casaCaptura = Posicao.de(registro.destino.getColuna(),
+					registro.origem.getLinha());
+			break;
+		case ATACAR:
+			registro.casaCaptura = registro.destino;
+			break;
+		default:
+			break;
+		}
+
+		// Valida as casas antes de alterar o tabuleiro
+		Peca peca = espiarPeca(registro.origem);
+		if (peca == null
+				|| (registro.origemTorre != null && estaVazio(registro.origemTorre)))
+			throw new JogadaInvalidaException(
+					"Não há uma peça na origem do movimento.");
+		if (registro.casaCaptura != registro.destino
+				&& !estaVazio(registro.destino))
+			throw new CasaOcupadaException();
+		if (registro.destinoTorre != null && !estaVazio(registro.destinoTorre))
+			throw new CasaOcupadaException();
+
+		// Os peões do jogador deixam de poder sofrer en passant
+		resetarEnPassant(corJogador, registro);
+
+		// Retira a peça movida e a capturada
+		registro.pecaMovida = retirarPeca(registro.origem);
+		registro.jaMoviaAntes = peca.getJaMoveu();
+		if (peca.getTipoPeca() == TipoPeca.PEAO)
+			registro.podiaEnPassantAntes = ((Peao) peca).isPodeEnPassant();
+		if (registro.casaCaptura != null)
+			registro.pecaCapturada = retirarPeca(registro.casaCaptura);
+
+		// Move a torre do roque
+		if (registro.origemTorre != null) {
+			registro.torre = retirarPeca(registro.origemTorre);
+			registro.torreJaMoviaAntes = registro.torre.getJaMoveu();
+			registro.torre.setJaMoveu();
+			posicionar(registro.destinoTorre, registro.torre);
+		}
+
+		// Coloca a peça no destino, conforme o tipo de jogada
+		Peca pecaDestino = peca;
+		switch (tipo) {
+		case EN_PASSANT_ESQUERDA:
+		case EN_PASSANT_DIREITA:
+			// A peça é movida sem alterações
+			break;
+		default:
+			if (CodigoJogada.ehPromocao(codigo)) {
+				pecaDestino = new Rainha(corJogador);
+				pecaDestino.setJaMoveu();
+			} else {
+				// O peão que anda duas casas pode sofrer en passant
+				if (peca.getTipoPeca() == TipoPeca.PEAO
+						&& tipo == TipoJogada.ANDAR
+						&& peca.medeDeslocamentoPeca(registro.origem.getLinha(),
+								registro.destino.getLinha()) == 2)
+					((Peao) peca).setPodeEnPassant(true);
+				peca.setJaMoveu();
+			}
+			break;
+		}
+		posicionar(registro.destino, pecaDestino);
+		return registro;
+	}
+
+	/**
+	 * Passa a vez sem mover nenhuma peça. Não é uma jogada das regras: serve
+	 * à busca da máquina, para ver o que o oponente faria se pudesse jogar
+	 * duas vezes seguidas. Como numa jogada, os peões do jogador deixam de
+	 * poder sofrer en passant.
+	 * 
+	 * @param corJogador
+	 *            Cor do jogador que passa a vez.
+	 * @return O registro da passagem, para ser desfeita com
+	 *         {@link #desfazerJogada(RegistroJogada)}.
+	 */
+	public RegistroJogada passarVez(TipoCorJogador corJogador) {
+		RegistroJogada registro = new RegistroJogada(CodigoJogada.NENHUMA,
+				corJogador);
+		resetarEnPassant(corJogador, registro);
+		return registro;
+	}
+
+	/**
+	 * Os peões do jogador deixam de poder sofrer en passant. Os alterados são
+	 * anotados no registro. Somente os peões da linha em que o en passant é
+	 * possível são olhados.
+	 */
+	private void resetarEnPassant(TipoCorJogador corJogador,
+			RegistroJogada registro) {
+		for (long peoes = peoesLinhaEnPassant(corJogador); peoes != 0L; peoes &= peoes - 1) {
+			int casa = Bitboard.primeiraCasa(peoes);
+			Peao peao = (Peao) pecas[Bitboard.coluna(casa) - 1][Bitboard
+					.linha(casa) - 1];
+			if (peao.isPodeEnPassant()) {
+				peao.setPodeEnPassant(false);
+				registro.adicionarEnPassantResetado(peao);
+			}
+		}
+	}
+
+	/**
+	 * Desfaz uma jogada feita por
+	 * {@link #fazerJogada(Jogada, TipoCorJogador)}, ou uma passagem de vez
+	 * feita por {@link #passarVez(TipoCorJogador)}. As jogadas devem ser
+	 * desfeitas na ordem inversa em que foram feitas.
+	 * 
+	 * @param registro
+	 *            Registro devolvido ao fazer a jogada.
+	 */
+	public void desfazerJogada(RegistroJogada registro) {
+		// Na passagem de vez, somente o en passant foi alterado
+		if (registro.pecaMovida == null) {
+			restaurarEnPassant(registro);
+			return;
+		}
+
+		// Retira a peça do destino e devolve a movida à origem
+		retirarPeca(registro.destino);
+		Peca peca = registro.pecaMovida;
+		peca.setJaMoveu(registro.jaMoviaAntes);
+		if (peca.getTipoPeca() == TipoPeca.PEAO)
+			((Peao) peca).setPodeEnPassant(registro.podiaEnPassantAntes);
+		posicionar(registro.origem, peca);
+
+		// Devolve a torre do roque
+		if (registro.torre != null) {
+			retirarPeca(registro.destinoTorre);
+			registro.torre.setJaMoveu(registro.torreJaMoviaAntes);
+			posicionar(registro.origemTorre, registro.torre);
+		}
+
+		// Devolve a peça capturada
+		if (registro.pecaCapturada != null)
+			posicionar(registro.casaCaptura, registro.pecaCapturada);
+
+		restaurarEnPassant(registro);
+	}
+
+	/** Restaura o en passant dos peões do jogador. */
+	private static void restaurarEnPassant(RegistroJogada registro) {
+		if (registro.enPassantResetados != null)
+			for (Peao peao : registro.enPassantResetados)
+				peao.setPodeEnPassant(true);
+	}
+
+	/**
+	 * Gera as jogadas do jogador que não deixam o próprio rei em xeque. Cada
+	 * jogada possível é feita e desfeita sobre este tabuleiro, sem criar
+	 * cópias dele.
+	 * 
+	 * @param corJogador
+	 *            Cor do jogador.
+	 * @return As jogadas legais.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public List<Jogada> jogadasLegais(TipoCorJogador corJogador)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		int[] codigos = new int[CodigoJogada.MAXIMO_JOGADAS];
+		return paraJogadas(codigos, jogadasLegais(corJogador, codigos));
+	}
+
+	/**
+	 * Gera os códigos das jogadas legais do jogador (ver {@link CodigoJogada}),
+	 * na mesma ordem de {@link #jogadasLegais(TipoCorJogador)}. As jogadas
+	 * possíveis são escritas no vetor e as ilegais, descartadas sem copiar o
+	 * vetor.
+	 * 
+	 * @param corJogador
+	 *            Cor do jogador.
+	 * @param jogadas
+	 *            Vetor onde os códigos são escritos, com pelo menos
+	 *            {@link CodigoJogada#MAXIMO_JOGADAS} posições.
+	 * @return A quantidade de jogadas legais.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public int jogadasLegais(TipoCorJogador corJogador, int[] jogadas)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		int possiveis = geraJogadasPossiveis(corJogador, jogadas);
+		int legais = 0;
+		for (int i = 0; i < possiveis; i++) {
+			RegistroJogada registro = fazerJogada(jogadas[i], corJogador);
+			if (!verificarXeque(corJogador))
+				jogadas[legais++] = jogadas[i];
+			desfazerJogada(registro);
+		}
+		return legais;
+	}
+
+	/**
+	 * Gera os códigos das jogadas legais do jogador (ver {@link CodigoJogada})
+	 * sem fazer nenhuma delas: as peças cravadas e as que dão xeque são
+	 * calculadas uma única vez, a partir da casa do rei. Em xeque, somente as
+	 * jogadas que o evitam são geradas, e em xeque duplo, somente as do rei.
+	 * As jogadas são as mesmas de {@link #jogadasLegais(TipoCorJogador, int[])},
+	 * seguindo as mesmas regras de roque e de promoção, mas em outra ordem.
+	 * 
+	 * @param corJogador
+	 *            Cor do jogador.
+	 * @param jogadas
+	 *            Vetor onde os códigos são escritos, com pelo menos
+	 *            {@link CodigoJogada#MAXIMO_JOGADAS} posições.
+	 * @return A quantidade de jogadas legais.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public int gerarJogadasLegais(TipoCorJogador corJogador, int[] jogadas)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		return gerarJogadasLegais(corJogador, jogadas, false);
+	}
+
+	/**
+	 * Gera as jogadas legais, como
+	 * {@link #gerarJogadasLegais(TipoCorJogador, int[])}, podendo parar assim
+	 * que alguma for encontrada.
+	 * 
+	 * @param primeira
+	 *            Se a geração para depois da primeira peça com jogadas legais.
+	 */
+	private int gerarJogadasLegais(TipoCorJogador corJogador, int[] jogadas,
+			boolean primeira) throws CasaOcupadaException,
+			JogadaInvalidaException {
+		int rei = bitboards.casaRei(corJogador);
+		// Sem rei, não há xeque: todas as jogadas possíveis são legais
+		if (rei < 0)
+			return jogadasLegais(corJogador, jogadas);
+		TipoCorJogador corInimiga = TipoCorJogador.getCorOposta(corJogador);
+		long aliadas = bitboards.getOcupacao(corJogador);
+		long ocupacao = bitboards.getOcupacao();
+		long xeques = bitboards.atacantes(rei, corInimiga, ocupacao);
+		int quantidade = 0;
+
+		// O rei não pode ir para uma casa atacada. Ele mesmo é retirado da
+		// ocupação, para não se esconder atrás de si de uma peça deslizante.
+		long semRei = ocupacao ^ Bitboard.mascara(rei);
+		for (long destinos = TabelaAtaques.REI[rei] & ~aliadas; destinos != 0L; destinos &= destinos - 1) {
+			int destino = Bitboard.primeiraCasa(destinos);
+			if (bitboards.atacantes(destino, corInimiga, semRei) == 0L)
+				jogadas[quantidade++] = CodigoJogada.codificar(rei, destino,
+						tipoDestino(destino, ocupacao));
+		}
+		if (primeira && quantidade > 0)
+			return quantidade;
+		// Em xeque duplo, somente o rei pode se mover, andando ou pelo roque
+		if (Bitboard.contar(xeques) > 1)
+			return gerarRoques(corJogador, rei, corInimiga, jogadas,
+					quantidade);
+
+		// Em xeque, as demais peças só podem capturar a peça que dá xeque ou
+		// se colocar entre ela e o rei
+		long alvos = ~aliadas;
+		if (xeques != 0L) {
+			int atacante = Bitboard.primeiraCasa(xeques);
+			alvos = xeques | TabelaAtaques.ENTRE[rei][atacante];
+		}
+
+		// Peças cravadas: a única peça entre o rei e uma deslizante inimiga
+		// alinhada com ele, se for aliada, só pode andar sobre essa linha
+		long rainhas = bitboards.getPecas(TipoPeca.RAINHA, corInimiga);
+		long cravadoras = (TabelaAtaques.TORRE_VAZIO[rei] & (bitboards
+				.getPecas(TipoPeca.TORRE, corInimiga) | rainhas))
+				| (TabelaAtaques.BISPO_VAZIO[rei] & (bitboards.getPecas(
+						TipoPeca.BISPO, corInimiga) | rainhas));
+		long cravadas = 0L;
+		for (; cravadoras != 0L; cravadoras &= cravadoras - 1) {
+			long entre = TabelaAtaques.ENTRE[rei][Bitboard
+					.primeiraCasa(cravadoras)] & ocupacao;
+			if (Bitboard.contar(entre) == 1 && (entre & aliadas) != 0L)
+				cravadas |= entre;
+		}
+
+		// As demais peças
+		for (long pecasAliadas = aliadas & ~Bitboard.mascara(rei); pecasAliadas != 0L; pecasAliadas &= pecasAliadas - 1) {
+			int origem = Bitboard.primeiraCasa(pecasAliadas);
+			Peca peca = pecas[Bitboard.coluna(origem) - 1][Bitboard
+					.linha(origem) - 1];
+			long destinos;
+			switch (peca.getTipoPeca()) {
+			case PEAO:
+				destinos = destinosPeao(origem, peca, ocupacao);
+				break;
+			case CAVALO:
+				destinos = TabelaAtaques.CAVALO[origem];
+				break;
+			case BISPO:
+				destinos = Bitboard.ataquesBispo(origem, ocupacao);
+				break;
+			case TORRE:
+				destinos = Bitboard.ataquesTorre(origem, ocupacao);
+				break;
+			default:
+				destinos = Bitboard.ataquesTorre(origem, ocupacao)
+						| Bitboard.ataquesBispo(origem, ocupacao);
+				break;
+			}
+			destinos &= alvos;
+			if ((cravadas & Bitboard.mascara(origem)) != 0L)
+				destinos &= TabelaAtaques.LINHA[rei][origem];
+			// O peão que sai da penúltima linha é promovido a rainha
+			boolean promocao = peca.getTipoPeca() == TipoPeca.PEAO
+					&& (destinos & (Bitboard.LINHA_1 | Bitboard.LINHA_8)) != 0L;
+			for (; destinos != 0L; destinos &= destinos - 1) {
+				int destino = Bitboard.primeiraCasa(destinos);
+				TipoJogada tipo = tipoDestino(destino, ocupacao);
+				jogadas[quantidade++] = promocao ? CodigoJogada.codificar(
+						origem, destino, tipo, TipoPeca.RAINHA) : CodigoJogada
+						.codificar(origem, destino, tipo);
+			}
+
+			// O en passant tira duas peças da linha do rei de uma vez, e é
+			// conferido com a ocupação depois da jogada
+			if (peca.getTipoPeca() == TipoPeca.PEAO) {
+				Posicao posicao = Posicao.de(origem);
+				int avanco = corJogador == TipoCorJogador.BRANCO ? 8 : -8;
+				if (ehEnPassantEsquerda(posicao)
+						&& enPassantLegal(rei, origem, origem - 1, origem
+								+ avanco - 1, corInimiga))
+					jogadas[quantidade++] = CodigoJogada.codificar(origem,
+							origem + avanco - 1,
+							TipoJogada.EN_PASSANT_ESQUERDA);
+				if (ehEnPassantDireita(posicao)
+						&& enPassantLegal(rei, origem, origem + 1, origem
+								+ avanco + 1, corInimiga))
+					jogadas[quantidade++] = CodigoJogada.codificar(origem,
+							origem + avanco + 1, TipoJogada.EN_PASSANT_DIREITA);
+			}
+			if (primeira && quantidade > 0)
+				return quantidade;
+		}
+		return gerarRoques(corJogador, rei, corInimiga, jogadas, quantidade);
+	}
+
+	/**
+	 * Acrescenta os roques legais às jogadas já geradas. O roque é conferido
+	 * com o rei e a torre nas casas de destino, já que as regras deste jogo só
+	 * exigem que o rei não termine em xeque, mesmo que esteja em xeque antes.
+	 * 
+	 * @return A quantidade de jogadas, com os roques.
+	 */
+	private int gerarRoques(TipoCorJogador corJogador, int rei,
+			TipoCorJogador corInimiga, int[] jogadas, int quantidade) {
+		int linhaRoque = corJogador == TipoCorJogador.BRANCO ? LINHAINFERIOR
+				: LINHASUPERIOR;
+		if (ehRoqueMenor(corJogador)
+				&& roqueLegal(rei, linhaRoque, 7, 8, 6, corInimiga))
+			jogadas[quantidade++] = CodigoJogada.codificar(
+					Bitboard.casa(5, linhaRoque), Bitboard.casa(7, linhaRoque),
+					TipoJogada.ROQUE_MENOR);
+		if (ehRoqueMaior(corJogador)
+				&& roqueLegal(rei, linhaRoque, 3, 1, 4, corInimiga))
+			jogadas[quantidade++] = CodigoJogada.codificar(
+					Bitboard.casa(5, linhaRoque), Bitboard.casa(3, linhaRoque),
+					TipoJogada.ROQUE_MAIOR);
+		return quantidade;
+	}
+
+	/** Andar, se o destino estiver vazio, ou atacar, se estiver ocupado. */
+	private static TipoJogada tipoDestino(int destino, long ocupacao) {
+		return (ocupacao & Bitboard.mascara(destino)) == 0L ? TipoJogada.ANDAR
+				: TipoJogada.ATACAR;
+	}
+
+	/**
+	 * Casas para onde o peão anda ou ataca, sem o en passant. Como em
+	 * {@link Peao#podeAndar(Posicao, Posicao, TabuleiroXadrez)}, o peão que
+	 * nunca se moveu pode andar duas casas.
+	 */
+	private long destinosPeao(int origem, Peca peao, long ocupacao) {
+		TipoCorJogador cor = peao.getCorJogador();
+		long mascara = Bitboard.mascara(origem);
+		long frente = cor == TipoCorJogador.BRANCO ? mascara << 8
+				: mascara >>> 8;
+		long destinos = frente & ~ocupacao;
+		if (destinos != 0L && !peao.getJaMoveu()) {
+			long duas = cor == TipoCorJogador.BRANCO ? frente << 8
+					: frente >>> 8;
+			destinos |= duas & ~ocupacao;
+		}
+		return destinos
+				| (TabelaAtaques.PEAO[cor.ordinal()][origem] & bitboards
+						.getOcupacao(TipoCorJogador.getCorOposta(cor)));
+	}
+
+	/**
+	 * Se o rei não fica atacado depois do en passant, com o peão capturado e
+	 * o que captura retirados da ocupação, e o que captura no destino.
+	 */
+	private boolean enPassantLegal(int rei, int origem, int captura,
+			int destino, TipoCorJogador corInimiga) {
+		long ocupacao = bitboards.getOcupacao() ^ Bitboard.mascara(origem)
+				^ Bitboard.mascara(captura) ^ Bitboard.mascara(destino);
+		return (bitboards.atacantes(rei, corInimiga, ocupacao) & ~Bitboard
+				.mascara(captura)) == 0L;
+	}
+
+	/**
+	 * Se o rei não fica atacado depois do roque, com a peça da casa do rei e a
+	 * torre já nas casas de destino.
+	 */
+	private boolean roqueLegal(int rei, int linha, int colunaDestinoRei,
+			int colunaTorre, int colunaDestinoTorre, TipoCorJogador corInimiga) {
+		int origemRei = Bitboard.casa(5, linha);
+		int destinoRei = Bitboard.casa(colunaDestinoRei, linha);
+		long ocupacao = bitboards.getOcupacao() ^ Bitboard.mascara(origemRei)
+				^ Bitboard.mascara(destinoRei)
+				^ Bitboard.mascara(Bitboard.casa(colunaTorre, linha))
+				^ Bitboard.mascara(Bitboard.casa(colunaDestinoTorre, linha));
+		int casaRei = rei == origemRei ? destinoRei : rei;
+		return bitboards.atacantes(casaRei, corInimiga, ocupacao) == 0L;
+	}
+
 	/**
 	 * Encontra a posição no tabuleiro em que o rei da cor indicada está. Se o
 	 * rei não for encontrado (o que é impossível numa partida de xadrez), o
@@ -487,30 +1178,109 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 * @return Onde está o rei.
 	 */
 	public Posicao encontrarRei(TipoCorJogador cor) {
-		// Varre o tabuleiro procurando o rei da cor indicada.
-		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++) {
-			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++) {
-				// Forma a posição que estamos a verificar.
-				Posicao posicao = new Posicao(coluna, linha);
+		// A casa do rei é mantida pelos bitboards a cada peça movida.
+		int casa = bitboards.casaRei(cor);
+		if (casa < 0)
+			return null;
+		return Posicao.de(casa);
+	}
 
-				// Pula se não houver peça ali.
-				if (estaVazio(posicao))
-					continue;
+	/**
+	 * Ordem em que as peças recapturam na avaliação de trocas: da menos
+	 * valiosa para a mais valiosa.
+	 */
+	private static final TipoPeca[] ORDEM_TROCA = { TipoPeca.PEAO,
+			TipoPeca.CAVALO, TipoPeca.BISPO, TipoPeca.TORRE, TipoPeca.RAINHA,
+			TipoPeca.REI };
 
-				// Pega a peça que está ali.
-				Peca peca = espiarPeca(posicao);
+	/**
+	 * Avalia estaticamente a troca iniciada por uma captura: cada lado
+	 * recaptura na casa de destino com a sua peça menos valiosa, enquanto
+	 * tiver atacantes, e pode parar quando continuar não compensar. As peças
+	 * deslizantes que estavam atrás das que capturaram entram na troca. Não
+	 * são consideradas as cravadas, nem os xeques, nem as promoções das
+	 * recapturas. O rei só recaptura se o oponente não tiver mais atacantes.
+	 * 
+	 * @param codigo
+	 *            Código da jogada (ver {@link CodigoJogada}).
+	 * @return O material ganho por quem faz a jogada ao fim da troca (ver
+	 *         {@link ValoresPosicionais#material(TipoPeca)}). Negativo, se a
+	 *         troca perde material.
+	 */
+	public int avaliarTroca(int codigo) {
+		int origem = CodigoJogada.origem(codigo);
+		int destino = CodigoJogada.destino(codigo);
+		TipoJogada tipo = CodigoJogada.tipo(codigo);
+		long ocupacao = bitboards.getOcupacao() & ~Bitboard.mascara(origem);
+		TipoCorJogador cor = pecas[Bitboard.coluna(origem) - 1][Bitboard
+				.linha(origem) - 1].getCorJogador();
 
-				// Verifica se é o rei da cor indicada. E retorna-o.
-				if (peca.getTipoPeca() == TipoPeca.REI
-						&& peca.getCorJogador() == cor) {
-					return posicao;
+		// Ganhos acumulados de quem captura em cada passo da troca
+		if (ganhosTroca == null)
+			ganhosTroca = new int[32];
+		int[] ganhos = ganhosTroca;
+		ganhos[0] = 0;
+		if (tipo == TipoJogada.EN_PASSANT_ESQUERDA
+				|| tipo == TipoJogada.EN_PASSANT_DIREITA) {
+			ganhos[0] = ValoresPosicionais.material(TipoPeca.PEAO);
+			ocupacao &= ~Bitboard.mascara(Bitboard.casa(
+					Bitboard.coluna(destino), Bitboard.linha(origem)));
+		} else if (tipo == TipoJogada.ATACAR)
+			ganhos[0] = ValoresPosicionais.material(tipoPeca(destino));
+		int valorNaCasa = ValoresPosicionais.material(tipoPeca(origem));
+		if (CodigoJogada.ehPromocao(codigo)) {
+			ganhos[0] += ValoresPosicionais.material(TipoPeca.RAINHA)
+					- valorNaCasa;
+			valorNaCasa = ValoresPosicionais.material(TipoPeca.RAINHA);
+		}
+
+		int passo = 0;
+		TipoCorJogador lado = TipoCorJogador.getCorOposta(cor);
+		while (passo < ganhos.length - 1) {
+			long atacantes = bitboards.atacantes(destino, lado, ocupacao)
+					& ocupacao;
+			if (atacantes == 0L)
+				break;
+			// Escolhe o atacante menos valioso
+			TipoPeca atacante = null;
+			long casaAtacante = 0L;
+			for (TipoPeca candidato : ORDEM_TROCA) {
+				casaAtacante = atacantes & bitboards.getPecas(candidato, lado);
+				if (casaAtacante != 0L) {
+					atacante = candidato;
+					break;
 				}
 			}
+			// O rei não pode recapturar uma casa ainda defendida
+			if (atacante == TipoPeca.REI
+					&& (bitboards.atacantes(destino,
+							TipoCorJogador.getCorOposta(lado), ocupacao) & ocupacao) != 0L)
+				break;
+			passo++;
+			ganhos[passo] = valorNaCasa - ganhos[passo - 1];
+			valorNaCasa = ValoresPosicionais.material(atacante);
+			ocupacao &= ~(casaAtacante & -casaAtacante);
+			lado = TipoCorJogador.getCorOposta(lado);
 		}
+		// Do fim para o começo, cada lado escolhe entre recapturar ou parar
+		for (; passo > 0; passo--)
+			ganhos[passo - 1] = -Math.max(-ganhos[passo - 1], ganhos[passo]);
+		return ganhos[0];
+	}
 
-		// Se o rei não for encontrado (o que não acontece em uma partida de
-		// xadrez), retorna 'null'.
-		return null;
+	/**
+	 * Indica se alguma peça da cor indicada ataca a casa, olhando a partir
+	 * dela (ver {@link ConjuntoBitboards#estaAtacada(int, TipoCorJogador)}),
+	 * sem percorrer as peças do tabuleiro.
+	 * 
+	 * @param casa
+	 *            Casa a ser verificada (de 0 a 63).
+	 * @param corAdversario
+	 *            Cor das peças que podem estar atacando.
+	 * @return Se a casa está sob ataque.
+	 */
+	public boolean estaAtacada(int casa, TipoCorJogador corAdversario) {
+		return bitboards.estaAtacada(casa, corAdversario);
 	}
 
 	/**
@@ -530,7 +1300,7 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 		// indicada.
 		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++) {
 			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++) {
-				Posicao origem = new Posicao(coluna, linha);
+				Posicao origem = Posicao.de(coluna, linha);
 
 				// Pula as casas vazias.
 				if (estaVazio(origem))
@@ -560,10 +1330,14 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 * @return Se a o rei está em Xeque.
 	 */
 	public boolean verificarXeque(TipoCorJogador cor) {
-		// Encontra a posição do rei.
-		Posicao posicaoRei = encontrarRei(cor);
-		// Retorna se a posição do rei está ameaçadado.
-		return estaAmeacadoPor(posicaoRei, TipoCorJogador.getCorOposta(cor));
+		// A casa do rei já é conhecida pelos bitboards mantidos a cada jogada.
+		int casaRei = bitboards.casaRei(cor);
+		if (casaRei < 0)
+			return false;
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		// Os ataques são procurados a partir da casa do rei, até o primeiro
+		// atacante.
+		return bitboards.estaAtacada(casaRei, corOposta);
 	}
 
 	/**
@@ -577,11 +1351,46 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 */
 	public boolean verificarXequeMate(TipoCorJogador cor)
 			throws CasaOcupadaException, JogadaInvalidaException {
-		List<Estado> estadosPossiveis = geraEstado.proximosEstadosPossiveis(
-				this, cor);
-		if (!estadosPossiveis.isEmpty())
-			return false;
-		return true;
+		// Nas regras deste jogo, quem fica sem jogadas perde a partida
+		return !temJogadaLegal(cor);
+	}
+
+	/**
+	 * Indica se o jogador tem alguma jogada legal. A geração para na primeira
+	 * peça que tiver uma jogada legal, começando pelo rei, sem gerar as
+	 * demais.
+	 * 
+	 * @param cor
+	 *            Cor do jogador.
+	 * @return Se há ao menos uma jogada legal.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public boolean temJogadaLegal(TipoCorJogador cor)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		if (jogadasConsulta == null)
+			jogadasConsulta = new int[CodigoJogada.MAXIMO_JOGADAS];
+		return gerarJogadasLegais(cor, jogadasConsulta, true) > 0;
+	}
+
+	/**
+	 * Situação do jogador no tabuleiro: em xeque ou não, e com jogadas legais
+	 * ou não. Também para na primeira jogada legal encontrada.
+	 * 
+	 * @param cor
+	 *            Cor do jogador.
+	 * @return NORMAL, XEQUE, XEQUE_MATE ou AFOGADO.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public TipoSituacaoTabuleiro situacao(TipoCorJogador cor)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		boolean xeque = verificarXeque(cor);
+		if (temJogadaLegal(cor))
+			return xeque ? TipoSituacaoTabuleiro.XEQUE
+					: TipoSituacaoTabuleiro.NORMAL;
+		return xeque ? TipoSituacaoTabuleiro.XEQUE_MATE
+				: TipoSituacaoTabuleiro.AFOGADO;
 	}
 
 	/**
@@ -597,58 +1406,70 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 */
 	public List<Jogada> geraJogadasPossiveis(TipoCorJogador corJogador)
 			throws CasaOcupadaException, JogadaInvalidaException {
-		// Contém todas as jogadas que podem ser realizadas por um jogador
-		List<Jogada> possiveisJogadas = new ArrayList<Jogada>();
-		// Contém todas as jogadas que podem ser realizadas por uma peça
-		List<Jogada> jogadasPeca = new ArrayList<Jogada>();
-		// Jogadas relacionadas a andar e atacar
+		int[] codigos = new int[CodigoJogada.MAXIMO_JOGADAS];
+		return paraJogadas(codigos, geraJogadasPossiveis(corJogador, codigos));
+	}
+
+	/**
+	 * Gera os códigos de todas as jogadas possíveis do jogador (ver
+	 * {@link CodigoJogada}), na mesma ordem de
+	 * {@link #geraJogadasPossiveis(TipoCorJogador)}, sem criar objetos de
+	 * jogada. O vetor pode ser reaproveitado entre chamadas.
+	 * 
+	 * @param corJogador
+	 *            Cor do jogador.
+	 * @param jogadas
+	 *            Vetor onde os códigos são escritos, com pelo menos
+	 *            {@link CodigoJogada#MAXIMO_JOGADAS} posições.
+	 * @return A quantidade de jogadas geradas.
+	 * @throws CasaOcupadaException
+	 */
+	public int geraJogadasPossiveis(TipoCorJogador corJogador, int[] jogadas)
+			throws CasaOcupadaException {
+		int quantidade = 0;
+		// Jogadas relacionadas a andar e atacar, percorrendo as colunas como
+		// na matriz de peças
 		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++)
-			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++)
+			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++) {
+				Peca peca = pecas[coluna - 1][linha - 1];
 				// Se a peça encontrada for do jogador
-				if (this.estaAliado(corJogador, new Posicao(coluna, linha))) {
-					Peca peca = this.espiarPeca(new Posicao(coluna, linha));
-					// Encontro todas as jogadas que podem ser realizadas por
-					// uma peça
-					jogadasPeca = peca.jogadasPeca(new Posicao(coluna, linha),
-							this);
-					// Para todas as jogadas que podem ser realizadas por uma
-					// peça
-					for (Jogada jogada : jogadasPeca)
-						// Insira a jogada nas possíveis jogadas
-						possiveisJogadas.add(jogada);
-
-				}
+				if (peca != null && peca.getCorJogador() == corJogador)
+					quantidade = peca.jogadasPeca(Bitboard.casa(coluna, linha),
+							this, jogadas, quantidade);
+			}
 		// Analise de roque menor e roque maior (verifica se é possível)
+		int linhaRoque = corJogador == TipoCorJogador.BRANCO ? LINHAINFERIOR
+				: LINHASUPERIOR;
 		if (this.ehRoqueMenor(corJogador) == true)
-			possiveisJogadas.add(new Jogada(TipoJogada.ROQUE_MENOR));
+			jogadas[quantidade++] = CodigoJogada.codificar(
+					Bitboard.casa(5, linhaRoque), Bitboard.casa(7, linhaRoque),
+					TipoJogada.ROQUE_MENOR);
 		if (this.ehRoqueMaior(corJogador) == true)
-			possiveisJogadas.add(new Jogada(TipoJogada.ROQUE_MAIOR));
-		return possiveisJogadas;
+			jogadas[quantidade++] = CodigoJogada.codificar(
+					Bitboard.casa(5, linhaRoque), Bitboard.casa(3, linhaRoque),
+					TipoJogada.ROQUE_MAIOR);
+		return quantidade;
+	}
+
+	/** Converte os códigos gerados em objetos de jogada. */
+	private static List<Jogada> paraJogadas(int[] codigos, int quantidade) {
+		List<Jogada> jogadas = new ArrayList<Jogada>(quantidade);
+		for (int i = 0; i < quantidade; i++)
+			jogadas.add(CodigoJogada.paraJogada(codigos[i]));
+		return jogadas;
 	}
 
 	/**
 	 * Verifica o valor do tabuleiro com base nas peças que um jogador possui e
-	 * nas peças que o jogador inimigo possui (trabalhar com Max min)
+	 * nas peças que o jogador inimigo possui (trabalhar com Max min). O
+	 * material de cada cor é mantido a cada peça colocada ou retirada, sem
+	 * percorrer o tabuleiro.
 	 * 
 	 * @return valor daquele tabuleiro
 	 */
 	public int valorTabuleiro(TipoCorJogador corJogador, int xequeMate) {
-		int valor = 0;
-		// Percorrendo o tabuleiro
-		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++) {
-			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++) {
-				Posicao posicao = new Posicao(coluna, linha);
-				// Se houver uma peça na posição
-				if (!this.estaVazio(posicao)) {
-					// Se for uma peça aliada
-					if (this.estaAliado(corJogador, posicao))
-						valor = valor + this.espiarPeca(posicao).getValor();
-					// Se for uma peça inimiga
-					else
-						valor = valor - this.espiarPeca(posicao).getValor();
-				}
-			}
-		}
+		int valor = bitboards.getMaterial(corJogador)
+				- bitboards.getMaterial(TipoCorJogador.getCorOposta(corJogador));
 		// Se o jogador em questão realizou xeque-mate
 		if (xequeMate == 1)
 			valor = valor + 100;
@@ -658,6 +1479,35 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 		return valor;
 	}
 
+	/**
+	 * Valor do tabuleiro em centésimos de peão, do ponto de vista do jogador:
+	 * o material e a casa de cada peça (ver {@link ValoresPosicionais}), com
+	 * as tabelas de abertura e de final pesadas pela fase da partida. As somas
+	 * são mantidas a cada peça colocada ou retirada, sem percorrer o
+	 * tabuleiro.
+	 * 
+	 * @param corJogador
+	 *            Cor do jogador.
+	 * @return O valor da posição para o jogador.
+	 */
+	public int valorPosicional(TipoCorJogador corJogador) {
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(corJogador);
+		return ValoresPosicionais.ponderar(bitboards.getAbertura(corJogador)
+				- bitboards.getAbertura(corOposta),
+				bitboards.getFim(corJogador) - bitboards.getFim(corOposta),
+				bitboards.getFase());
+	}
+
+	/**
+	 * Fase da partida, de {@link ValoresPosicionais#FASE_ABERTURA} (todas as
+	 * peças) a zero (somente reis e peões).
+	 * 
+	 * @return A fase da partida.
+	 */
+	public int getFase() {
+		return Math.min(bitboards.getFase(), ValoresPosicionais.FASE_ABERTURA);
+	}
+
 	/**
 	 * Método que copia as peças para um novo tabuleiro
 	 * 
@@ -666,11 +1516,13 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 	 */
 	public TabuleiroXadrez tabuleiroClonado() throws CasaOcupadaException {
 		TabuleiroXadrez novoTabuleiro = new TabuleiroXadrez();
+		// O gerador de estados não guarda estado, então pode ser compartilhado.
+		novoTabuleiro.geraEstado = this.geraEstado;
 		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++)
 			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++)
-				if (this.espiarPeca(new Posicao(coluna, linha)) != null) {
-					novoTabuleiro.colocarPeca(new Posicao(coluna, linha),
-							(Peca) this.espiarPeca(new Posicao(coluna, linha))
+				if (this.espiarPeca(Posicao.de(coluna, linha)) != null) {
+					novoTabuleiro.colocarPeca(Posicao.de(coluna, linha),
+							(Peca) this.espiarPeca(Posicao.de(coluna, linha))
 									.clone());
 				}
 		return novoTabuleiro;
@@ -686,20 +1538,20 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 		List<String> dadoPartida = new ArrayList<String>();
 		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++)
 			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++) {
-				if (this.espiarPeca(new Posicao(coluna, linha)) != null) {
+				if (this.espiarPeca(Posicao.de(coluna, linha)) != null) {
 					String texto = (coluna
 							+ " "
 							+ linha
 							+ " "
-							+ this.espiarPeca(new Posicao(coluna, linha))
+							+ this.espiarPeca(Posicao.de(coluna, linha))
 									.getTipoPeca()
 							+ " "
-							+ this.espiarPeca(new Posicao(coluna, linha))
+							+ this.espiarPeca(Posicao.de(coluna, linha))
 									.getCorJogador() + " " + this.espiarPeca(
-							new Posicao(coluna, linha)).getJaMoveu());
-					if (this.espiarPeca(new Posicao(coluna, linha))
+							Posicao.de(coluna, linha)).getJaMoveu());
+					if (this.espiarPeca(Posicao.de(coluna, linha))
 							.getTipoPeca() == TipoPeca.PEAO) {
-						Peao peao = (Peao) this.espiarPeca(new Posicao(coluna,
+						Peao peao = (Peao) this.espiarPeca(Posicao.de(coluna,
 								linha));
 						texto = (texto + " " + peao.isPodeEnPassant());
 					}
@@ -716,23 +1568,23 @@ public class TabuleiroXadrez implements Tabuleiro, Serializable {
 		String dadosTabuleiro = "";
 		for (int coluna = COLUNAINFERIOR; coluna <= COLUNASUPERIOR; coluna++)
 			for (int linha = LINHAINFERIOR; linha <= LINHASUPERIOR; linha++) {
-				if (this.espiarPeca(new Posicao(coluna, linha)) != null) {
+				if (this.espiarPeca(Posicao.de(coluna, linha)) != null) {
 					dadosTabuleiro = dadosTabuleiro
-							+ this.espiarPeca(new Posicao(coluna, linha))
+							+ this.espiarPeca(Posicao.de(coluna, linha))
 									.getTipoPeca()
 							+ " "
-							+ this.espiarPeca(new Posicao(coluna, linha))
+							+ this.espiarPeca(Posicao.de(coluna, linha))
 									.getCorJogador()
 							+ " na coluna "
 							+ coluna
 							+ " e linha "
 							+ linha
 							+ " e já moveu: "
-							+ this.espiarPeca(new Posicao(coluna, linha))
+							+ this.espiarPeca(Posicao.de(coluna, linha))
 									.getJaMoveu();
-					if (this.espiarPeca(new Posicao(coluna, linha))
+					if (this.espiarPeca(Posicao.de(coluna, linha))
 							.getTipoPeca() == TipoPeca.PEAO) {
-						Peao peao = (Peao) this.espiarPeca(new Posicao(coluna,
+						Peao peao = (Peao) this.espiarPeca(Posicao.de(coluna,
 								linha));
 						dadosTabuleiro = dadosTabuleiro + " "
 								+ "pode enPassant: " + peao.isPodeEnPassant();
@@ -0,0 +1,273 @@
+package br.edu.ifes.poo1.cln.cdp.bitboard;
+
+import java.util.Random;
+
+/**
+ * Ataques das peças deslizantes (torre, bispo e rainha) por "magic bitboards".
+ * Para cada casa, as casas que podem bloquear a peça são isoladas por uma
+ * máscara; multiplicar essa ocupação por um número mágico e descartar os bits
+ * baixos leva, sem colisões, a um índice de uma tabela com os ataques já
+ * calculados. Assim, os ataques de uma peça deslizante saem de uma
+ * multiplicação e uma consulta, qualquer que seja a ocupação.
+ *
+ * As tabelas são montadas quando a classe é carregada, a partir de números
+ * mágicos já conhecidos. Cada um deles é conferido ao montar a tabela; se algum
+ * não servir, um novo número é procurado, com uma semente fixa, de modo que as
+ * tabelas são sempre as mesmas. Os números conhecidos foram obtidos por essa
+ * mesma busca, que é lenta demais para ser feita a cada execução.
+ */
+public final class AtaquesDeslizantes {
+
+	/** Semente da busca pelos números mágicos. */
+	private static final long SEMENTE = 0x5EEDC0DE1234L;
+
+	/** Números mágicos conhecidos da torre, por casa. */
+	private static final long[] MAGICO_CONHECIDO_TORRE = {
+			0x0A80024000118060L, 0x1040200010004000L, 0x0A800C1000200080L,
+			0x1100081000070020L, 0x0200100420080200L, 0x0100010002040008L,
+			0x0280008001001200L, 0x050004224A820100L, 0x0028800040002080L,
+			0x8441002508400480L, 0x2101001100200040L, 0x1020800800100080L,
+			0x5048808008000400L, 0x08A0808002000400L, 0x0041000402000100L,
+			0x0802000900440092L, 0x0020208000904000L, 0x0000888040002004L,
+			0x8060008010008020L, 0x4028008010008009L, 0x0404010100080010L,
+			0x0800080104204010L, 0x4200040001108248L, 0x0028020008810064L,
+			0x0210208080104004L, 0x1200400040201000L, 0x1000100080200080L,
+			0x9200220200401008L, 0x2000080080040082L, 0x0006020080040080L,
+			0x0000120400104118L, 0x0080048200046104L, 0x0080002000400040L,
+			0x1E00208102004208L, 0x80A8841000802000L, 0x0000100181800801L,
+			0x8408010005001008L, 0x8010020080800400L, 0x004008010400C210L,
+			0x100C109122000044L, 0x0050400020818000L, 0xC300500020004001L,
+			0x0180200010008080L, 0x0F80100008008080L, 0x0002001088060020L,
+			0x0041000400090022L, 0x0200080110040002L, 0x00020404A4520001L,
+			0xA800208000411100L, 0x2400400020008080L, 0x000102200C104100L,
+			0x0209008822100300L, 0x0000040080080080L, 0x0286010804502200L,
+			0x018100140A002900L, 0x2020042841088200L, 0x0000102300824202L,
+			0x4040008610204101L, 0x0002008008204012L, 0x0100042100100009L,
+			0x2009001004020801L, 0x0001000802040003L, 0x0843281005025184L,
+			0x0000010144022582L };
+
+	/** Números mágicos conhecidos do bispo, por casa. */
+	private static final long[] MAGICO_CONHECIDO_BISPO = {
+			0x2111200081020422L, 0x0020040100410C80L, 0x3908422400200040L,
+			0x0004404280400000L, 0x0004050410951000L, 0x0001100250000008L,
+			0x8211088804418308L, 0xC1018200B0040202L, 0x0010400204041094L,
+			0x2022C28208120080L, 0x0000108110410004L, 0x9050024081001000L,
+			0x0044140308000008L, 0x0808208844412000L, 0x004000808420A060L,
+			0x2000060508980400L, 0x0250220A20411404L, 0x80A3021064281080L,
+			0x100C100204040048L, 0x010800B402400800L, 0x2004000201210106L,
+			0x81020005018A8414L, 0x0101002208010440L, 0x2405000041009002L,
+			0x0003084040080822L, 0x8481045010100221L, 0xA108208410048480L,
+			0x0002080004004008L, 0x0180820004010400L, 0x2063020023080112L,
+			0x290801000204E218L, 0x0201102002020140L, 0x4001084101081002L,
+			0x4EC1082008228400L, 0x2108140412020800L, 0x000C020080080080L,
+			0x0040004100001100L, 0x0420040102002082L, 0x1010810A00111080L,
+			0x0044240082842080L, 0x23081208200005C0L, 0x0021011090000208L,
+			0x000C104028005003L, 0x08001C2124004800L, 0x400002200A000102L,
+			0x0D04008082008504L, 0x2103300410900300L, 0x0001092C0101008AL,
+			0x1002020104402189L, 0x4882440401490001L, 0x0001004104410804L,
+			0x2702000210440010L, 0x0000001092088001L, 0x804824300A021440L,
+			0x2008020882140420L, 0x0210040124002101L, 0x4048120101201020L,
+			0x1100020084210800L, 0x0080060202010440L, 0x8004100800840408L,
+			0x0000000110020210L, 0x8C02040420040110L, 0x0000202004008088L,
+			0x5160180308318210L };
+
+	/** Casas relevantes para os bloqueios da torre, por casa. */
+	private static final long[] MASCARA_TORRE = new long[64];
+
+	/** Casas relevantes para os bloqueios do bispo, por casa. */
+	private static final long[] MASCARA_BISPO = new long[64];
+
+	/** Números mágicos da torre, por casa. */
+	private static final long[] MAGICO_TORRE = new long[64];
+
+	/** Números mágicos do bispo, por casa. */
+	private static final long[] MAGICO_BISPO = new long[64];
+
+	/** Deslocamento aplicado ao produto da torre, por casa. */
+	private static final int[] DESLOCAMENTO_TORRE = new int[64];
+
+	/** Deslocamento aplicado ao produto do bispo, por casa. */
+	private static final int[] DESLOCAMENTO_BISPO = new int[64];
+
+	/** Ataques da torre, por casa e índice mágico. */
+	private static final long[][] ATAQUES_TORRE = new long[64][];
+
+	/** Ataques do bispo, por casa e índice mágico. */
+	private static final long[][] ATAQUES_BISPO = new long[64][];
+
+	static {
+		Random random = new Random(SEMENTE);
+		for (int casa = 0; casa < 64; casa++) {
+			MASCARA_TORRE[casa] = mascaraTorre(casa);
+			MASCARA_BISPO[casa] = mascaraBispo(casa);
+			DESLOCAMENTO_TORRE[casa] = 64 - Long.bitCount(MASCARA_TORRE[casa]);
+			DESLOCAMENTO_BISPO[casa] = 64 - Long.bitCount(MASCARA_BISPO[casa]);
+			ATAQUES_TORRE[casa] = new long[1 << Long
+					.bitCount(MASCARA_TORRE[casa])];
+			ATAQUES_BISPO[casa] = new long[1 << Long
+					.bitCount(MASCARA_BISPO[casa])];
+			MAGICO_TORRE[casa] = montarTabela(casa, true,
+					MASCARA_TORRE[casa], DESLOCAMENTO_TORRE[casa],
+					ATAQUES_TORRE[casa], MAGICO_CONHECIDO_TORRE[casa], random);
+			MAGICO_BISPO[casa] = montarTabela(casa, false,
+					MASCARA_BISPO[casa], DESLOCAMENTO_BISPO[casa],
+					ATAQUES_BISPO[casa], MAGICO_CONHECIDO_BISPO[casa], random);
+		}
+	}
+
+	/** Não deve ser instanciada. */
+	private AtaquesDeslizantes() {
+	}
+
+	/**
+	 * Casas atacadas por uma torre, considerando as peças que bloqueiam o
+	 * caminho. A casa bloqueadora é incluída no ataque.
+	 *
+	 * @param casa
+	 *            Casa em que a torre está.
+	 * @param ocupacao
+	 *            Bitboard com todas as casas ocupadas.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long torre(int casa, long ocupacao) {
+		return ATAQUES_TORRE[casa][(int) (((ocupacao & MASCARA_TORRE[casa]) * MAGICO_TORRE[casa]) >>> DESLOCAMENTO_TORRE[casa])];
+	}
+
+	/**
+	 * Casas atacadas por um bispo, considerando as peças que bloqueiam o
+	 * caminho. A casa bloqueadora é incluída no ataque.
+	 *
+	 * @param casa
+	 *            Casa em que o bispo está.
+	 * @param ocupacao
+	 *            Bitboard com todas as casas ocupadas.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long bispo(int casa, long ocupacao) {
+		return ATAQUES_BISPO[casa][(int) (((ocupacao & MASCARA_BISPO[casa]) * MAGICO_BISPO[casa]) >>> DESLOCAMENTO_BISPO[casa])];
+	}
+
+	/**
+	 * Casas atacadas por uma rainha, que soma os ataques da torre e do bispo.
+	 *
+	 * @param casa
+	 *            Casa em que a rainha está.
+	 * @param ocupacao
+	 *            Bitboard com todas as casas ocupadas.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long rainha(int casa, long ocupacao) {
+		return torre(casa, ocupacao) | bispo(casa, ocupacao);
+	}
+
+	/**
+	 * Preenche a tabela de ataques da casa com o número mágico conhecido. Se
+	 * ele causar colisões, procura outro número que leve cada ocupação
+	 * relevante a um índice sem colisões.
+	 *
+	 * @param casa
+	 *            Casa da peça.
+	 * @param ehTorre
+	 *            Se a peça é uma torre (true) ou um bispo (false).
+	 * @param mascara
+	 *            Casas relevantes para os bloqueios.
+	 * @param deslocamento
+	 *            Deslocamento aplicado ao produto.
+	 * @param ataques
+	 *            Tabela a ser preenchida.
+	 * @param conhecido
+	 *            Número mágico conhecido para a casa.
+	 * @param random
+	 *            Gerador dos candidatos, caso seja preciso procurar.
+	 * @return O número mágico usado.
+	 */
+	private static long montarTabela(int casa, boolean ehTorre, long mascara,
+			int deslocamento, long[] ataques, long conhecido, Random random) {
+		// Enumera todas as ocupações possíveis da máscara, com seus ataques
+		int quantidade = 1 << Long.bitCount(mascara);
+		long[] ocupacoes = new long[quantidade];
+		long[] referencia = new long[quantidade];
+		long ocupacao = 0L;
+		for (int i = 0; i < quantidade; i++) {
+			ocupacoes[i] = ocupacao;
+			referencia[i] = ehTorre ? lentoTorre(casa, ocupacao) : lentoBispo(
+					casa, ocupacao);
+			ocupacao = (ocupacao - mascara) & mascara;
+		}
+
+		// Marca em qual tentativa cada índice foi preenchido, para não ter de
+		// limpar a tabela a cada candidato
+		int[] tentativaIndice = new int[quantidade];
+		if (preencher(conhecido, 1, deslocamento, ocupacoes, referencia,
+				ataques, tentativaIndice))
+			return conhecido;
+		for (int tentativa = 2;; tentativa++) {
+			// Candidatos com poucos bits ligados costumam funcionar melhor
+			long magico = random.nextLong() & random.nextLong()
+					& random.nextLong();
+			if (Long.bitCount((mascara * magico) & 0xFF00000000000000L) < 6)
+				continue;
+			if (preencher(magico, tentativa, deslocamento, ocupacoes,
+					referencia, ataques, tentativaIndice))
+				return magico;
+		}
+	}
+
+	/**
+	 * Tenta preencher a tabela de ataques com o número mágico indicado.
+	 *
+	 * @return Se não houve colisão entre ocupações de ataques diferentes.
+	 */
+	private static boolean preencher(long magico, int tentativa,
+			int deslocamento, long[] ocupacoes, long[] referencia,
+			long[] ataques, int[] tentativaIndice) {
+		for (int i = 0; i < ocupacoes.length; i++) {
+			int indice = (int) ((ocupacoes[i] * magico) >>> deslocamento);
+			if (tentativaIndice[indice] != tentativa) {
+				tentativaIndice[indice] = tentativa;
+				ataques[indice] = referencia[i];
+			} else if (ataques[indice] != referencia[i])
+				return false;
+		}
+		return true;
+	}
+
+	/** Casas relevantes para a torre: os raios, sem a última casa de cada um. */
+	private static long mascaraTorre(int casa) {
+		int coluna = Bitboard.coluna(casa);
+		int linha = Bitboard.linha(casa);
+		long mascara = 0L;
+		for (int l = linha + 1; l <= 7; l++)
+			mascara |= Bitboard.mascara(Bitboard.casa(coluna, l));
+		for (int l = linha - 1; l >= 2; l--)
+			mascara |= Bitboard.mascara(Bitboard.casa(coluna, l));
+		for (int c = coluna + 1; c <= 7; c++)
+			mascara |= Bitboard.mascara(Bitboard.casa(c, linha));
+		for (int c = coluna - 1; c >= 2; c--)
+			mascara |= Bitboard.mascara(Bitboard.casa(c, linha));
+		return mascara;
+	}
+
+	/** Casas relevantes para o bispo: as diagonais, sem as bordas. */
+	private static long mascaraBispo(int casa) {
+		long bordas = Bitboard.COLUNA_1 | Bitboard.COLUNA_8 | Bitboard.LINHA_1
+				| Bitboard.LINHA_8;
+		return TabelaAtaques.BISPO_VAZIO[casa] & ~bordas;
+	}
+
+	/** Ataques da torre calculados pelos raios, usados para montar a tabela. */
+	private static long lentoTorre(int casa, long ocupacao) {
+		return TabelaAtaques.raio(TabelaAtaques.NORTE, casa, ocupacao)
+				| TabelaAtaques.raio(TabelaAtaques.SUL, casa, ocupacao)
+				| TabelaAtaques.raio(TabelaAtaques.LESTE, casa, ocupacao)
+				| TabelaAtaques.raio(TabelaAtaques.OESTE, casa, ocupacao);
+	}
+
+	/** Ataques do bispo calculados pelos raios, usados para montar a tabela. */
+	private static long lentoBispo(int casa, long ocupacao) {
+		return TabelaAtaques.raio(TabelaAtaques.NORDESTE, casa, ocupacao)
+				| TabelaAtaques.raio(TabelaAtaques.NOROESTE, casa, ocupacao)
+				| TabelaAtaques.raio(TabelaAtaques.SUDESTE, casa, ocupacao)
+				| TabelaAtaques.raio(TabelaAtaques.SUDOESTE, casa, ocupacao);
+	}
+}
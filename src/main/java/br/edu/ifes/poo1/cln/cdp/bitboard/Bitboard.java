@@ -0,0 +1,198 @@
+package br.edu.ifes.poo1.cln.cdp.bitboard;
+
+import br.edu.ifes.poo1.cln.cdp.Posicao;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Operações básicas sobre bitboards. Um bitboard é um número de 64 bits em que
+ * cada bit representa uma casa do tabuleiro. A casa de índice 0 é a coluna 1 e
+ * linha 1, a casa de índice 7 é a coluna 8 e linha 1, e assim por diante até a
+ * casa 63 (coluna 8 e linha 8).
+ */
+public final class Bitboard {
+
+	/** Casas da coluna 1. */
+	public static final long COLUNA_1 = 0x0101010101010101L;
+
+	/** Casas da coluna 2. */
+	public static final long COLUNA_2 = COLUNA_1 << 1;
+
+	/** Casas da coluna 7. */
+	public static final long COLUNA_7 = COLUNA_1 << 6;
+
+	/** Casas da coluna 8. */
+	public static final long COLUNA_8 = COLUNA_1 << 7;
+
+	/** Casas da linha 1. */
+	public static final long LINHA_1 = 0xFFL;
+
+	/** Casas da linha 8. */
+	public static final long LINHA_8 = LINHA_1 << 56;
+
+	/** Não deve ser instanciada. */
+	private Bitboard() {
+	}
+
+	/**
+	 * Converte uma coluna e uma linha (de 1 a 8) no índice da casa (de 0 a 63).
+	 *
+	 * @param coluna
+	 *            Coluna do tabuleiro.
+	 * @param linha
+	 *            Linha do tabuleiro.
+	 * @return Índice da casa.
+	 */
+	public static int casa(int coluna, int linha) {
+		return (coluna - 1) + 8 * (linha - 1);
+	}
+
+	/**
+	 * Converte uma posição no índice da casa (de 0 a 63).
+	 *
+	 * @param posicao
+	 *            Posição no tabuleiro.
+	 * @return Índice da casa.
+	 */
+	public static int casa(Posicao posicao) {
+		return posicao.getIndice();
+	}
+
+	/**
+	 * Coluna (de 1 a 8) da casa indicada.
+	 */
+	public static int coluna(int casa) {
+		return (casa & 7) + 1;
+	}
+
+	/**
+	 * Linha (de 1 a 8) da casa indicada.
+	 */
+	public static int linha(int casa) {
+		return (casa >>> 3) + 1;
+	}
+
+	/**
+	 * Converte o índice de uma casa em uma posição.
+	 *
+	 * @param casa
+	 *            Índice da casa (de 0 a 63).
+	 * @return Posição correspondente.
+	 */
+	public static Posicao posicao(int casa) {
+		return Posicao.de(casa);
+	}
+
+	/**
+	 * Bitboard com somente a casa indicada marcada.
+	 */
+	public static long mascara(int casa) {
+		return 1L << casa;
+	}
+
+	/**
+	 * Índice da primeira casa marcada no bitboard. Ou 64, se estiver vazio.
+	 */
+	public static int primeiraCasa(long bitboard) {
+		return Long.numberOfTrailingZeros(bitboard);
+	}
+
+	/**
+	 * Quantidade de casas marcadas no bitboard.
+	 */
+	public static int contar(long bitboard) {
+		return Long.bitCount(bitboard);
+	}
+
+	/**
+	 * Casas atacadas por um cavalo na casa indicada.
+	 *
+	 * @param casa
+	 *            Casa em que o cavalo está.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long ataquesCavalo(int casa) {
+		return TabelaAtaques.CAVALO[casa];
+	}
+
+	/**
+	 * Casas atacadas por um rei na casa indicada.
+	 *
+	 * @param casa
+	 *            Casa em que o rei está.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long ataquesRei(int casa) {
+		return TabelaAtaques.REI[casa];
+	}
+
+	/**
+	 * Casas atacadas (diagonais à frente) por um peão da cor indicada.
+	 *
+	 * @param casa
+	 *            Casa em que o peão está.
+	 * @param cor
+	 *            Cor do peão, que define o sentido do avanço.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long ataquesPeao(int casa, TipoCorJogador cor) {
+		return TabelaAtaques.PEAO[cor.ordinal()][casa];
+	}
+
+	/**
+	 * Casas atacadas por uma torre, considerando as peças que bloqueiam o
+	 * caminho. A casa bloqueadora é incluída no ataque.
+	 *
+	 * @param casa
+	 *            Casa em que a torre está.
+	 * @param ocupacao
+	 *            Bitboard com todas as casas ocupadas.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long ataquesTorre(int casa, long ocupacao) {
+		return AtaquesDeslizantes.torre(casa, ocupacao);
+	}
+
+	/**
+	 * Casas atacadas por um bispo, considerando as peças que bloqueiam o
+	 * caminho. A casa bloqueadora é incluída no ataque.
+	 *
+	 * @param casa
+	 *            Casa em que o bispo está.
+	 * @param ocupacao
+	 *            Bitboard com todas as casas ocupadas.
+	 * @return Bitboard com as casas atacadas.
+	 */
+	public static long ataquesBispo(int casa, long ocupacao) {
+		return AtaquesDeslizantes.bispo(casa, ocupacao);
+	}
+
+	/**
+	 * Percorre uma direção a partir da casa indicada até sair do tabuleiro ou
+	 * encontrar uma casa ocupada. Usado somente para montar as tabelas de
+	 * {@link TabelaAtaques}.
+	 *
+	 * @param casa
+	 *            Casa de partida (não incluída).
+	 * @param ocupacao
+	 *            Casas ocupadas.
+	 * @param passoColuna
+	 *            Deslocamento na coluna a cada passo.
+	 * @param passoLinha
+	 *            Deslocamento na linha a cada passo.
+	 * @return Casas alcançadas.
+	 */
+	static long raio(int casa, long ocupacao, int passoColuna, int passoLinha) {
+		long ataques = 0L;
+		int coluna = coluna(casa) + passoColuna;
+		int linha = linha(casa) + passoLinha;
+		while (coluna >= 1 && coluna <= 8 && linha >= 1 && linha <= 8) {
+			long b = mascara(casa(coluna, linha));
+			ataques |= b;
+			if ((ocupacao & b) != 0)
+				break;
+			coluna += passoColuna;
+			linha += passoLinha;
+		}
+		return ataques;
+	}
+}
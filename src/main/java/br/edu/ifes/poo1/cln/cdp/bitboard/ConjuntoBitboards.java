@@ -0,0 +1,285 @@
+package br.edu.ifes.poo1.cln.cdp.bitboard;
+
+import java.io.Serializable;
+
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Guarda um bitboard para cada combinação de tipo de peça e cor (doze ao todo),
+ * além da ocupação de cada cor. Com eles, as consultas de ocupação, ataque e
+ * localização do rei são feitas com poucas operações de bits, sem varrer as 64
+ * casas. Também mantém a parte da chave Zobrist que vem das peças (ver
+ * {@link Zobrist}), a parte que vem somente dos peões, a casa de cada rei e
+ * as somas de material e de valores
+ * posicionais de cada cor (ver {@link ValoresPosicionais}).
+ */
+public class ConjuntoBitboards implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Quantidade de tipos de peça. */
+	private static final int TIPOS = TipoPeca.values().length;
+
+	/** Um bitboard por tipo de peça e cor. O índice é cor * 6 + tipo. */
+	private final long[] pecas = new long[2 * TIPOS];
+
+	/** Casas ocupadas por cada uma das cores. */
+	private final long[] ocupacaoCor = new long[2];
+
+	/** Ou-exclusivo dos números Zobrist de cada peça em sua casa. */
+	private long chave;
+
+	/** Ou-exclusivo dos números Zobrist de cada peão em sua casa. */
+	private long chavePeoes;
+
+	/**
+	 * Casa do rei de cada cor, mantida ao colocar e retirar o rei. Ou -1, se
+	 * não houver rei da cor.
+	 */
+	private final int[] casasRei = { -1, -1 };
+
+	/** Soma dos valores de {@link TipoPeca#getValor()} das peças de cada cor. */
+	private final int[] material = new int[2];
+
+	/** Soma dos valores de abertura das peças de cada cor. */
+	private final int[] abertura = new int[2];
+
+	/** Soma dos valores de final de cada cor. */
+	private final int[] fim = new int[2];
+
+	/** Fase da partida, somada de todas as peças. */
+	private int fase;
+
+	/**
+	 * Marca uma peça na casa indicada.
+	 *
+	 * @param casa
+	 *            Índice da casa (de 0 a 63).
+	 * @param tipo
+	 *            Tipo da peça.
+	 * @param cor
+	 *            Cor da peça.
+	 */
+	public void colocar(int casa, TipoPeca tipo, TipoCorJogador cor) {
+		long b = Bitboard.mascara(casa);
+		pecas[indice(tipo, cor)] |= b;
+		ocupacaoCor[cor.ordinal()] |= b;
+		chave ^= Zobrist.peca(casa, tipo, cor);
+		if (tipo == TipoPeca.PEAO)
+			chavePeoes ^= Zobrist.peca(casa, tipo, cor);
+		if (tipo == TipoPeca.REI)
+			casasRei[cor.ordinal()] = casa;
+		material[cor.ordinal()] += tipo.getValor();
+		abertura[cor.ordinal()] += ValoresPosicionais.abertura(casa, tipo, cor);
+		fim[cor.ordinal()] += ValoresPosicionais.fim(casa, tipo, cor);
+		fase += ValoresPosicionais.fase(tipo);
+	}
+
+	/**
+	 * Desmarca a peça da casa indicada.
+	 *
+	 * @param casa
+	 *            Índice da casa (de 0 a 63).
+	 * @param tipo
+	 *            Tipo da peça.
+	 * @param cor
+	 *            Cor da peça.
+	 */
+	public void retirar(int casa, TipoPeca tipo, TipoCorJogador cor) {
+		long b = ~Bitboard.mascara(casa);
+		pecas[indice(tipo, cor)] &= b;
+		ocupacaoCor[cor.ordinal()] &= b;
+		chave ^= Zobrist.peca(casa, tipo, cor);
+		if (tipo == TipoPeca.PEAO)
+			chavePeoes ^= Zobrist.peca(casa, tipo, cor);
+		if (tipo == TipoPeca.REI && casasRei[cor.ordinal()] == casa)
+			casasRei[cor.ordinal()] = casaMaisBaixa(pecas[indice(tipo, cor)]);
+		material[cor.ordinal()] -= tipo.getValor();
+		abertura[cor.ordinal()] -= ValoresPosicionais.abertura(casa, tipo, cor);
+		fim[cor.ordinal()] -= ValoresPosicionais.fim(casa, tipo, cor);
+		fase -= ValoresPosicionais.fase(tipo);
+	}
+
+	/** Desmarca todas as casas. */
+	public void limpar() {
+		for (int i = 0; i < pecas.length; i++)
+			pecas[i] = 0L;
+		ocupacaoCor[0] = 0L;
+		ocupacaoCor[1] = 0L;
+		chave = 0L;
+		chavePeoes = 0L;
+		casasRei[0] = -1;
+		casasRei[1] = -1;
+		for (int cor = 0; cor < 2; cor++) {
+			material[cor] = 0;
+			abertura[cor] = 0;
+			fim[cor] = 0;
+		}
+		fase = 0;
+	}
+
+	/**
+	 * Casas ocupadas pelas peças do tipo e cor indicados.
+	 */
+	public long getPecas(TipoPeca tipo, TipoCorJogador cor) {
+		return pecas[indice(tipo, cor)];
+	}
+
+	/**
+	 * Casas ocupadas pelas peças da cor indicada.
+	 */
+	public long getOcupacao(TipoCorJogador cor) {
+		return ocupacaoCor[cor.ordinal()];
+	}
+
+	/**
+	 * Casas ocupadas por qualquer peça.
+	 */
+	public long getOcupacao() {
+		return ocupacaoCor[0] | ocupacaoCor[1];
+	}
+
+	/**
+	 * Chave Zobrist das peças, sem roques, en passant e vez.
+	 */
+	public long getChave() {
+		return chave;
+	}
+
+	/**
+	 * Chave Zobrist somente dos peões, que identifica a estrutura de peões.
+	 */
+	public long getChavePeoes() {
+		return chavePeoes;
+	}
+
+	/**
+	 * Soma dos valores das peças da cor indicada, conforme
+	 * {@link TipoPeca#getValor()}.
+	 */
+	public int getMaterial(TipoCorJogador cor) {
+		return material[cor.ordinal()];
+	}
+
+	/**
+	 * Soma dos valores de abertura das peças da cor indicada, com o material
+	 * e a casa de cada uma (ver {@link ValoresPosicionais}).
+	 */
+	public int getAbertura(TipoCorJogador cor) {
+		return abertura[cor.ordinal()];
+	}
+
+	/**
+	 * Soma dos valores de final das peças da cor indicada.
+	 */
+	public int getFim(TipoCorJogador cor) {
+		return fim[cor.ordinal()];
+	}
+
+	/**
+	 * Fase da partida: a soma de {@link ValoresPosicionais#fase(TipoPeca)} das
+	 * peças no tabuleiro.
+	 */
+	public int getFase() {
+		return fase;
+	}
+
+	/**
+	 * Encontra a casa do rei da cor indicada.
+	 *
+	 * @param cor
+	 *            Cor do rei.
+	 * @return Índice da casa do rei, ou -1 se não houver rei dessa cor.
+	 */
+	public int casaRei(TipoCorJogador cor) {
+		return casasRei[cor.ordinal()];
+	}
+
+	/**
+	 * Indica se alguma peça da cor indicada ataca a casa. Olha a partir da
+	 * própria casa: as casas de onde um peão, um cavalo ou o rei a atacariam
+	 * e, nas retas e diagonais, a primeira peça encontrada. Cada consulta
+	 * termina assim que um atacante é encontrado.
+	 *
+	 * @param casa
+	 *            Casa a ser verificada.
+	 * @param corAtacante
+	 *            Cor das peças que podem estar atacando.
+	 * @return Se a casa está sob ataque.
+	 */
+	public boolean estaAtacada(int casa, TipoCorJogador corAtacante) {
+		int cor = corAtacante.ordinal() * TIPOS;
+		// Um peão da cor atacante ataca a casa se estiver onde um peão da cor
+		// oposta, posto na casa, atacaria.
+		if ((TabelaAtaques.PEAO[1 - corAtacante.ordinal()][casa] & pecas[cor
+				+ TipoPeca.PEAO.ordinal()]) != 0L)
+			return true;
+		if ((TabelaAtaques.CAVALO[casa] & pecas[cor
+				+ TipoPeca.CAVALO.ordinal()]) != 0L)
+			return true;
+		if ((TabelaAtaques.REI[casa] & pecas[cor + TipoPeca.REI.ordinal()]) != 0L)
+			return true;
+
+		// Somente as deslizantes que estão na mesma reta ou diagonal da casa
+		// precisam ter o caminho verificado
+		long rainhas = pecas[cor + TipoPeca.RAINHA.ordinal()];
+		long retas = (pecas[cor + TipoPeca.TORRE.ordinal()] | rainhas)
+				& TabelaAtaques.TORRE_VAZIO[casa];
+		long diagonais = (pecas[cor + TipoPeca.BISPO.ordinal()] | rainhas)
+				& TabelaAtaques.BISPO_VAZIO[casa];
+		if ((retas | diagonais) == 0L)
+			return false;
+		long ocupacao = getOcupacao();
+		if (retas != 0L
+				&& (Bitboard.ataquesTorre(casa, ocupacao) & retas) != 0L)
+			return true;
+		return diagonais != 0L
+				&& (Bitboard.ataquesBispo(casa, ocupacao) & diagonais) != 0L;
+	}
+
+	/**
+	 * Calcula todas as peças da cor indicada que atacam a casa, considerando a
+	 * ocupação informada para os bloqueios das peças deslizantes.
+	 *
+	 * @param casa
+	 *            Casa a ser verificada.
+	 * @param corAtacante
+	 *            Cor das peças atacantes.
+	 * @param ocupacao
+	 *            Casas consideradas ocupadas.
+	 * @return Bitboard com as casas das peças atacantes.
+	 */
+	public long atacantes(int casa, TipoCorJogador corAtacante, long ocupacao) {
+		// Um peão da cor atacante ataca a casa se estiver onde um peão da cor
+		// oposta, posto na casa, atacaria.
+		long atacantes = Bitboard.ataquesPeao(casa,
+				TipoCorJogador.getCorOposta(corAtacante))
+				& getPecas(TipoPeca.PEAO, corAtacante);
+		atacantes |= Bitboard.ataquesCavalo(casa)
+				& getPecas(TipoPeca.CAVALO, corAtacante);
+		atacantes |= Bitboard.ataquesRei(casa)
+				& getPecas(TipoPeca.REI, corAtacante);
+
+		long rainhas = getPecas(TipoPeca.RAINHA, corAtacante);
+		long retas = getPecas(TipoPeca.TORRE, corAtacante) | rainhas;
+		long diagonais = getPecas(TipoPeca.BISPO, corAtacante) | rainhas;
+		if (retas != 0L)
+			atacantes |= Bitboard.ataquesTorre(casa, ocupacao) & retas;
+		if (diagonais != 0L)
+			atacantes |= Bitboard.ataquesBispo(casa, ocupacao) & diagonais;
+		return atacantes;
+	}
+
+	/** Primeira casa marcada no bitboard. Ou -1, se estiver vazio. */
+	private static int casaMaisBaixa(long bitboard) {
+		return bitboard == 0L ? -1 : Bitboard.primeiraCasa(bitboard);
+	}
+
+	/**
+	 * Índice do bitboard do tipo e cor indicados.
+	 */
+	private static int indice(TipoPeca tipo, TipoCorJogador cor) {
+		return cor.ordinal() * TIPOS + tipo.ordinal();
+	}
+}
@@ -0,0 +1,152 @@
+package br.edu.ifes.poo1.cln.cdp.bitboard;
+
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Tabelas de ataque pré-calculadas, montadas uma única vez quando a classe é
+ * carregada. Para cada uma das 64 casas, guardam as casas atacadas pelo cavalo,
+ * pelo rei e pelos peões de cada cor, além dos raios (sem bloqueios) em cada
+ * uma das oito direções, usados pelas peças deslizantes, e das casas entre
+ * duas casas alinhadas, usadas para cravadas e xeques.
+ */
+public final class TabelaAtaques {
+
+	/* Direções dos raios. As quatro primeiras aumentam o índice da casa. */
+	public static final int NORTE = 0;
+	public static final int NORDESTE = 1;
+	public static final int LESTE = 2;
+	public static final int NOROESTE = 3;
+	public static final int SUL = 4;
+	public static final int SUDOESTE = 5;
+	public static final int OESTE = 6;
+	public static final int SUDESTE = 7;
+
+	/** Deslocamento de coluna de cada direção. */
+	private static final int[] PASSO_COLUNA = { 0, 1, 1, -1, 0, -1, -1, 1 };
+
+	/** Deslocamento de linha de cada direção. */
+	private static final int[] PASSO_LINHA = { 1, 1, 0, 1, -1, -1, 0, -1 };
+
+	/** Casas atacadas por um cavalo em cada casa. */
+	public static final long[] CAVALO = new long[64];
+
+	/** Casas atacadas por um rei em cada casa. */
+	public static final long[] REI = new long[64];
+
+	/** Casas atacadas por um peão em cada casa. O primeiro índice é a cor. */
+	public static final long[][] PEAO = new long[2][64];
+
+	/** Raios sem bloqueio. O primeiro índice é a direção. */
+	public static final long[][] RAIOS = new long[8][64];
+
+	/** Casas alcançadas por uma torre em cada casa, sem bloqueios. */
+	public static final long[] TORRE_VAZIO = new long[64];
+
+	/** Casas alcançadas por um bispo em cada casa, sem bloqueios. */
+	public static final long[] BISPO_VAZIO = new long[64];
+
+	/**
+	 * Casas estritamente entre duas casas da mesma reta ou diagonal. Vazio se
+	 * as casas não estiverem alinhadas.
+	 */
+	public static final long[][] ENTRE = new long[64][64];
+
+	/**
+	 * Reta ou diagonal inteira que passa pelas duas casas, incluindo-as. Vazio
+	 * se as casas não estiverem alinhadas.
+	 */
+	public static final long[][] LINHA = new long[64][64];
+
+	static {
+		for (int casa = 0; casa < 64; casa++) {
+			CAVALO[casa] = calcularCavalo(casa);
+			REI[casa] = calcularRei(casa);
+			PEAO[TipoCorJogador.BRANCO.ordinal()][casa] = calcularPeao(casa,
+					TipoCorJogador.BRANCO);
+			PEAO[TipoCorJogador.PRETO.ordinal()][casa] = calcularPeao(casa,
+					TipoCorJogador.PRETO);
+			for (int direcao = 0; direcao < 8; direcao++)
+				RAIOS[direcao][casa] = Bitboard.raio(casa, 0L,
+						PASSO_COLUNA[direcao], PASSO_LINHA[direcao]);
+			TORRE_VAZIO[casa] = RAIOS[NORTE][casa] | RAIOS[SUL][casa]
+					| RAIOS[LESTE][casa] | RAIOS[OESTE][casa];
+			BISPO_VAZIO[casa] = RAIOS[NORDESTE][casa] | RAIOS[NOROESTE][casa]
+					| RAIOS[SUDESTE][casa] | RAIOS[SUDOESTE][casa];
+		}
+		// Cada direção tem a oposta quatro posições adiante
+		for (int casa = 0; casa < 64; casa++)
+			for (int direcao = 0; direcao < 8; direcao++) {
+				int oposta = (direcao + 4) % 8;
+				long linha = RAIOS[direcao][casa] | RAIOS[oposta][casa]
+						| Bitboard.mascara(casa);
+				for (long raio = RAIOS[direcao][casa]; raio != 0L; raio &= raio - 1) {
+					int outra = Bitboard.primeiraCasa(raio);
+					ENTRE[casa][outra] = RAIOS[direcao][casa]
+							& RAIOS[oposta][outra];
+					LINHA[casa][outra] = linha;
+				}
+			}
+	}
+
+	/** Não deve ser instanciada. */
+	private TabelaAtaques() {
+	}
+
+	/**
+	 * Casas alcançadas a partir da casa indicada, numa direção, até a primeira
+	 * casa ocupada (incluída). O raio sem bloqueio é cortado a partir do
+	 * primeiro bloqueador, sem percorrer as casas uma a uma.
+	 *
+	 * @param direcao
+	 *            Direção do raio.
+	 * @param casa
+	 *            Casa de partida (não incluída).
+	 * @param ocupacao
+	 *            Casas ocupadas.
+	 * @return Casas alcançadas.
+	 */
+	public static long raio(int direcao, int casa, long ocupacao) {
+		long raio = RAIOS[direcao][casa];
+		long bloqueadores = raio & ocupacao;
+		if (bloqueadores == 0L)
+			return raio;
+		// O bloqueador mais próximo é o de menor índice nas direções que
+		// aumentam o índice, e o de maior índice nas outras.
+		int bloqueador = direcao < SUL ? Long
+				.numberOfTrailingZeros(bloqueadores) : 63 - Long
+				.numberOfLeadingZeros(bloqueadores);
+		return raio ^ RAIOS[direcao][bloqueador];
+	}
+
+	private static long calcularCavalo(int casa) {
+		long b = Bitboard.mascara(casa);
+		long ataques = 0L;
+		ataques |= (b << 17) & ~Bitboard.COLUNA_1;
+		ataques |= (b << 15) & ~Bitboard.COLUNA_8;
+		ataques |= (b << 10) & ~(Bitboard.COLUNA_1 | Bitboard.COLUNA_2);
+		ataques |= (b << 6) & ~(Bitboard.COLUNA_7 | Bitboard.COLUNA_8);
+		ataques |= (b >>> 17) & ~Bitboard.COLUNA_8;
+		ataques |= (b >>> 15) & ~Bitboard.COLUNA_1;
+		ataques |= (b >>> 10) & ~(Bitboard.COLUNA_7 | Bitboard.COLUNA_8);
+		ataques |= (b >>> 6) & ~(Bitboard.COLUNA_1 | Bitboard.COLUNA_2);
+		return ataques;
+	}
+
+	private static long calcularRei(int casa) {
+		long b = Bitboard.mascara(casa);
+		long laterais = ((b << 1) & ~Bitboard.COLUNA_1)
+				| ((b >>> 1) & ~Bitboard.COLUNA_8);
+		long linha = b | laterais;
+		return laterais | (linha << 8) | (linha >>> 8);
+	}
+
+	private static long calcularPeao(int casa, TipoCorJogador cor) {
+		long b = Bitboard.mascara(casa);
+		if (cor == TipoCorJogador.BRANCO)
+			return ((b << 9) & ~Bitboard.COLUNA_1)
+					| ((b << 7) & ~Bitboard.COLUNA_8);
+		else
+			return ((b >>> 7) & ~Bitboard.COLUNA_1)
+					| ((b >>> 9) & ~Bitboard.COLUNA_8);
+	}
+}
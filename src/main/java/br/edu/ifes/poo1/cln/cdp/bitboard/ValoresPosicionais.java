@@ -0,0 +1,252 @@
+package br.edu.ifes.poo1.cln.cdp.bitboard;
+
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Valores de cada peça em cada casa, em centésimos de peão, usados pela
+ * avaliação da máquina. Cada valor soma o material da peça a um bônus (ou
+ * penalidade) pela casa que ela ocupa. Há uma tabela para a abertura e outra
+ * para o final: o valor da posição é a média das duas, pesada pela fase da
+ * partida, que vai de {@link #FASE_ABERTURA} (todas as peças no tabuleiro) a
+ * zero (somente reis e peões).
+ * 
+ * Como o valor de uma posição é a soma dos valores de cada peça, ele é mantido
+ * a cada peça colocada ou retirada (ver {@link ConjuntoBitboards}), como a
+ * chave {@link Zobrist}.
+ */
+public final class ValoresPosicionais {
+
+	/** Fase com todas as peças no tabuleiro. */
+	public static final int FASE_ABERTURA = 24;
+
+	/* As tabelas são escritas do ponto de vista das brancas, da linha 8 para
+	 * a linha 1, como o tabuleiro é visto. Cada linha é uma linha do
+	 * tabuleiro, da coluna 'a' para a coluna 'h'. */
+
+	private static final int[] PEAO_ABERTURA = {
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			 50,  50,  50,  50,  50,  50,  50,  50,
+			 10,  10,  20,  30,  30,  20,  10,  10,
+			  5,   5,  10,  25,  25,  10,   5,   5,
+			  0,   0,   0,  20,  20,   0,   0,   0,
+			  5,  -5, -10,   0,   0, -10,  -5,   5,
+			  5,  10,  10, -20, -20,  10,  10,   5,
+			  0,   0,   0,   0,   0,   0,   0,   0 };
+
+	private static final int[] PEAO_FINAL = {
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			 80,  80,  80,  80,  80,  80,  80,  80,
+			 50,  50,  50,  50,  50,  50,  50,  50,
+			 30,  30,  30,  30,  30,  30,  30,  30,
+			 20,  20,  20,  20,  20,  20,  20,  20,
+			 10,  10,  10,  10,  10,  10,  10,  10,
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			  0,   0,   0,   0,   0,   0,   0,   0 };
+
+	private static final int[] CAVALO = {
+			-50, -40, -30, -30, -30, -30, -40, -50,
+			-40, -20,   0,   0,   0,   0, -20, -40,
+			-30,   0,  10,  15,  15,  10,   0, -30,
+			-30,   5,  15,  20,  20,  15,   5, -30,
+			-30,   0,  15,  20,  20,  15,   0, -30,
+			-30,   5,  10,  15,  15,  10,   5, -30,
+			-40, -20,   0,   5,   5,   0, -20, -40,
+			-50, -40, -30, -30, -30, -30, -40, -50 };
+
+	private static final int[] BISPO = {
+			-20, -10, -10, -10, -10, -10, -10, -20,
+			-10,   0,   0,   0,   0,   0,   0, -10,
+			-10,   0,   5,  10,  10,   5,   0, -10,
+			-10,   5,   5,  10,  10,   5,   5, -10,
+			-10,   0,  10,  10,  10,  10,   0, -10,
+			-10,  10,  10,  10,  10,  10,  10, -10,
+			-10,   5,   0,   0,   0,   0,   5, -10,
+			-20, -10, -10, -10, -10, -10, -10, -20 };
+
+	private static final int[] TORRE = {
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			  5,  10,  10,  10,  10,  10,  10,   5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			  0,   0,   0,   5,   5,   0,   0,   0 };
+
+	private static final int[] RAINHA = {
+			-20, -10, -10,  -5,  -5, -10, -10, -20,
+			-10,   0,   0,   0,   0,   0,   0, -10,
+			-10,   0,   5,   5,   5,   5,   0, -10,
+			 -5,   0,   5,   5,   5,   5,   0,  -5,
+			  0,   0,   5,   5,   5,   5,   0,  -5,
+			-10,   5,   5,   5,   5,   5,   0, -10,
+			-10,   0,   5,   0,   0,   0,   0, -10,
+			-20, -10, -10,  -5,  -5, -10, -10, -20 };
+
+	private static final int[] REI_ABERTURA = {
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-20, -30, -30, -40, -40, -30, -30, -20,
+			-10, -20, -20, -20, -20, -20, -20, -10,
+			 20,  20,   0,   0,   0,   0,  20,  20,
+			 20,  30,  10,   0,   0,  10,  30,  20 };
+
+	private static final int[] REI_FINAL = {
+			-50, -40, -30, -20, -20, -30, -40, -50,
+			-30, -20, -10,   0,   0, -10, -20, -30,
+			-30, -10,  20,  30,  30,  20, -10, -30,
+			-30, -10,  30,  40,  40,  30, -10, -30,
+			-30, -10,  30,  40,  40,  30, -10, -30,
+			-30, -10,  20,  30,  30,  20, -10, -30,
+			-30, -30,   0,   0,   0,   0, -30, -30,
+			-50, -30, -30, -30, -30, -30, -30, -50 };
+
+	/** Valor de cada peça e casa na abertura. O índice é cor * 6 + tipo. */
+	private static final int[][] ABERTURA = new int[2 * TipoPeca.values().length][64];
+
+	/** Valor de cada peça e casa no final. O índice é cor * 6 + tipo. */
+	private static final int[][] FINAL = new int[2 * TipoPeca.values().length][64];
+
+	/** Quanto cada tipo de peça conta para a fase da partida. */
+	private static final int[] FASE = new int[TipoPeca.values().length];
+
+	/** Maior valor de material de cada tipo de peça, na abertura ou no final. */
+	private static final int[] MATERIAL = new int[TipoPeca.values().length];
+
+	static {
+		for (TipoPeca tipo : TipoPeca.values()) {
+			int[] abertura;
+			int[] fim;
+			int materialAbertura;
+			int materialFinal;
+			switch (tipo) {
+			case PEAO:
+				abertura = PEAO_ABERTURA;
+				fim = PEAO_FINAL;
+				materialAbertura = 100;
+				materialFinal = 120;
+				break;
+			case CAVALO:
+				abertura = fim = CAVALO;
+				materialAbertura = 320;
+				materialFinal = 300;
+				FASE[tipo.ordinal()] = 1;
+				break;
+			case BISPO:
+				abertura = fim = BISPO;
+				materialAbertura = 330;
+				materialFinal = 320;
+				FASE[tipo.ordinal()] = 1;
+				break;
+			case TORRE:
+				abertura = fim = TORRE;
+				materialAbertura = 500;
+				materialFinal = 530;
+				FASE[tipo.ordinal()] = 2;
+				break;
+			case RAINHA:
+				abertura = fim = RAINHA;
+				materialAbertura = 900;
+				materialFinal = 950;
+				FASE[tipo.ordinal()] = 4;
+				break;
+			default:
+				abertura = REI_ABERTURA;
+				fim = REI_FINAL;
+				materialAbertura = 0;
+				materialFinal = 0;
+				break;
+			}
+			MATERIAL[tipo.ordinal()] = Math.max(materialAbertura, materialFinal);
+			for (int casa = 0; casa < 64; casa++) {
+				// Nas tabelas, a casa a1 está no início da última linha. As
+				// pretas veem o tabuleiro espelhado.
+				int branca = casa ^ 56;
+				int preta = casa;
+				ABERTURA[indice(tipo, TipoCorJogador.BRANCO)][casa] = materialAbertura
+						+ abertura[branca];
+				FINAL[indice(tipo, TipoCorJogador.BRANCO)][casa] = materialFinal
+						+ fim[branca];
+				ABERTURA[indice(tipo, TipoCorJogador.PRETO)][casa] = materialAbertura
+						+ abertura[preta];
+				FINAL[indice(tipo, TipoCorJogador.PRETO)][casa] = materialFinal
+						+ fim[preta];
+			}
+		}
+	}
+
+	/** Não deve ser instanciada. */
+	private ValoresPosicionais() {
+	}
+
+	/**
+	 * @param casa
+	 *            Índice da casa (de 0 a 63).
+	 * @param tipo
+	 *            Tipo da peça.
+	 * @param cor
+	 *            Cor da peça.
+	 * @return O valor da peça na casa, na abertura.
+	 */
+	public static int abertura(int casa, TipoPeca tipo, TipoCorJogador cor) {
+		return ABERTURA[indice(tipo, cor)][casa];
+	}
+
+	/**
+	 * @param casa
+	 *            Índice da casa (de 0 a 63).
+	 * @param tipo
+	 *            Tipo da peça.
+	 * @param cor
+	 *            Cor da peça.
+	 * @return O valor da peça na casa, no final.
+	 */
+	public static int fim(int casa, TipoPeca tipo, TipoCorJogador cor) {
+		return FINAL[indice(tipo, cor)][casa];
+	}
+
+	/**
+	 * @param tipo
+	 *            Tipo da peça.
+	 * @return O valor de material da peça, sem a casa: o maior entre o da
+	 *         abertura e o do final. O rei vale zero.
+	 */
+	public static int material(TipoPeca tipo) {
+		return MATERIAL[tipo.ordinal()];
+	}
+
+	/**
+	 * @param tipo
+	 *            Tipo da peça.
+	 * @return Quanto a peça conta para a fase da partida.
+	 */
+	public static int fase(TipoPeca tipo) {
+		return FASE[tipo.ordinal()];
+	}
+
+	/**
+	 * Combina os valores de abertura e de final conforme a fase da partida.
+	 * 
+	 * @param abertura
+	 *            Valor na abertura.
+	 * @param fim
+	 *            Valor no final.
+	 * @param fase
+	 *            Soma das fases das peças no tabuleiro. Valores acima de
+	 *            {@link #FASE_ABERTURA} (depois de promoções) contam como
+	 *            abertura.
+	 * @return O valor pesado pela fase.
+	 */
+	public static int ponderar(int abertura, int fim, int fase) {
+		fase = Math.min(fase, FASE_ABERTURA);
+		return (abertura * fase + fim * (FASE_ABERTURA - fase))
+				/ FASE_ABERTURA;
+	}
+
+	private static int indice(TipoPeca tipo, TipoCorJogador cor) {
+		return cor.ordinal() * TipoPeca.values().length + tipo.ordinal();
+	}
+}
@@ -0,0 +1,88 @@
+package br.edu.ifes.poo1.cln.cdp.bitboard;
+
+import java.util.Random;
+
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Números aleatórios usados para calcular a chave Zobrist de uma posição: o
+ * ou-exclusivo dos números de cada peça em sua casa, dos direitos de roque, da
+ * coluna de en passant e, se for a vez das pretas, de um número para a vez.
+ * Como o ou-exclusivo é desfeito por ele mesmo, a chave é atualizada a cada
+ * peça colocada ou retirada, sem percorrer o tabuleiro.
+ * 
+ * Os números são gerados com uma semente fixa, então a chave de uma posição é
+ * sempre a mesma, de uma execução para outra.
+ */
+public final class Zobrist {
+
+	/** Semente dos números aleatórios. */
+	private static final long SEMENTE = 0x20B815L;
+
+	/* Direitos de roque, combinados num índice de 0 a 15. */
+	public static final int ROQUE_MENOR_BRANCO = 1;
+	public static final int ROQUE_MAIOR_BRANCO = 2;
+	public static final int ROQUE_MENOR_PRETO = 4;
+	public static final int ROQUE_MAIOR_PRETO = 8;
+
+	/** Número de cada peça em cada casa. O índice é cor * 6 + tipo. */
+	private static final long[][] PECAS = new long[2 * TipoPeca.values().length][64];
+
+	/** Número de cada combinação de direitos de roque. */
+	private static final long[] ROQUES = new long[16];
+
+	/** Número de cada coluna de en passant. */
+	private static final long[] EN_PASSANT = new long[8];
+
+	/** Número somado quando é a vez das pretas. */
+	public static final long VEZ_PRETAS;
+
+	static {
+		Random random = new Random(SEMENTE);
+		for (int peca = 0; peca < PECAS.length; peca++)
+			for (int casa = 0; casa < 64; casa++)
+				PECAS[peca][casa] = random.nextLong();
+		// Sem nenhum direito de roque, nada é somado
+		for (int roques = 1; roques < ROQUES.length; roques++)
+			ROQUES[roques] = random.nextLong();
+		for (int coluna = 0; coluna < EN_PASSANT.length; coluna++)
+			EN_PASSANT[coluna] = random.nextLong();
+		VEZ_PRETAS = random.nextLong();
+	}
+
+	/** Não deve ser instanciada. */
+	private Zobrist() {
+	}
+
+	/**
+	 * @param casa
+	 *            Índice da casa (de 0 a 63).
+	 * @param tipo
+	 *            Tipo da peça.
+	 * @param cor
+	 *            Cor da peça.
+	 * @return O número da peça na casa.
+	 */
+	public static long peca(int casa, TipoPeca tipo, TipoCorJogador cor) {
+		return PECAS[cor.ordinal() * TipoPeca.values().length + tipo.ordinal()][casa];
+	}
+
+	/**
+	 * @param roques
+	 *            Direitos de roque, somando as constantes ROQUE_*.
+	 * @return O número dos direitos de roque.
+	 */
+	public static long roques(int roques) {
+		return ROQUES[roques];
+	}
+
+	/**
+	 * @param coluna
+	 *            Coluna (de 1 a 8) do peão que pode sofrer en passant.
+	 * @return O número da coluna de en passant.
+	 */
+	public static long enPassant(int coluna) {
+		return EN_PASSANT[coluna - 1];
+	}
+}
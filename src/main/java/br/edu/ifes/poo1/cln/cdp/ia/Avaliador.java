@@ -0,0 +1,26 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import java.io.Serializable;
+
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Função que dá um valor às posições alcançadas pela busca da máquina. Como as
+ * máquinas são salvas com a partida, o avaliador também é salvo.
+ */
+public interface Avaliador extends Serializable {
+
+	/**
+	 * Avalia a posição do tabuleiro, sem olhar jogadas à frente.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro a ser avaliado. Não é modificado.
+	 * @param cor
+	 *            Cor do jogador do ponto de vista de quem a posição é
+	 *            avaliada.
+	 * @return O valor da posição em centésimos de peão: positivo se for boa
+	 *         para o jogador, negativo se for boa para o oponente.
+	 */
+	int avaliar(TabuleiroXadrez tabuleiro, TipoCorJogador cor);
+}
@@ -0,0 +1,468 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
+import br.edu.ifes.poo1.cln.cdp.bitboard.TabelaAtaques;
+import br.edu.ifes.poo1.cln.cdp.bitboard.ValoresPosicionais;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Avaliador que soma os termos escolhidos (ver {@link TipoTermoAvaliacao}).
+ * Cada termo tem um valor para a abertura e outro para o final, pesados pela
+ * fase da partida como os valores de {@link ValoresPosicionais}. Os termos são
+ * calculados com os bitboards do tabuleiro, sem percorrer as casas.
+ *
+ * Menos termos tornam a avaliação mais rápida, e a busca mais profunda no
+ * mesmo tempo. Somente com {@link TipoTermoAvaliacao#MATERIAL}, o valor é o de
+ * {@link TabuleiroXadrez#valorPosicional}.
+ *
+ * Os termos que dependem somente dos peões são guardados numa
+ * {@link TabelaPeoes}, criada na primeira avaliação que precisar dela. Como a
+ * tabela não é salva com a partida, volta vazia quando a partida é carregada.
+ */
+public class AvaliadorPadrao implements Avaliador {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Memória padrão da tabela de peões, em megabytes. */
+	public static final int MEGABYTES_PEOES_PADRAO = 1;
+
+	/*
+	 * Pesos de cada termo, em centésimos de peão. Os vetores indexados por
+	 * peça seguem a ordem de TipoPeca: torre, cavalo, bispo, rei, rainha e
+	 * peão.
+	 */
+
+	/** Valor de cada casa alcançada, na abertura. */
+	private static final int[] MOBILIDADE_ABERTURA = { 2, 4, 5, 0, 1, 0 };
+
+	/** Valor de cada casa alcançada, no final. */
+	private static final int[] MOBILIDADE_FIM = { 4, 4, 5, 0, 2, 0 };
+
+	/**
+	 * Casas que uma peça costuma alcançar. Somente as casas além destas
+	 * contam a favor, e as que faltam contam contra.
+	 */
+	private static final int[] MOBILIDADE_MEDIA = { 7, 4, 7, 0, 14, 0 };
+
+	/** Peso de cada casa vizinha ao rei atacada pela peça. */
+	private static final int[] PESO_ATAQUE_REI = { 3, 2, 2, 0, 5, 0 };
+
+	private static final int PEAO_DOBRADO_ABERTURA = -10;
+	private static final int PEAO_DOBRADO_FIM = -20;
+	private static final int PEAO_ISOLADO_ABERTURA = -10;
+	private static final int PEAO_ISOLADO_FIM = -15;
+	private static final int PEAO_ATRASADO_ABERTURA = -8;
+	private static final int PEAO_ATRASADO_FIM = -10;
+
+	/** Valor do peão passado, pela linha que alcançou (de 0 a 7). */
+	private static final int[] PEAO_PASSADO_ABERTURA = { 0, 5, 10, 15, 25, 40,
+			60, 0 };
+	private static final int[] PEAO_PASSADO_FIM = { 0, 10, 15, 25, 45, 75, 120,
+			0 };
+
+	/** Valor de cada peão na frente do rei. */
+	private static final int ESCUDO_ABERTURA = 10;
+
+	/** Valor de cada unidade de ataque às casas vizinhas ao rei. */
+	private static final int ATAQUE_REI_ABERTURA = -4;
+	private static final int ATAQUE_REI_FIM = -1;
+
+	/** Casas de cada coluna. */
+	private static final long[] COLUNAS = new long[8];
+
+	/** Casas das colunas vizinhas a cada coluna. */
+	private static final long[] VIZINHAS = new long[8];
+
+	/** Casas à frente de cada casa, na mesma coluna. Por cor e casa. */
+	private static final long[][] FRENTE = new long[2][64];
+
+	/**
+	 * Casas à frente de cada casa, na mesma coluna e nas vizinhas: um peão
+	 * inimigo nelas impede o peão de ser passado. Por cor e casa.
+	 */
+	private static final long[][] PASSADO = new long[2][64];
+
+	/**
+	 * Casas das colunas vizinhas na mesma linha ou atrás de cada casa, de onde
+	 * um peão aliado pode apoiar o avanço. Por cor e casa.
+	 */
+	private static final long[][] APOIO = new long[2][64];
+
+	/** Duas casas à frente do rei e das colunas vizinhas. Por cor e casa. */
+	private static final long[][] ESCUDO = new long[2][64];
+
+	static {
+		for (int coluna = 0; coluna < 8; coluna++)
+			COLUNAS[coluna] = Bitboard.COLUNA_1 << coluna;
+		for (int coluna = 0; coluna < 8; coluna++)
+			VIZINHAS[coluna] = (coluna > 0 ? COLUNAS[coluna - 1] : 0L)
+					| (coluna < 7 ? COLUNAS[coluna + 1] : 0L);
+		for (int casa = 0; casa < 64; casa++) {
+			int coluna = casa & 7;
+			int linha = casa >>> 3;
+			for (int outra = 0; outra < 64; outra++) {
+				int outraColuna = outra & 7;
+				int outraLinha = outra >>> 3;
+				long b = Bitboard.mascara(outra);
+				boolean mesma = outraColuna == coluna;
+				boolean vizinha = Math.abs(outraColuna - coluna) == 1;
+				for (int cor = 0; cor < 2; cor++) {
+					// Linhas à frente, contadas a partir da casa
+					int avanco = cor == 0 ? outraLinha - linha : linha
+							- outraLinha;
+					if (avanco > 0 && mesma)
+						FRENTE[cor][casa] |= b;
+					if (avanco > 0 && (mesma || vizinha))
+						PASSADO[cor][casa] |= b;
+					if (avanco <= 0 && vizinha)
+						APOIO[cor][casa] |= b;
+					if (avanco > 0 && avanco <= 2
+							&& Math.abs(outraColuna - coluna) <= 1)
+						ESCUDO[cor][casa] |= b;
+				}
+			}
+		}
+	}
+
+	/** Termos somados pela avaliação. */
+	private final TipoTermoAvaliacao[] termos;
+
+	/**
+	 * Memória da tabela de peões, em megabytes (0 para não usar a tabela).
+	 */
+	private final int megabytesPeoes;
+
+	/** Valores dos termos de peões já calculados. Ou 'null', se não houver. */
+	private transient TabelaPeoes tabelaPeoes;
+
+	/**
+	 * Cria o avaliador com todos os termos.
+	 */
+	public AvaliadorPadrao() {
+		this(MEGABYTES_PEOES_PADRAO);
+	}
+
+	/**
+	 * Cria o avaliador com todos os termos, escolhendo a memória da tabela de
+	 * peões.
+	 *
+	 * @param megabytesPeoes
+	 *            Memória da tabela de peões, em megabytes (0 para não usar a
+	 *            tabela).
+	 */
+	public AvaliadorPadrao(int megabytesPeoes) {
+		this(megabytesPeoes, TipoTermoAvaliacao.values());
+	}
+
+	/**
+	 * Cria o avaliador somente com os termos indicados.
+	 *
+	 * @param termos
+	 *            Termos somados pela avaliação.
+	 */
+	public AvaliadorPadrao(TipoTermoAvaliacao... termos) {
+		this(MEGABYTES_PEOES_PADRAO, termos);
+	}
+
+	/**
+	 * Cria o avaliador somente com os termos indicados, escolhendo a memória
+	 * da tabela de peões.
+	 *
+	 * @param megabytesPeoes
+	 *            Memória da tabela de peões, em megabytes (0 para não usar a
+	 *            tabela).
+	 * @param termos
+	 *            Termos somados pela avaliação.
+	 */
+	public AvaliadorPadrao(int megabytesPeoes, TipoTermoAvaliacao... termos) {
+		this.megabytesPeoes = megabytesPeoes;
+		this.termos = termos.clone();
+	}
+
+	@Override
+	public int avaliar(TabuleiroXadrez tabuleiro, TipoCorJogador cor) {
+		int valor = 0;
+		for (TipoTermoAvaliacao termo : termos)
+			valor += avaliar(tabuleiro, cor, termo);
+		return valor;
+	}
+
+	/**
+	 * Avalia somente um dos termos, já pesado pela fase da partida.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro a ser avaliado.
+	 * @param cor
+	 *            Cor do jogador do ponto de vista de quem a posição é
+	 *            avaliada.
+	 * @param termo
+	 *            Termo a ser avaliado.
+	 * @return O valor do termo, em centésimos de peão.
+	 */
+	public int avaliar(TabuleiroXadrez tabuleiro, TipoCorJogador cor,
+			TipoTermoAvaliacao termo) {
+		if (termo == TipoTermoAvaliacao.MATERIAL)
+			return tabuleiro.valorPosicional(cor);
+		if (termo == TipoTermoAvaliacao.ESTRUTURA_PEOES
+				|| termo == TipoTermoAvaliacao.PEOES_PASSADOS)
+			return avaliarPeoes(tabuleiro, cor, termo);
+
+		// Soma os valores de abertura e de final de cada cor: os do jogador a
+		// favor e os do oponente contra
+		int[] soma = new int[2];
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		switch (termo) {
+		case MOBILIDADE:
+			mobilidade(tabuleiro, cor, 1, soma);
+			mobilidade(tabuleiro, corOposta, -1, soma);
+			break;
+		case SEGURANCA_REI:
+			segurancaRei(tabuleiro, cor, 1, soma);
+			segurancaRei(tabuleiro, corOposta, -1, soma);
+			break;
+		default:
+			break;
+		}
+		return ValoresPosicionais.ponderar(soma[0], soma[1],
+				tabuleiro.getFase());
+	}
+
+	/**
+	 * Avalia um dos termos que dependem somente dos peões, consultando a
+	 * tabela de peões. Se a estrutura não estiver na tabela, os dois termos
+	 * são calculados e guardados.
+	 */
+	private int avaliarPeoes(TabuleiroXadrez tabuleiro, TipoCorJogador cor,
+			TipoTermoAvaliacao termo) {
+		boolean estrutura = termo == TipoTermoAvaliacao.ESTRUTURA_PEOES;
+		int abertura;
+		int fim;
+		TabelaPeoes tabela = getTabelaPeoes();
+		long chave = tabuleiro.getChavePeoes();
+		int indice = tabela == null ? -1 : tabela.consultar(chave);
+		if (indice >= 0) {
+			abertura = tabela.getValor(indice,
+					estrutura ? TabelaPeoes.ESTRUTURA_ABERTURA
+							: TabelaPeoes.PASSADOS_ABERTURA);
+			fim = tabela.getValor(indice, estrutura ? TabelaPeoes.ESTRUTURA_FIM
+					: TabelaPeoes.PASSADOS_FIM);
+		} else {
+			// Os valores são calculados do ponto de vista das brancas
+			long brancos = tabuleiro.getPecas(TipoPeca.PEAO,
+					TipoCorJogador.BRANCO);
+			long pretos = tabuleiro.getPecas(TipoPeca.PEAO,
+					TipoCorJogador.PRETO);
+			int[] somaEstrutura = new int[2];
+			int[] somaPassados = new int[2];
+			if (estrutura || tabela != null) {
+				estruturaPeoes(brancos, pretos, TipoCorJogador.BRANCO, 1,
+						somaEstrutura);
+				estruturaPeoes(pretos, brancos, TipoCorJogador.PRETO, -1,
+						somaEstrutura);
+			}
+			if (!estrutura || tabela != null) {
+				peoesPassados(brancos, pretos, TipoCorJogador.BRANCO, 1,
+						somaPassados);
+				peoesPassados(pretos, brancos, TipoCorJogador.PRETO, -1,
+						somaPassados);
+			}
+			if (tabela != null)
+				tabela.guardar(chave, somaEstrutura[0], somaEstrutura[1],
+						somaPassados[0], somaPassados[1]);
+			abertura = estrutura ? somaEstrutura[0] : somaPassados[0];
+			fim = estrutura ? somaEstrutura[1] : somaPassados[1];
+		}
+		int valor = ValoresPosicionais.ponderar(abertura, fim,
+				tabuleiro.getFase());
+		return cor == TipoCorJogador.BRANCO ? valor : -valor;
+	}
+
+	/**
+	 * Tabela de peões, criada na primeira vez que for usada.
+	 *
+	 * @return A tabela. Ou 'null', se o avaliador não usar a tabela.
+	 */
+	public TabelaPeoes getTabelaPeoes() {
+		if (tabelaPeoes == null && megabytesPeoes > 0)
+			tabelaPeoes = new TabelaPeoes(megabytesPeoes);
+		return tabelaPeoes;
+	}
+
+	/**
+	 * Soma as casas alcançadas pelas peças da cor, exceto as ocupadas por
+	 * peças aliadas e as atacadas por peões inimigos.
+	 *
+	 * @param sinal
+	 *            1 para somar a favor, -1 para somar contra.
+	 * @param soma
+	 *            Valores de abertura e de final, somados ao que já estiver
+	 *            no vetor.
+	 */
+	private static void mobilidade(TabuleiroXadrez tabuleiro,
+			TipoCorJogador cor, int sinal, int[] soma) {
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		long ocupacao = tabuleiro.getOcupacao();
+		long area = ~tabuleiro.getOcupacao(cor)
+				& ~ataquesPeoes(tabuleiro.getPecas(TipoPeca.PEAO, corOposta),
+						corOposta);
+		for (TipoPeca tipo : TipoPeca.values()) {
+			if (MOBILIDADE_ABERTURA[tipo.ordinal()] == 0)
+				continue;
+			long pecas = tabuleiro.getPecas(tipo, cor);
+			while (pecas != 0L) {
+				int casa = Bitboard.primeiraCasa(pecas);
+				pecas &= pecas - 1;
+				int casas = Bitboard.contar(ataques(tipo, casa, ocupacao)
+						& area)
+						- MOBILIDADE_MEDIA[tipo.ordinal()];
+				soma[0] += sinal * casas * MOBILIDADE_ABERTURA[tipo.ordinal()];
+				soma[1] += sinal * casas * MOBILIDADE_FIM[tipo.ordinal()];
+			}
+		}
+	}
+
+	/**
+	 * Soma as penalidades dos peões dobrados, isolados e atrasados da cor.
+	 * Depende somente dos peões.
+	 *
+	 * @param peoes
+	 *            Peões da cor.
+	 * @param peoesInimigos
+	 *            Peões do oponente.
+	 * @param sinal
+	 *            1 para somar a favor, -1 para somar contra.
+	 * @param soma
+	 *            Valores de abertura e de final, somados ao que já estiver
+	 *            no vetor.
+	 */
+	private static void estruturaPeoes(long peoes, long peoesInimigos,
+			TipoCorJogador cor, int sinal, int[] soma) {
+		int abertura = 0;
+		int fim = 0;
+		for (int coluna = 0; coluna < 8; coluna++) {
+			int naColuna = Bitboard.contar(peoes & COLUNAS[coluna]);
+			if (naColuna > 1) {
+				abertura += (naColuna - 1) * PEAO_DOBRADO_ABERTURA;
+				fim += (naColuna - 1) * PEAO_DOBRADO_FIM;
+			}
+		}
+		long ataquesInimigos = ataquesPeoes(peoesInimigos,
+				TipoCorJogador.getCorOposta(cor));
+		int avanco = cor == TipoCorJogador.BRANCO ? 8 : -8;
+		long restantes = peoes;
+		while (restantes != 0L) {
+			int casa = Bitboard.primeiraCasa(restantes);
+			restantes &= restantes - 1;
+			if ((peoes & VIZINHAS[casa & 7]) == 0L) {
+				abertura += PEAO_ISOLADO_ABERTURA;
+				fim += PEAO_ISOLADO_FIM;
+			} else if ((peoes & APOIO[cor.ordinal()][casa]) == 0L
+					&& (ataquesInimigos & Bitboard.mascara(casa + avanco)) != 0L) {
+				// Nenhum peão vizinho pode apoiá-lo, e a casa da frente é
+				// atacada por um peão inimigo
+				abertura += PEAO_ATRASADO_ABERTURA;
+				fim += PEAO_ATRASADO_FIM;
+			}
+		}
+		soma[0] += sinal * abertura;
+		soma[1] += sinal * fim;
+	}
+
+	/**
+	 * Soma os bônus dos peões passados da cor, maiores quanto mais avançados.
+	 * Dos peões dobrados, somente o da frente conta. Depende somente dos
+	 * peões.
+	 *
+	 * @param peoes
+	 *            Peões da cor.
+	 * @param peoesInimigos
+	 *            Peões do oponente.
+	 * @param sinal
+	 *            1 para somar a favor, -1 para somar contra.
+	 * @param soma
+	 *            Valores de abertura e de final, somados ao que já estiver
+	 *            no vetor.
+	 */
+	private static void peoesPassados(long peoes, long peoesInimigos,
+			TipoCorJogador cor, int sinal, int[] soma) {
+		long restantes = peoes;
+		while (restantes != 0L) {
+			int casa = Bitboard.primeiraCasa(restantes);
+			restantes &= restantes - 1;
+			if ((PASSADO[cor.ordinal()][casa] & peoesInimigos) != 0L
+					|| (FRENTE[cor.ordinal()][casa] & peoes) != 0L)
+				continue;
+			int linha = cor == TipoCorJogador.BRANCO ? casa >>> 3
+					: 7 - (casa >>> 3);
+			soma[0] += sinal * PEAO_PASSADO_ABERTURA[linha];
+			soma[1] += sinal * PEAO_PASSADO_FIM[linha];
+		}
+	}
+
+	/**
+	 * Soma os peões aliados na frente do rei da cor e os ataques das peças
+	 * inimigas às casas vizinhas a ele.
+	 *
+	 * @param sinal
+	 *            1 para somar a favor, -1 para somar contra.
+	 * @param soma
+	 *            Valores de abertura e de final, somados ao que já estiver
+	 *            no vetor.
+	 */
+	private static void segurancaRei(TabuleiroXadrez tabuleiro,
+			TipoCorJogador cor, int sinal, int[] soma) {
+		long rei = tabuleiro.getPecas(TipoPeca.REI, cor);
+		if (rei == 0L)
+			return;
+		int casaRei = Bitboard.primeiraCasa(rei);
+		int escudo = Bitboard.contar(ESCUDO[cor.ordinal()][casaRei]
+				& tabuleiro.getPecas(TipoPeca.PEAO, cor));
+
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		long zona = TabelaAtaques.REI[casaRei] | rei;
+		long ocupacao = tabuleiro.getOcupacao();
+		int ataques = 0;
+		for (TipoPeca tipo : TipoPeca.values()) {
+			if (PESO_ATAQUE_REI[tipo.ordinal()] == 0)
+				continue;
+			long pecas = tabuleiro.getPecas(tipo, corOposta);
+			while (pecas != 0L) {
+				int casa = Bitboard.primeiraCasa(pecas);
+				pecas &= pecas - 1;
+				ataques += PESO_ATAQUE_REI[tipo.ordinal()]
+						* Bitboard.contar(ataques(tipo, casa, ocupacao) & zona);
+			}
+		}
+		soma[0] += sinal
+				* (escudo * ESCUDO_ABERTURA + ataques * ATAQUE_REI_ABERTURA);
+		soma[1] += sinal * ataques * ATAQUE_REI_FIM;
+	}
+
+	/** Casas atacadas por uma peça (exceto peão e rei) na casa indicada. */
+	private static long ataques(TipoPeca tipo, int casa, long ocupacao) {
+		switch (tipo) {
+		case CAVALO:
+			return Bitboard.ataquesCavalo(casa);
+		case BISPO:
+			return Bitboard.ataquesBispo(casa, ocupacao);
+		case TORRE:
+			return Bitboard.ataquesTorre(casa, ocupacao);
+		case RAINHA:
+			return Bitboard.ataquesBispo(casa, ocupacao)
+					| Bitboard.ataquesTorre(casa, ocupacao);
+		default:
+			return 0L;
+		}
+	}
+
+	/** Casas atacadas pelos peões da cor indicada. */
+	private static long ataquesPeoes(long peoes, TipoCorJogador cor) {
+		if (cor == TipoCorJogador.BRANCO)
+			return ((peoes & ~Bitboard.COLUNA_1) << 7)
+					| ((peoes & ~Bitboard.COLUNA_8) << 9);
+		return ((peoes & ~Bitboard.COLUNA_8) >>> 7)
+				| ((peoes & ~Bitboard.COLUNA_1) >>> 9);
+	}
+}
@@ -0,0 +1,782 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.CodigoJogada;
+import br.edu.ifes.poo1.cln.cdp.Jogada;
+import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.RegistroJogada;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Busca em profundidade com poda alfa-beta, na forma negamax. As jogadas são
+ * feitas e desfeitas sobre um único tabuleiro, e os filhos de um nó só são
+ * gerados quando o nó é visitado. Assim, um ramo podado nunca chega a ser
+ * expandido, e a memória usada cresce apenas com a profundidade da busca. As
+ * folhas são avaliadas por um {@link Avaliador}; se nenhum for informado, por
+ * {@link TabuleiroXadrez#valorPosicional}, que soma o material e a casa de
+ * cada peça.
+ * 
+ * A busca é feita por aprofundamento iterativo: profundidade 1, 2, 3... até a
+ * profundidade máxima ou até o tempo da jogada acabar, guardando sempre a
+ * melhor jogada da última iteração completa, e a sequência de jogadas que a
+ * busca espera que se siga a ela (a variação principal).
+ * 
+ * As janelas de busca podem ser reduzidas de duas formas, ligadas juntas e
+ * desligadas por padrão. Cada iteração começa
+ * com uma janela de aspiração em torno do valor da anterior; se o valor cair
+ * fora dela, a iteração é repetida com a janela alargada para aquele lado. E,
+ * em cada nó, somente a primeira jogada é olhada com a janela inteira: as
+ * demais são olhadas com a janela nula, só para provar que não são melhores
+ * (busca pela variação principal). A que se mostrar melhor é olhada de novo
+ * com a janela inteira.
+ * 
+ * Se houver uma {@link TabelaTransposicao}, as posições já avaliadas com
+ * profundidade suficiente não são avaliadas de novo, e a melhor jogada
+ * guardada para a posição é a primeira a ser olhada. As demais jogadas são
+ * olhadas na ordem decidida por {@link OrdenacaoJogadas}, que pode ser
+ * desligada para comparar a quantidade de nós visitados.
+ * 
+ * Se a busca de quiescência for ligada, as folhas não são avaliadas
+ * diretamente: as capturas a partir delas são olhadas por
+ * {@link BuscaQuiescencia}.
+ * 
+ * Duas técnicas, que podem ser ligadas separadamente, deixam de olhar a fundo
+ * os ramos que dificilmente serão escolhidos:
+ * 
+ * <ul>
+ * <li>Jogada nula: antes de olhar as jogadas de um nó, o jogador passa a vez,
+ * e a posição é olhada com profundidade reduzida. Se, mesmo dando ao oponente
+ * duas jogadas seguidas, o valor ainda alcança beta, o nó é podado. Nos finais
+ * só com peões, passar a vez pode ser melhor que qualquer jogada (zugzwang),
+ * então a jogada nula só é tentada por quem ainda tem outras peças. Também não
+ * é tentada em xeque, nem duas vezes seguidas.</li>
+ * <li>Redução das últimas jogadas: como as jogadas mais promissoras são
+ * olhadas primeiro, as tranquilas que vêm depois delas são olhadas com uma
+ * meia-jogada a menos e com a janela nula. Se alguma delas superar alfa, é
+ * olhada de novo com a profundidade inteira.</li>
+ * </ul>
+ * 
+ * Internamente, as jogadas são tratadas pelos seus códigos (ver
+ * {@link CodigoJogada}), gerados num vetor reaproveitado para cada nível da
+ * árvore. Somente a jogada escolhida é convertida num objeto {@link Jogada}.
+ */
+public class BuscaAlfaBeta {
+
+	/** Valor maior que o de qualquer posição. */
+	public static final int INFINITO = 1000000;
+
+	/**
+	 * Valor de uma posição em que o jogador da vez não tem jogadas. Descontado
+	 * da distância até a raiz, para preferir o mate mais rápido.
+	 */
+	public static final int MATE = 100000;
+
+	/** Valores além deste (em módulo) indicam um mate. */
+	private static final int LIMITE_MATE = MATE - 1000;
+
+	/** A cada quantos nós o tempo é verificado. */
+	private static final int INTERVALO_VERIFICACAO = 1024;
+
+	/** Maior distância da raiz que a busca alcança. */
+	private static final int DISTANCIA_MAXIMA = 128;
+
+	/** Menor profundidade em que a jogada nula é tentada. */
+	private static final int PROFUNDIDADE_MINIMA_NULA = 3;
+
+	/** Quanto a jogada nula reduz a profundidade, além da própria jogada. */
+	private static final int REDUCAO_NULA = 2;
+
+	/** Menor profundidade em que as últimas jogadas são reduzidas. */
+	private static final int PROFUNDIDADE_MINIMA_REDUCAO = 3;
+
+	/** Quantas jogadas de cada nó são sempre olhadas sem redução. */
+	private static final int JOGADAS_SEM_REDUCAO = 3;
+
+	/** Menor profundidade em que a iteração usa a janela de aspiração. */
+	private static final int PROFUNDIDADE_MINIMA_ASPIRACAO = 3;
+
+	/** Metade da largura inicial da janela de aspiração. */
+	private static final int JANELA_ASPIRACAO = 100;
+
+	/**
+	 * Além desta distância do valor da iteração anterior, a janela de
+	 * aspiração passa a ser a inteira.
+	 */
+	private static final int JANELA_ASPIRACAO_MAXIMA = 1000;
+
+	/** Tabuleiro sobre o qual as jogadas são feitas e desfeitas. */
+	private final TabuleiroXadrez tabuleiro;
+
+	/** Controla quando a busca deve parar. */
+	private final GerenciadorTempo gerenciadorTempo;
+
+	/** Posições já avaliadas. Ou 'null', se a busca não usar a tabela. */
+	private final TabelaTransposicao tabela;
+
+	/** Avalia as folhas. */
+	private final Avaliador avaliador;
+
+	/**
+	 * Vetores onde são geradas as jogadas de cada nível, indexados pela
+	 * distância até a raiz. Criados quando o nível é alcançado pela primeira
+	 * vez e reaproveitados depois.
+	 */
+	private final int[][] jogadasPorNivel = new int[DISTANCIA_MAXIMA][];
+
+	/**
+	 * Valores de ordenação das jogadas de cada nível, na mesma ordem dos
+	 * vetores de jogadas.
+	 */
+	private final int[][] valoresPorNivel = new int[DISTANCIA_MAXIMA][];
+
+	/** Ordena as jogadas de cada nó. Ou 'null', se a ordenação for desligada. */
+	private OrdenacaoJogadas ordenacao = new OrdenacaoJogadas(DISTANCIA_MAXIMA);
+
+	/**
+	 * Olha as capturas a partir das folhas. Ou 'null', se as folhas forem
+	 * avaliadas diretamente.
+	 */
+	private BuscaQuiescencia quiescencia;
+
+	/** Se a jogada nula é tentada. */
+	private boolean jogadaNula;
+
+	/** Se as últimas jogadas são reduzidas. */
+	private boolean reducao;
+
+	/**
+	 * Se as janelas de aspiração e a busca pela variação principal são
+	 * usadas.
+	 */
+	private boolean janelasReduzidas;
+
+	/**
+	 * Variação principal de cada nó, indexada pela distância até a raiz: a
+	 * melhor jogada do nó, seguida da variação principal do filho.
+	 */
+	private final int[][] variacaoPorNivel = new int[DISTANCIA_MAXIMA][DISTANCIA_MAXIMA];
+
+	/** Tamanho da variação principal de cada nó. */
+	private final int[] tamanhoVariacao = new int[DISTANCIA_MAXIMA];
+
+	/** Variação principal da última iteração completa. */
+	private int[] variacaoPrincipal = new int[0];
+
+	/** Quantidade de nós visitados. */
+	private long nos;
+
+	/** Quantidade de nós visitados em cada distância da raiz. */
+	private final long[] nosPorNivel = new long[DISTANCIA_MAXIMA];
+
+	/** Se a busca foi interrompida por ter esgotado o tempo. */
+	private boolean interrompida;
+
+	/** Valor da última jogada escolhida, do ponto de vista de quem joga. */
+	private int valor;
+
+	/** Profundidade da última iteração completa. */
+	private int profundidadeAlcancada;
+
+	/**
+	 * Prepara a busca sobre o tabuleiro indicado. O tabuleiro é usado
+	 * diretamente e volta ao estado original ao fim da busca.
+	 * 
+	 * @param tabuleiro
+	 *            Tabuleiro da raiz.
+	 * @param gerenciadorTempo
+	 *            Controla quando a busca deve parar. A jogada já deve ter sido
+	 *            iniciada nele.
+	 */
+	public BuscaAlfaBeta(TabuleiroXadrez tabuleiro,
+			GerenciadorTempo gerenciadorTempo) {
+		this(tabuleiro, gerenciadorTempo, null);
+	}
+
+	/**
+	 * Prepara a busca sobre o tabuleiro indicado, consultando e preenchendo a
+	 * tabela de transposição.
+	 * 
+	 * @param tabuleiro
+	 *            Tabuleiro da raiz.
+	 * @param gerenciadorTempo
+	 *            Controla quando a busca deve parar. A jogada já deve ter sido
+	 *            iniciada nele.
+	 * @param tabela
+	 *            Posições já avaliadas. Ou 'null', para não usar a tabela.
+	 */
+	public BuscaAlfaBeta(TabuleiroXadrez tabuleiro,
+			GerenciadorTempo gerenciadorTempo, TabelaTransposicao tabela) {
+		this(tabuleiro, gerenciadorTempo, tabela, new AvaliadorPadrao(
+				TipoTermoAvaliacao.MATERIAL));
+	}
+
+	/**
+	 * Prepara a busca sobre o tabuleiro indicado, avaliando as folhas com o
+	 * avaliador informado.
+	 * 
+	 * @param tabuleiro
+	 *            Tabuleiro da raiz.
+	 * @param gerenciadorTempo
+	 *            Controla quando a busca deve parar. A jogada já deve ter sido
+	 *            iniciada nele.
+	 * @param tabela
+	 *            Posições já avaliadas. Ou 'null', para não usar a tabela.
+	 * @param avaliador
+	 *            Avalia as folhas.
+	 */
+	public BuscaAlfaBeta(TabuleiroXadrez tabuleiro,
+			GerenciadorTempo gerenciadorTempo, TabelaTransposicao tabela,
+			Avaliador avaliador) {
+		this.tabuleiro = tabuleiro;
+		this.gerenciadorTempo = gerenciadorTempo;
+		this.tabela = tabela;
+		this.avaliador = avaliador;
+	}
+
+	/**
+	 * Escolhe a melhor jogada para o jogador, aprofundando a busca uma
+	 * meia-jogada por vez. A melhor jogada de uma iteração é a primeira a ser
+	 * olhada na seguinte, e o seu valor centra a janela de aspiração da
+	 * seguinte. Se o tempo acabar no meio de uma iteração, ela é descartada.
+	 * 
+	 * @param cor
+	 *            Cor de quem joga na raiz.
+	 * @param profundidadeMaxima
+	 *            Quantidade máxima de meias-jogadas.
+	 * @return A melhor jogada da última iteração completa. Ou 'null', se não
+	 *         houver jogadas ou se nenhuma iteração terminou a tempo.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public Jogada aprofundar(TipoCorJogador cor, int profundidadeMaxima)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		int[] jogadas = nivel(0);
+		int quantidade = gerarRaiz(cor, jogadas);
+		int melhorJogada = CodigoJogada.NENHUMA;
+		int melhorValor = -INFINITO;
+		for (int profundidade = 1; profundidade <= profundidadeMaxima; profundidade++) {
+			int alfa = -INFINITO;
+			int beta = INFINITO;
+			int janela = JANELA_ASPIRACAO;
+			if (janelasReduzidas && profundidade >= PROFUNDIDADE_MINIMA_ASPIRACAO
+					&& Math.abs(melhorValor) < LIMITE_MATE) {
+				alfa = melhorValor - janela;
+				beta = melhorValor + janela;
+			}
+			int jogada = buscar(cor, jogadas, quantidade, profundidade, alfa,
+					beta);
+			// Se o valor caiu fora da janela, a iteração é repetida com a
+			// janela alargada para o lado em que ele caiu
+			while (!interrompida
+					&& (valor <= alfa && alfa > -INFINITO || valor >= beta
+							&& beta < INFINITO)) {
+				janela *= 4;
+				if (valor <= alfa)
+					alfa = janela > JANELA_ASPIRACAO_MAXIMA ? -INFINITO
+							: valor - janela;
+				else {
+					beta = janela > JANELA_ASPIRACAO_MAXIMA ? INFINITO : valor
+							+ janela;
+					colocarNaFrente(jogadas, quantidade, jogada);
+				}
+				jogada = buscar(cor, jogadas, quantidade, profundidade, alfa,
+						beta);
+			}
+			if (interrompida)
+				break;
+			melhorJogada = jogada;
+			melhorValor = valor;
+			variacaoPrincipal = Arrays.copyOf(variacaoPorNivel[0],
+					tamanhoVariacao[0]);
+			profundidadeAlcancada = profundidade;
+			// Um mate já encontrado não muda com mais profundidade
+			if (Math.abs(melhorValor) >= MATE - profundidade)
+				break;
+			if (!gerenciadorTempo.podeIniciarIteracao())
+				break;
+			// A melhor jogada é a primeira a ser olhada na próxima iteração
+			colocarNaFrente(jogadas, quantidade, melhorJogada);
+		}
+		valor = melhorValor;
+		return paraJogada(melhorJogada);
+	}
+
+	/**
+	 * Escolhe a melhor jogada para o jogador, olhando exatamente a quantidade
+	 * de meias-jogadas indicada.
+	 * 
+	 * @param cor
+	 *            Cor de quem joga na raiz.
+	 * @param profundidade
+	 *            Quantidade de meias-jogadas.
+	 * @return A melhor jogada. Ou 'null', se não houver jogadas. Se o tempo
+	 *         acabar, o resultado não é confiável (ver
+	 *         {@link #isInterrompida()}).
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public Jogada buscar(TipoCorJogador cor, int profundidade)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		int[] jogadas = nivel(0);
+		int quantidade = gerarRaiz(cor, jogadas);
+		int jogada = buscar(cor, jogadas, quantidade, profundidade, -INFINITO,
+				INFINITO);
+		variacaoPrincipal = Arrays.copyOf(variacaoPorNivel[0],
+				tamanhoVariacao[0]);
+		return paraJogada(jogada);
+	}
+
+	/**
+	 * Gera as jogadas da raiz, já ordenadas se a ordenação estiver ligada.
+	 */
+	private int gerarRaiz(TipoCorJogador cor, int[] jogadas)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		int quantidade = tabuleiro.gerarJogadasLegais(cor, jogadas);
+		if (ordenacao != null) {
+			int[] valores = valores(0);
+			ordenacao.pontuar(tabuleiro, cor, jogadas, valores, quantidade,
+					CodigoJogada.NENHUMA, 0, quiescencia != null);
+			OrdenacaoJogadas.ordenar(jogadas, valores, quantidade);
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Olha as jogadas da raiz dentro da janela indicada. O valor encontrado
+	 * fica em {@link #valor}: se for menor ou igual a alfa, nenhuma jogada
+	 * alcançou a janela; se for maior ou igual a beta, a jogada devolvida
+	 * passou dela.
+	 */
+	private int buscar(TipoCorJogador cor, int[] jogadas, int quantidade,
+			int profundidade, int alfa, int beta) throws CasaOcupadaException,
+			JogadaInvalidaException {
+		nosPorNivel[0]++;
+		tamanhoVariacao[0] = 0;
+		int melhorJogada = CodigoJogada.NENHUMA;
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		for (int i = 0; i < quantidade; i++) {
+			RegistroJogada registro = tabuleiro.fazerJogada(jogadas[i], cor);
+			int valorJogada;
+			if (i == 0 || !janelasReduzidas)
+				valorJogada = -negamax(corOposta, profundidade - 1, -beta,
+						-alfa, 1, true);
+			else {
+				valorJogada = -negamax(corOposta, profundidade - 1,
+						-alfa - 1, -alfa, 1, true);
+				if (valorJogada > alfa && valorJogada < beta)
+					valorJogada = -negamax(corOposta, profundidade - 1, -beta,
+							-alfa, 1, true);
+			}
+			tabuleiro.desfazerJogada(registro);
+			if (interrompida)
+				break;
+			if (valorJogada > alfa) {
+				alfa = valorJogada;
+				melhorJogada = jogadas[i];
+				atualizarVariacao(0, melhorJogada);
+				if (alfa >= beta)
+					break;
+			}
+		}
+		valor = alfa;
+		return melhorJogada;
+	}
+
+	/**
+	 * Avalia a posição para o jogador da vez.
+	 * 
+	 * @param cor
+	 *            Cor de quem joga.
+	 * @param profundidade
+	 *            Meias-jogadas que ainda faltam olhar.
+	 * @param alfa
+	 *            Valor que o jogador da vez já tem garantido.
+	 * @param beta
+	 *            Valor que o oponente já tem garantido, visto pelo jogador da
+	 *            vez.
+	 * @param distanciaRaiz
+	 *            Meias-jogadas feitas desde a raiz.
+	 * @param permiteNula
+	 *            Se a jogada nula pode ser tentada. Falso logo depois de
+	 *            outra jogada nula.
+	 * @return O valor da posição, do ponto de vista de quem joga.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	private int negamax(TipoCorJogador cor, int profundidade, int alfa,
+			int beta, int distanciaRaiz, boolean permiteNula)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		if (++nos % INTERVALO_VERIFICACAO == 0 && gerenciadorTempo.esgotado())
+			interrompida = true;
+		if (interrompida)
+			return 0;
+		nosPorNivel[distanciaRaiz]++;
+		tamanhoVariacao[distanciaRaiz] = 0;
+
+		// Consulta a tabela, se a posição já foi avaliada
+		long chave = 0L;
+		int jogadaTabela = CodigoJogada.NENHUMA;
+		if (tabela != null && profundidade > 0) {
+			chave = tabuleiro.getChave(cor);
+			int indice = tabela.consultar(chave);
+			if (indice >= 0) {
+				jogadaTabela = tabela.getJogada(indice);
+				if (tabela.getProfundidade(indice) >= profundidade) {
+					int valorTabela = valorDaTabela(tabela.getValor(indice),
+							distanciaRaiz);
+					switch (tabela.getTipo(indice)) {
+					case TabelaTransposicao.EXATO:
+						return valorTabela;
+					case TabelaTransposicao.LIMITE_INFERIOR:
+						if (valorTabela >= beta)
+							return valorTabela;
+						break;
+					case TabelaTransposicao.LIMITE_SUPERIOR:
+						if (valorTabela <= alfa)
+							return valorTabela;
+						break;
+					}
+				}
+			}
+		}
+
+		int[] jogadas = nivel(distanciaRaiz);
+		int quantidade = tabuleiro.gerarJogadasLegais(cor, jogadas);
+		// Nas regras do jogo, quem fica sem jogadas perde a partida (ver
+		// TabuleiroXadrez.verificarXequeMate)
+		if (quantidade == 0)
+			return -MATE + distanciaRaiz;
+		if (profundidade <= 0 || distanciaRaiz >= DISTANCIA_MAXIMA - 1) {
+			if (quiescencia != null)
+				return quiescencia.buscar(cor, alfa, beta, distanciaRaiz);
+			return avaliador.avaliar(tabuleiro, cor);
+		}
+
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		boolean emXeque = emXeque(cor);
+		// Se nem passando a vez o jogador fica abaixo de beta, o oponente não
+		// deixará a partida chegar a esta posição
+		if (jogadaNula && permiteNula && !emXeque
+				&& profundidade >= PROFUNDIDADE_MINIMA_NULA
+				&& Math.abs(beta) < LIMITE_MATE && temPecas(cor)
+				&& avaliador.avaliar(tabuleiro, cor) >= beta) {
+			RegistroJogada registro = tabuleiro.passarVez(cor);
+			int valorNula = -negamax(corOposta, profundidade - 1
+					- REDUCAO_NULA, -beta, -beta + 1, distanciaRaiz + 1, false);
+			tabuleiro.desfazerJogada(registro);
+			if (interrompida)
+				return 0;
+			// Um mate encontrado depois de passar a vez não é confiável
+			if (valorNula >= beta)
+				return beta;
+		}
+
+		int[] valores = null;
+		if (ordenacao != null) {
+			valores = valores(distanciaRaiz);
+			ordenacao.pontuar(tabuleiro, cor, jogadas, valores, quantidade,
+					jogadaTabela, distanciaRaiz, quiescencia != null);
+		} else if (jogadaTabela != CodigoJogada.NENHUMA)
+			colocarNaFrente(jogadas, quantidade, jogadaTabela);
+
+		int alfaOriginal = alfa;
+		int melhorJogada = CodigoJogada.NENHUMA;
+		for (int i = 0; i < quantidade; i++) {
+			if (ordenacao != null)
+				OrdenacaoJogadas.escolher(jogadas, valores, i, quantidade);
+			int jogada = jogadas[i];
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada, cor);
+			int valorJogada;
+			if (i == 0 || !janelasReduzidas && !reducao)
+				valorJogada = -negamax(corOposta, profundidade - 1, -beta,
+						-alfa, distanciaRaiz + 1, true);
+			else {
+				// As demais jogadas só precisam provar que não superam alfa
+				int janela = janelasReduzidas ? -alfa - 1 : -beta;
+				if (reduzir(jogada, i, profundidade, distanciaRaiz, emXeque,
+						corOposta)) {
+					valorJogada = -negamax(corOposta, profundidade - 2,
+							-alfa - 1, -alfa, distanciaRaiz + 1, true);
+					// A jogada reduzida superou alfa: é olhada de novo
+					if (valorJogada > alfa)
+						valorJogada = -negamax(corOposta, profundidade - 1,
+								janela, -alfa, distanciaRaiz + 1, true);
+				} else
+					valorJogada = -negamax(corOposta, profundidade - 1,
+							janela, -alfa, distanciaRaiz + 1, true);
+				// A jogada superou alfa na janela nula: é olhada com a inteira
+				if (janelasReduzidas && valorJogada > alfa
+						&& valorJogada < beta)
+					valorJogada = -negamax(corOposta, profundidade - 1, -beta,
+							-alfa, distanciaRaiz + 1, true);
+			}
+			tabuleiro.desfazerJogada(registro);
+			if (valorJogada > alfa) {
+				alfa = valorJogada;
+				melhorJogada = jogadas[i];
+				atualizarVariacao(distanciaRaiz, melhorJogada);
+				// O oponente não deixará a partida chegar a esta posição
+				if (alfa >= beta) {
+					if (ordenacao != null && !interrompida)
+						ordenacao.registrarPoda(jogadas[i], cor, profundidade,
+								distanciaRaiz);
+					break;
+				}
+			}
+		}
+
+		if (tabela != null && !interrompida) {
+			int tipo = alfa >= beta ? TabelaTransposicao.LIMITE_INFERIOR
+					: alfa > alfaOriginal ? TabelaTransposicao.EXATO
+							: TabelaTransposicao.LIMITE_SUPERIOR;
+			tabela.guardar(chave, profundidade,
+					valorParaTabela(alfa, distanciaRaiz), tipo, melhorJogada);
+		}
+		return alfa;
+	}
+
+	/**
+	 * A jogada passa a ser a melhor do nó: a variação principal do nó passa a
+	 * ser ela seguida da variação principal do filho.
+	 */
+	private void atualizarVariacao(int distanciaRaiz, int jogada) {
+		int[] variacao = variacaoPorNivel[distanciaRaiz];
+		variacao[0] = jogada;
+		int tamanhoFilho = 0;
+		if (distanciaRaiz + 1 < DISTANCIA_MAXIMA) {
+			tamanhoFilho = Math.min(tamanhoVariacao[distanciaRaiz + 1],
+					DISTANCIA_MAXIMA - 1);
+			System.arraycopy(variacaoPorNivel[distanciaRaiz + 1], 0, variacao,
+					1, tamanhoFilho);
+		}
+		tamanhoVariacao[distanciaRaiz] = tamanhoFilho + 1;
+	}
+
+	/**
+	 * Indica se a jogada, já feita no tabuleiro, é olhada com uma meia-jogada
+	 * a menos. As primeiras jogadas, as capturas, as promoções, as jogadas
+	 * assassinas e as jogadas que saem de um xeque ou dão xeque não são
+	 * reduzidas.
+	 */
+	private boolean reduzir(int jogada, int indice, int profundidade,
+			int distanciaRaiz, boolean emXeque, TipoCorJogador corOposta) {
+		return reducao && indice >= JOGADAS_SEM_REDUCAO
+				&& profundidade >= PROFUNDIDADE_MINIMA_REDUCAO && !emXeque
+				&& !CodigoJogada.ehCaptura(jogada)
+				&& !CodigoJogada.ehPromocao(jogada)
+				&& (ordenacao == null || !ordenacao.ehAssassina(jogada,
+						distanciaRaiz)) && !emXeque(corOposta);
+	}
+
+	/** Se o rei do jogador está atacado. */
+	private boolean emXeque(TipoCorJogador cor) {
+		long rei = tabuleiro.getPecas(TipoPeca.REI, cor);
+		return rei != 0L
+				&& tabuleiro.estaAtacada(Long.numberOfTrailingZeros(rei),
+						TipoCorJogador.getCorOposta(cor));
+	}
+
+	/** Se o jogador tem alguma peça além do rei e dos peões. */
+	private boolean temPecas(TipoCorJogador cor) {
+		return (tabuleiro.getPecas(TipoPeca.CAVALO, cor)
+				| tabuleiro.getPecas(TipoPeca.BISPO, cor)
+				| tabuleiro.getPecas(TipoPeca.TORRE, cor) | tabuleiro
+					.getPecas(TipoPeca.RAINHA, cor)) != 0L;
+	}
+
+	/**
+	 * Coloca a jogada indicada na frente do vetor, se ela estiver entre as
+	 * geradas, mantendo a ordem das demais.
+	 */
+	private static void colocarNaFrente(int[] jogadas, int quantidade,
+			int primeira) {
+		for (int indice = 0; indice < quantidade; indice++)
+			if (jogadas[indice] == primeira) {
+				System.arraycopy(jogadas, 0, jogadas, 1, indice);
+				jogadas[0] = primeira;
+				return;
+			}
+	}
+
+	/** Vetor de jogadas do nível indicado, criado se ainda não existir. */
+	private int[] nivel(int distanciaRaiz) {
+		int[] jogadas = jogadasPorNivel[distanciaRaiz];
+		if (jogadas == null) {
+			jogadas = new int[CodigoJogada.MAXIMO_JOGADAS];
+			jogadasPorNivel[distanciaRaiz] = jogadas;
+		}
+		return jogadas;
+	}
+
+	/**
+	 * Vetor de valores de ordenação do nível indicado, criado se ainda não
+	 * existir.
+	 */
+	private int[] valores(int distanciaRaiz) {
+		int[] valores = valoresPorNivel[distanciaRaiz];
+		if (valores == null) {
+			valores = new int[CodigoJogada.MAXIMO_JOGADAS];
+			valoresPorNivel[distanciaRaiz] = valores;
+		}
+		return valores;
+	}
+
+	/** Converte o código na jogada, ou em 'null' se não houver jogada. */
+	private static Jogada paraJogada(int codigo) {
+		if (codigo == CodigoJogada.NENHUMA)
+			return null;
+		return CodigoJogada.paraJogada(codigo);
+	}
+
+	/**
+	 * Os valores de mate dependem da distância até a raiz. Na tabela, são
+	 * guardados relativos à própria posição, para valerem quando ela for
+	 * alcançada a partir de outra distância.
+	 */
+	private static int valorParaTabela(int valor, int distanciaRaiz) {
+		if (valor > LIMITE_MATE)
+			return valor + distanciaRaiz;
+		if (valor < -LIMITE_MATE)
+			return valor - distanciaRaiz;
+		return valor;
+	}
+
+	private static int valorDaTabela(int valor, int distanciaRaiz) {
+		if (valor > LIMITE_MATE)
+			return valor - distanciaRaiz;
+		if (valor < -LIMITE_MATE)
+			return valor + distanciaRaiz;
+		return valor;
+	}
+
+	/**
+	 * @return A quantidade de nós visitados.
+	 */
+	public long getNos() {
+		return nos;
+	}
+
+	/**
+	 * Quantidade de nós visitados em cada distância da raiz, somada em todas
+	 * as iterações. A razão entre dois níveis seguidos mostra quantos filhos,
+	 * em média, cada nó teve de olhar antes da poda.
+	 * 
+	 * @return Um vetor com uma posição para cada nível alcançado, a começar
+	 *         pela raiz.
+	 */
+	public long[] getNosPorNivel() {
+		int niveis = DISTANCIA_MAXIMA;
+		while (niveis > 0 && nosPorNivel[niveis - 1] == 0)
+			niveis--;
+		return Arrays.copyOf(nosPorNivel, niveis);
+	}
+
+	/**
+	 * Liga ou desliga a ordenação das jogadas. Desligada, somente a jogada da
+	 * tabela de transposição (e, na raiz, a melhor da iteração anterior) é
+	 * olhada primeiro.
+	 * 
+	 * @param ordenar
+	 *            Se as jogadas devem ser ordenadas.
+	 */
+	public void setOrdenarJogadas(boolean ordenar) {
+		ordenacao = ordenar ? new OrdenacaoJogadas(DISTANCIA_MAXIMA) : null;
+	}
+
+	/**
+	 * Liga ou desliga a poda pela jogada nula (desligada por padrão).
+	 * 
+	 * @param ligada
+	 *            Se a jogada nula deve ser tentada.
+	 */
+	public void setJogadaNula(boolean ligada) {
+		jogadaNula = ligada;
+	}
+
+	/**
+	 * Liga ou desliga a redução das últimas jogadas (desligada por padrão).
+	 * 
+	 * @param ligada
+	 *            Se as últimas jogadas devem ser reduzidas.
+	 */
+	public void setReducao(boolean ligada) {
+		reducao = ligada;
+	}
+
+	/**
+	 * Liga ou desliga as janelas de aspiração e a busca pela variação
+	 * principal (desligadas por padrão). Sem elas, todas as jogadas são
+	 * olhadas com a janela inteira. Quantos nós elas poupam depende de a
+	 * primeira jogada de cada nó ser a melhor; com a avaliação só pelo
+	 * material, a quiescência e a jogada nula, a re-busca das jogadas que se
+	 * mostram melhores costuma custar o que a janela nula poupa.
+	 * 
+	 * @param ligadas
+	 *            Se as janelas devem ser reduzidas.
+	 */
+	public void setJanelasReduzidas(boolean ligadas) {
+		janelasReduzidas = ligadas;
+	}
+
+	/**
+	 * @return A variação principal da última busca completa: a jogada
+	 *         escolhida seguida das respostas que a busca espera. Pode ser mais
+	 *         curta que a profundidade, quando a posição foi encontrada na
+	 *         tabela de transposição.
+	 */
+	public List<Jogada> getVariacaoPrincipal() {
+		List<Jogada> variacao = new ArrayList<Jogada>(
+				variacaoPrincipal.length);
+		for (int jogada : variacaoPrincipal)
+			variacao.add(CodigoJogada.paraJogada(jogada));
+		return variacao;
+	}
+
+	/**
+	 * Liga ou desliga a busca de quiescência nas folhas (desligada por
+	 * padrão).
+	 * 
+	 * @param ligada
+	 *            Se as capturas a partir das folhas devem ser olhadas.
+	 */
+	public void setQuiescencia(boolean ligada) {
+		quiescencia = ligada ? new BuscaQuiescencia(tabuleiro, avaliador)
+				: null;
+	}
+
+	/**
+	 * @return A quantidade de nós visitados pela busca de quiescência, além
+	 *         dos contados por {@link #getNos()}.
+	 */
+	public long getNosQuiescencia() {
+		return quiescencia == null ? 0 : quiescencia.getNos();
+	}
+
+	/**
+	 * @return Se a busca foi interrompida por ter esgotado o tempo.
+	 */
+	public boolean isInterrompida() {
+		return interrompida;
+	}
+
+	/**
+	 * @return O valor da última jogada escolhida, do ponto de vista de quem
+	 *         joga.
+	 */
+	public int getValor() {
+		return valor;
+	}
+
+	/**
+	 * @return A profundidade da última iteração completa do aprofundamento.
+	 */
+	public int getProfundidadeAlcancada() {
+		return profundidadeAlcancada;
+	}
+}
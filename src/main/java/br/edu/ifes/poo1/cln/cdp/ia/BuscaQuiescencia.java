@@ -0,0 +1,180 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.CodigoJogada;
+import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.RegistroJogada;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.bitboard.ValoresPosicionais;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Continua a busca a partir de uma folha olhando somente as capturas e
+ * promoções, até a posição ficar "quieta". Sem ela, uma folha em que uma peça
+ * acabou de capturar outra é avaliada como se a troca tivesse terminado, mesmo
+ * que a peça possa ser recapturada logo em seguida (efeito horizonte).
+ *
+ * Em cada posição, o jogador da vez pode parar de capturar e ficar com a
+ * avaliação da posição ("stand pat"), então a busca só continua pelas capturas
+ * que melhoram esse valor. As capturas que nem com a peça capturada inteira
+ * (mais uma margem) alcançariam o valor já garantido não são olhadas ("delta
+ * pruning"). Também não são olhadas as capturas que perdem material na
+ * troca que iniciam (ver {@link TabuleiroXadrez#avaliarTroca(int)}), como
+ * uma rainha que captura um peão defendido. As demais são olhadas da vítima
+ * mais valiosa para a menos valiosa (ver {@link OrdenacaoJogadas}).
+ *
+ * Como as demais jogadas não são olhadas, um xeque nas folhas não é tratado de
+ * forma especial. Mas, como na busca principal, o jogador sem jogadas perde a
+ * partida.
+ */
+public class BuscaQuiescencia {
+
+	/**
+	 * Margem somada ao valor da peça capturada no "delta pruning", pela casa
+	 * e pelos demais termos que a captura pode mudar.
+	 */
+	public static final int MARGEM_DELTA = 200;
+
+	/** Maior quantidade de capturas seguidas que a busca olha. */
+	private static final int PROFUNDIDADE_MAXIMA = 32;
+
+	/** Tabuleiro sobre o qual as capturas são feitas e desfeitas. */
+	private final TabuleiroXadrez tabuleiro;
+
+	/** Avalia as posições. */
+	private final Avaliador avaliador;
+
+	/** Vetores onde são geradas as jogadas de cada nível. */
+	private final int[][] jogadasPorNivel = new int[PROFUNDIDADE_MAXIMA][];
+
+	/** Valores de ordenação das capturas de cada nível. */
+	private final int[][] valoresPorNivel = new int[PROFUNDIDADE_MAXIMA][];
+
+	/** Se as capturas que perdem material na troca são descartadas. */
+	private boolean podaTrocas = true;
+
+	/** Quantidade de nós visitados, somada em todas as buscas. */
+	private long nos;
+
+	/** Maior quantidade de capturas seguidas já olhada. */
+	private int profundidadeAlcancada;
+
+	/**
+	 * Prepara a busca sobre o tabuleiro indicado. O tabuleiro é usado
+	 * diretamente e volta ao estado original ao fim de cada busca.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro das folhas.
+	 * @param avaliador
+	 *            Avalia as posições.
+	 */
+	public BuscaQuiescencia(TabuleiroXadrez tabuleiro, Avaliador avaliador) {
+		this.tabuleiro = tabuleiro;
+		this.avaliador = avaliador;
+	}
+
+	/**
+	 * Avalia a posição do tabuleiro olhando as capturas.
+	 *
+	 * @param cor
+	 *            Cor de quem joga.
+	 * @param alfa
+	 *            Valor que o jogador da vez já tem garantido.
+	 * @param beta
+	 *            Valor que o oponente já tem garantido, visto pelo jogador da
+	 *            vez.
+	 * @param distanciaRaiz
+	 *            Meias-jogadas feitas desde a raiz da busca principal, para
+	 *            descontar dos valores de mate.
+	 * @return O valor da posição, do ponto de vista de quem joga.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public int buscar(TipoCorJogador cor, int alfa, int beta, int distanciaRaiz)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		return buscar(cor, alfa, beta, distanciaRaiz, 0);
+	}
+
+	private int buscar(TipoCorJogador cor, int alfa, int beta,
+			int distanciaRaiz, int nivel) throws CasaOcupadaException,
+			JogadaInvalidaException {
+		nos++;
+		if (nivel > profundidadeAlcancada)
+			profundidadeAlcancada = nivel;
+
+		int[] jogadas = nivel(jogadasPorNivel, nivel);
+		int quantidade = tabuleiro.gerarJogadasLegais(cor, jogadas);
+		// Nas regras do jogo, quem fica sem jogadas perde a partida
+		if (quantidade == 0)
+			return -BuscaAlfaBeta.MATE + distanciaRaiz;
+
+		int standPat = avaliador.avaliar(tabuleiro, cor);
+		if (standPat >= beta || nivel >= PROFUNDIDADE_MAXIMA - 1)
+			return standPat;
+		// Nem capturando uma rainha o jogador alcançaria o valor garantido
+		if (standPat + ValoresPosicionais.material(TipoPeca.RAINHA)
+				+ MARGEM_DELTA < alfa)
+			return alfa;
+		if (standPat > alfa)
+			alfa = standPat;
+
+		int[] valores = nivel(valoresPorNivel, nivel);
+		quantidade = OrdenacaoJogadas.pontuarCapturas(tabuleiro, jogadas,
+				valores, quantidade);
+		TipoCorJogador corOposta = TipoCorJogador.getCorOposta(cor);
+		for (int i = 0; i < quantidade; i++) {
+			int jogada = OrdenacaoJogadas.escolher(jogadas, valores, i,
+					quantidade);
+			if (!CodigoJogada.ehPromocao(jogada)
+					&& standPat
+							+ ValoresPosicionais.material(OrdenacaoJogadas
+									.vitima(tabuleiro, jogada)) + MARGEM_DELTA <= alfa)
+				continue;
+			if (podaTrocas && OrdenacaoJogadas.perdeMaterial(tabuleiro, jogada))
+				continue;
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada, cor);
+			int valor = -buscar(corOposta, -beta, -alfa, distanciaRaiz + 1,
+					nivel + 1);
+			tabuleiro.desfazerJogada(registro);
+			if (valor > alfa) {
+				alfa = valor;
+				if (alfa >= beta)
+					break;
+			}
+		}
+		return alfa;
+	}
+
+	/**
+	 * Liga ou desliga o descarte das capturas que perdem material na troca
+	 * (ligado por padrão).
+	 *
+	 * @param ligada
+	 *            Se as capturas perdedoras devem ser descartadas.
+	 */
+	public void setPodaTrocas(boolean ligada) {
+		podaTrocas = ligada;
+	}
+
+	/** Vetor do nível indicado, criado se ainda não existir. */
+	private static int[] nivel(int[][] vetores, int nivel) {
+		if (vetores[nivel] == null)
+			vetores[nivel] = new int[CodigoJogada.MAXIMO_JOGADAS];
+		return vetores[nivel];
+	}
+
+	/**
+	 * @return A quantidade de nós visitados, somada em todas as buscas.
+	 */
+	public long getNos() {
+		return nos;
+	}
+
+	/**
+	 * @return A maior quantidade de capturas seguidas já olhada.
+	 */
+	public int getProfundidadeAlcancada() {
+		return profundidadeAlcancada;
+	}
+}
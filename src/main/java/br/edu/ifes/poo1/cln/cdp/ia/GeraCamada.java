@@ -1,23 +1,52 @@
 package br.edu.ifes.poo1.cln.cdp.ia;
 
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.Jogada;
 import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.RegistroJogada;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
 
-public class GeraCamada implements Runnable {
+/**
+ * Gera os filhos de uma faixa de nós de uma camada. A faixa é dividida ao meio
+ * até ficar pequena, e as metades são executadas num {@link ForkJoinPool}: as
+ * linhas de execução que terminam sua parte roubam as metades ainda não
+ * começadas das outras, o que equilibra subárvores de tamanhos muito
+ * diferentes. Os filhos são devolvidos na ordem dos nós da faixa.
+ * 
+ * Nenhuma estrutura é compartilhada entre as partes para escrita: cada parte
+ * tem a sua cópia do tabuleiro e a sua lista de nós, e cada nó da camada é
+ * expandido por uma única parte, que liga a ele os filhos de uma só vez. As
+ * listas das partes são juntadas, em ordem, quando elas terminam, de modo que
+ * o resultado não depende da quantidade de linhas de execução nem da ordem em
+ * que elas rodam.
+ */
+public class GeraCamada extends RecursiveTask<List<NoArvore>> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Quantidade de nós a partir da qual a faixa é dividida. */
+	private static final int TAMANHO_DIVISAO = 8;
 
 	// Captura o primeiro nó
 	private int comecoElementos;
 	// Captura o ultimo nó
 	private int fimElementos;
-	// Continua enquanto não acabar o tempo
-	private boolean acabou = false;
+	// Continua enquanto não acabar o tempo. Compartilhado por todas as partes
+	private AtomicBoolean acabou;
 	// Lista de nós atuais
 	private List<NoArvore> listaNos;
-	private List<NoArvore> novaListaNos = new ArrayList<NoArvore>();
-	private GeraEstado geraEstado = new GeraEstado();
+	// Tabuleiro da raiz, copiado por cada parte que gera filhos
+	private TabuleiroXadrez tabuleiroRaiz;
+	// Cópia do tabuleiro da raiz, sobre a qual as jogadas são feitas e
+	// desfeitas
+	private TabuleiroXadrez tabuleiro;
 
 	/**
 	 * Método construtor
@@ -25,32 +54,51 @@ public class GeraCamada implements Runnable {
 	 * @param comeco
 	 * @param fim
 	 * @param listaNos
+	 * @param tabuleiroRaiz
+	 *            Tabuleiro do nó raiz da árvore. Não é alterado.
+	 * @param acabou
+	 *            Marcado quando o tempo acaba, para todas as partes pararem.
 	 */
-	public GeraCamada(int comeco, int fim, List<NoArvore> listaNos) {
+	public GeraCamada(int comeco, int fim, List<NoArvore> listaNos,
+			TabuleiroXadrez tabuleiroRaiz, AtomicBoolean acabou) {
 		this.comecoElementos = comeco;
 		this.fimElementos = fim;
 		this.listaNos = listaNos;
+		this.tabuleiroRaiz = tabuleiroRaiz;
+		this.acabou = acabou;
 	}
 
 	/**
-	 * Método run
+	 * Gera os filhos da faixa, dividindo-a se for grande
 	 */
-	public void run() {
-		for (int indiceLista = comecoElementos; indiceLista < fimElementos; indiceLista++)
-			// Se não acabou o tempo
-			if (!acabou) {
-				try {
+	protected List<NoArvore> compute() {
+		if (fimElementos - comecoElementos > TAMANHO_DIVISAO) {
+			int meio = (comecoElementos + fimElementos) >>> 1;
+			GeraCamada primeiraMetade = new GeraCamada(comecoElementos, meio,
+					listaNos, tabuleiroRaiz, acabou);
+			GeraCamada segundaMetade = new GeraCamada(meio, fimElementos,
+					listaNos, tabuleiroRaiz, acabou);
+			// A segunda metade fica disponível para ser roubada
+			segundaMetade.fork();
+			List<NoArvore> novaListaNos = primeiraMetade.compute();
+			novaListaNos.addAll(segundaMetade.join());
+			return novaListaNos;
+		}
+
+		List<NoArvore> novaListaNos = new ArrayList<NoArvore>();
+		try {
+			tabuleiro = tabuleiroRaiz.tabuleiroClonado();
+			for (int indiceLista = comecoElementos; indiceLista < fimElementos; indiceLista++)
+				// Se não acabou o tempo
+				if (!acabou.get())
 					novaListaNos = geraFilhos(listaNos.get(indiceLista),
 							novaListaNos);
-				} catch (CasaOcupadaException | CloneNotSupportedException
-						| JogadaInvalidaException e) {
-					return;
-				}
-			} else
-				return;
-	}
-
-	public List<NoArvore> getNovaListaNos() {
+				else
+					break;
+		} catch (CasaOcupadaException | CloneNotSupportedException
+				| JogadaInvalidaException e) {
+			// Devolve os filhos gerados até o erro
+		}
 		return novaListaNos;
 	}
 
@@ -67,29 +115,29 @@ public class GeraCamada implements Runnable {
 	public List<NoArvore> geraFilhos(NoArvore noPai, List<NoArvore> novaListaNos)
 			throws CasaOcupadaException, CloneNotSupportedException,
 			JogadaInvalidaException {
-		// Cria uma lista de tabuleiros que contém todos os estados possíveis a
-		// serem gerados dado o nó pai
-		List<Estado> listaEstados = new ArrayList<Estado>();
 		// Se o nó pai não está em xeque-mate, devemos considerar seus filhos
 		if (noPai.isXequeMate() == false) {
-			// Crie uma lista de tabuleiros com todas as jogadas possíveis de
-			// serem realizadas naquele tabuleiro
-			listaEstados = geraEstado.proximosEstadosPossiveis(noPai
-					.getEstado().getTabuleiro(), noPai.getCorNo());
-			// Para cada estado da lista de estados
-			for (Estado estado : listaEstados) {
-				// Crie um nó que reconheça seu pai e armazene o estado
-				NoArvore no = new NoArvore(noPai, estado);
-				// Faça esse nó ser adicionado a nova lista de nós
-				novaListaNos.add(no);
+			// Leva o tabuleiro até o estado do nó pai
+			Deque<RegistroJogada> caminho = noPai.aplicarCaminho(tabuleiro);
+			// Os filhos são juntados à parte e só ligados ao pai no fim
+			List<NoArvore> filhos = new ArrayList<NoArvore>();
+			// Para cada jogada possível de ser realizada naquele tabuleiro
+			for (Jogada jogada : tabuleiro.jogadasLegais(noPai.getCorNo())) {
+				// Crie um nó que reconheça seu pai e armazene a jogada
+				RegistroJogada registro = tabuleiro.fazerJogada(jogada,
+						noPai.getCorNo());
+				filhos.add(new NoArvore(noPai, jogada, tabuleiro));
+				tabuleiro.desfazerJogada(registro);
 			}
+			// Volta o tabuleiro ao estado da raiz
+			NoArvore.desfazerCaminho(tabuleiro, caminho);
+			// Faça os filhos serem ligados ao pai e adicionados a nova lista
+			// de nós
+			noPai.adicionarFilhos(filhos);
+			novaListaNos.addAll(filhos);
 		} else
 			novaListaNos.add(noPai);
 		return novaListaNos;
 	}
 
-	public void setAcabou() {
-		acabou = true;
-	}
-
 }
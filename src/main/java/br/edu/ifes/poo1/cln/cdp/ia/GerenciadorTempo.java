@@ -0,0 +1,136 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import java.io.Serializable;
+
+/**
+ * Controla o tempo que a máquina pode gastar em cada jogada. Cada jogada tem
+ * um tempo máximo e, se a máquina tiver um relógio para a partida inteira, o
+ * tempo da jogada é uma fração do que ainda resta no relógio.
+ * 
+ * O tempo da jogada é usado de duas formas: uma nova iteração da busca só
+ * começa se ainda não se passou metade dele (a próxima iteração costuma levar
+ * mais que todas as anteriores juntas), e a iteração em andamento é
+ * interrompida quando ele se esgota.
+ */
+public class GerenciadorTempo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Quantidade de jogadas que se supõe faltar até o fim da partida. */
+	private static final int JOGADAS_RESTANTES = 30;
+
+	/** Menor tempo dado a uma jogada, em milissegundos. */
+	private static final long TEMPO_MINIMO = 50;
+
+	/** Tempo máximo de uma jogada, em milissegundos. */
+	private final long tempoMaximoJogada;
+
+	/** Se a partida é jogada com relógio. */
+	private final boolean comRelogio;
+
+	/** Tempo que resta no relógio, em milissegundos. */
+	private long tempoRestante;
+
+	/** Tempo acrescentado ao relógio a cada jogada, em milissegundos. */
+	private final long incremento;
+
+	/** Instante em que a jogada atual começou a ser pensada. */
+	private transient long inicio;
+
+	/** Tempo dado à jogada atual, em milissegundos. */
+	private transient long orcamento;
+
+	/**
+	 * Cria um gerenciador sem relógio: toda jogada pode usar o tempo máximo.
+	 * 
+	 * @param tempoMaximoJogada
+	 *            Tempo máximo de uma jogada, em milissegundos.
+	 */
+	public GerenciadorTempo(long tempoMaximoJogada) {
+		this.tempoMaximoJogada = tempoMaximoJogada;
+		this.comRelogio = false;
+		this.incremento = 0;
+	}
+
+	/**
+	 * Cria um gerenciador com relógio para a partida inteira.
+	 * 
+	 * @param tempoTotal
+	 *            Tempo do relógio no início da partida, em milissegundos.
+	 * @param incremento
+	 *            Tempo acrescentado ao relógio a cada jogada, em milissegundos.
+	 * @param tempoMaximoJogada
+	 *            Tempo máximo de uma jogada, em milissegundos.
+	 */
+	public GerenciadorTempo(long tempoTotal, long incremento,
+			long tempoMaximoJogada) {
+		this.tempoMaximoJogada = tempoMaximoJogada;
+		this.comRelogio = true;
+		this.tempoRestante = tempoTotal;
+		this.incremento = incremento;
+	}
+
+	/**
+	 * Marca o início de uma jogada e calcula o tempo que ela pode usar.
+	 */
+	public void iniciarJogada() {
+		inicio = System.currentTimeMillis();
+		orcamento = tempoMaximoJogada;
+		if (comRelogio)
+			orcamento = Math.min(orcamento, tempoRestante / JOGADAS_RESTANTES
+					+ incremento);
+		orcamento = Math.max(orcamento, TEMPO_MINIMO);
+	}
+
+	/**
+	 * Marca o fim de uma jogada, descontando do relógio o tempo gasto.
+	 */
+	public void terminarJogada() {
+		if (comRelogio)
+			tempoRestante = Math.max(0, tempoRestante - getTempoGasto())
+					+ incremento;
+	}
+
+	/**
+	 * @return Se ainda há tempo para começar uma nova iteração da busca.
+	 */
+	public boolean podeIniciarIteracao() {
+		return getTempoGasto() < orcamento / 2;
+	}
+
+	/**
+	 * @return Se o tempo da jogada atual acabou.
+	 */
+	public boolean esgotado() {
+		return getTempoGasto() >= orcamento;
+	}
+
+	/**
+	 * @return O tempo gasto na jogada atual, em milissegundos.
+	 */
+	public long getTempoGasto() {
+		return System.currentTimeMillis() - inicio;
+	}
+
+	/**
+	 * @return O tempo dado à jogada atual, em milissegundos.
+	 */
+	public long getOrcamento() {
+		return orcamento;
+	}
+
+	/**
+	 * @return O tempo que resta no relógio, em milissegundos.
+	 */
+	public long getTempoRestante() {
+		return tempoRestante;
+	}
+
+	public long getTempoMaximoJogada() {
+		return tempoMaximoJogada;
+	}
+
+	public boolean isComRelogio() {
+		return comRelogio;
+	}
+}
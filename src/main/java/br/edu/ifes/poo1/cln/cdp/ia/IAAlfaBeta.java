@@ -0,0 +1,357 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.Jogada;
+import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogador;
+
+/**
+ * Máquina que escolhe a jogada com uma busca alfa-beta em profundidade (ver
+ * {@link BuscaAlfaBeta}). Diferente da {@link IAElaborada}, não monta a árvore
+ * de jogadas em memória, o que permite alcances bem maiores. A busca se
+ * aprofunda aos poucos, então, se o tempo acabar antes do alcance, a máquina
+ * ainda joga a melhor jogada da maior profundidade que conseguiu olhar.
+ */
+public class IAAlfaBeta extends Maquina {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Memória padrão da tabela de transposição, em megabytes
+	 */
+	public static final int MEGABYTES_TABELA_PADRAO = 16;
+
+	/**
+	 * Informa quantas meias-jogadas a máquina olha à frente
+	 */
+	private final int ALCANCE_MAQUINA;
+
+	/**
+	 * Controla o tempo que a máquina leva para escolher cada jogada
+	 */
+	private final GerenciadorTempo gerenciadorTempo;
+
+	/**
+	 * Informa a memória da tabela de transposição, em megabytes (0 para não
+	 * usar a tabela)
+	 */
+	private final int MEGABYTES_TABELA;
+
+	/**
+	 * Avalia as posições ao fim da busca
+	 */
+	private final Avaliador avaliador;
+
+	/**
+	 * Posições avaliadas nas buscas anteriores. É criada na primeira jogada e
+	 * não é salva com a partida.
+	 */
+	private transient TabelaTransposicao tabela;
+
+	/**
+	 * Se as jogadas são ordenadas (ver
+	 * {@link BuscaAlfaBeta#setOrdenarJogadas(boolean)})
+	 */
+	private boolean ordenarJogadas = true;
+
+	/**
+	 * Se as capturas a partir das folhas são olhadas (ver
+	 * {@link BuscaAlfaBeta#setQuiescencia(boolean)})
+	 */
+	private boolean quiescencia = true;
+
+	/**
+	 * Se a poda pela jogada nula é tentada (ver
+	 * {@link BuscaAlfaBeta#setJogadaNula(boolean)})
+	 */
+	private boolean jogadaNula = true;
+
+	/**
+	 * Se as últimas jogadas são reduzidas (ver
+	 * {@link BuscaAlfaBeta#setReducao(boolean)})
+	 */
+	private boolean reducao = true;
+
+	/**
+	 * Se as janelas de aspiração e a janela nula são usadas (ver
+	 * {@link BuscaAlfaBeta#setJanelasReduzidas(boolean)})
+	 */
+	private boolean janelasReduzidas;
+
+	/**
+	 * Nós visitados em cada nível na última jogada escolhida
+	 */
+	private transient long[] nosPorNivel = new long[0];
+
+	/**
+	 * Nós visitados pela busca de quiescência na última jogada escolhida
+	 */
+	private transient long nosQuiescencia;
+
+	/**
+	 * Variação principal da última jogada escolhida: a jogada seguida das
+	 * respostas esperadas
+	 */
+	private transient List<Jogada> variacaoPrincipal;
+
+	/**
+	 * Classe construtora de IAAlfaBeta
+	 * 
+	 * @param nome
+	 * @param cor
+	 * @param alcance
+	 * @param tempoMaximo
+	 *            Tempo máximo de cada jogada, em segundos
+	 */
+	public IAAlfaBeta(String nome, TipoCorJogador cor, int alcance,
+			int tempoMaximo) {
+		this(nome, cor, alcance, new GerenciadorTempo(tempoMaximo * 1000L));
+	}
+
+	/**
+	 * Classe construtora de IAAlfaBeta, escolhendo a memória da tabela de
+	 * transposição
+	 * 
+	 * @param nome
+	 * @param cor
+	 * @param alcance
+	 * @param tempoMaximo
+	 *            Tempo máximo de cada jogada, em segundos
+	 * @param megabytesTabela
+	 *            Memória da tabela de transposição, em megabytes (0 para não
+	 *            usar a tabela)
+	 */
+	public IAAlfaBeta(String nome, TipoCorJogador cor, int alcance,
+			int tempoMaximo, int megabytesTabela) {
+		this(nome, cor, alcance, new GerenciadorTempo(tempoMaximo * 1000L),
+				megabytesTabela);
+	}
+
+	/**
+	 * Classe construtora de IAAlfaBeta, informando como o tempo de cada jogada
+	 * é controlado (por exemplo, com um relógio para a partida inteira)
+	 * 
+	 * @param nome
+	 * @param cor
+	 * @param alcance
+	 * @param gerenciadorTempo
+	 */
+	public IAAlfaBeta(String nome, TipoCorJogador cor, int alcance,
+			GerenciadorTempo gerenciadorTempo) {
+		this(nome, cor, alcance, gerenciadorTempo, MEGABYTES_TABELA_PADRAO);
+	}
+
+	/**
+	 * Classe construtora de IAAlfaBeta, escolhendo a memória da tabela de
+	 * transposição. As posições são avaliadas somente pelo material e pela
+	 * casa de cada peça.
+	 * 
+	 * @param nome
+	 * @param cor
+	 * @param alcance
+	 * @param gerenciadorTempo
+	 * @param megabytesTabela
+	 *            Memória da tabela de transposição, em megabytes (0 para não
+	 *            usar a tabela)
+	 */
+	public IAAlfaBeta(String nome, TipoCorJogador cor, int alcance,
+			GerenciadorTempo gerenciadorTempo, int megabytesTabela) {
+		this(nome, cor, alcance, gerenciadorTempo, megabytesTabela,
+				new AvaliadorPadrao(TipoTermoAvaliacao.MATERIAL));
+	}
+
+	/**
+	 * Classe construtora de IAAlfaBeta, com todas as opções
+	 * 
+	 * @param nome
+	 * @param cor
+	 * @param alcance
+	 * @param gerenciadorTempo
+	 * @param megabytesTabela
+	 *            Memória da tabela de transposição, em megabytes (0 para não
+	 *            usar a tabela)
+	 * @param avaliador
+	 *            Avalia as posições ao fim da busca
+	 */
+	public IAAlfaBeta(String nome, TipoCorJogador cor, int alcance,
+			GerenciadorTempo gerenciadorTempo, int megabytesTabela,
+			Avaliador avaliador) {
+		super(nome, cor, TipoJogador.IAALFABETA);
+		this.avaliador = avaliador;
+		this.ALCANCE_MAQUINA = alcance;
+		this.gerenciadorTempo = gerenciadorTempo;
+		this.MEGABYTES_TABELA = megabytesTabela;
+	}
+
+	/**
+	 * Método que escolhe a jogada da máquina
+	 * 
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public Jogada escolherJogada(TabuleiroXadrez tabuleiroAtual)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		// Trabalha sobre uma cópia do tabuleiro atual, onde a busca faz e
+		// desfaz as jogadas
+		TabuleiroXadrez tabuleiroBusca = tabuleiroAtual.tabuleiroClonado();
+
+		// A tabela é mantida de uma jogada para outra
+		if (tabela == null && MEGABYTES_TABELA > 0)
+			tabela = new TabelaTransposicao(MEGABYTES_TABELA);
+		if (tabela != null)
+			tabela.novaBusca();
+
+		gerenciadorTempo.iniciarJogada();
+		BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiroBusca,
+				gerenciadorTempo, tabela, avaliador);
+		busca.setOrdenarJogadas(ordenarJogadas);
+		busca.setQuiescencia(quiescencia);
+		busca.setJogadaNula(jogadaNula);
+		busca.setReducao(reducao);
+		busca.setJanelasReduzidas(janelasReduzidas);
+		Jogada jogada = busca.aprofundar(this.cor, ALCANCE_MAQUINA);
+		gerenciadorTempo.terminarJogada();
+		nosPorNivel = busca.getNosPorNivel();
+		nosQuiescencia = busca.getNosQuiescencia();
+		variacaoPrincipal = busca.getVariacaoPrincipal();
+
+		// Se o tempo acabou antes mesmo da primeira iteração, recorra à IA
+		// randômica
+		if (jogada == null && busca.isInterrompida())
+			return suporte(tabuleiroAtual);
+		return jogada;
+	}
+
+	/**
+	 * Método criado para auxiliar caso a busca não encontre uma jogada a tempo
+	 * 
+	 * @param tabuleiroAtual
+	 * @return
+	 */
+	public Jogada suporte(TabuleiroXadrez tabuleiroAtual) {
+		IARandomica suporteIa = new IARandomica(this.getCor());
+		return suporteIa.escolherJogada(tabuleiroAtual);
+	}
+
+	public int getALCANCEMAQUINA() {
+		return ALCANCE_MAQUINA;
+	}
+
+	public int getTEMPOMAXIMO() {
+		return (int) (gerenciadorTempo.getTempoMaximoJogada() / 1000);
+	}
+
+	public GerenciadorTempo getGerenciadorTempo() {
+		return gerenciadorTempo;
+	}
+
+	public Avaliador getAvaliador() {
+		return avaliador;
+	}
+
+	public boolean isOrdenarJogadas() {
+		return ordenarJogadas;
+	}
+
+	/**
+	 * Liga ou desliga a ordenação das jogadas na busca (ligada por padrão)
+	 * 
+	 * @param ordenar
+	 */
+	public void setOrdenarJogadas(boolean ordenar) {
+		this.ordenarJogadas = ordenar;
+	}
+
+	/**
+	 * Nós visitados em cada distância da raiz na última jogada escolhida (ver
+	 * {@link BuscaAlfaBeta#getNosPorNivel()})
+	 * 
+	 * @return
+	 */
+	public long[] getNosPorNivel() {
+		return nosPorNivel == null ? new long[0] : nosPorNivel.clone();
+	}
+
+	public boolean isQuiescencia() {
+		return quiescencia;
+	}
+
+	/**
+	 * Liga ou desliga a busca de quiescência nas folhas (ligada por padrão)
+	 * 
+	 * @param ligada
+	 */
+	public void setQuiescencia(boolean ligada) {
+		this.quiescencia = ligada;
+	}
+
+	/**
+	 * Variação principal da última jogada escolhida: a jogada seguida das
+	 * respostas que a máquina espera, alternando as cores
+	 * 
+	 * @return
+	 */
+	public List<Jogada> getVariacaoPrincipal() {
+		if (variacaoPrincipal == null)
+			return new ArrayList<Jogada>();
+		return new ArrayList<Jogada>(variacaoPrincipal);
+	}
+
+	public boolean isJogadaNula() {
+		return jogadaNula;
+	}
+
+	/**
+	 * Liga ou desliga a poda pela jogada nula (ligada por padrão)
+	 * 
+	 * @param ligada
+	 */
+	public void setJogadaNula(boolean ligada) {
+		this.jogadaNula = ligada;
+	}
+
+	public boolean isReducao() {
+		return reducao;
+	}
+
+	/**
+	 * Liga ou desliga a redução das últimas jogadas (ligada por padrão)
+	 * 
+	 * @param ligada
+	 */
+	public void setReducao(boolean ligada) {
+		this.reducao = ligada;
+	}
+
+	public boolean isJanelasReduzidas() {
+		return janelasReduzidas;
+	}
+
+	/**
+	 * Liga ou desliga as janelas de aspiração e a busca pela variação
+	 * principal (desligadas por padrão)
+	 * 
+	 * @param ligadas
+	 */
+	public void setJanelasReduzidas(boolean ligadas) {
+		this.janelasReduzidas = ligadas;
+	}
+
+	/**
+	 * Nós visitados pela busca de quiescência na última jogada escolhida
+	 * 
+	 * @return
+	 */
+	public long getNosQuiescencia() {
+		return nosQuiescencia;
+	}
+
+	public int getMEGABYTESTABELA() {
+		return MEGABYTES_TABELA;
+	}
+}
@@ -1,13 +1,20 @@
 package br.edu.ifes.poo1.cln.cdp.ia;
 
-import java.lang.Thread.State;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
 import br.edu.ifes.poo1.cln.cdp.Jogada;
 import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.RegistroJogada;
 import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogador;
@@ -24,6 +31,12 @@ public class IAElaborada extends Maquina {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Valor somado ao da avaliação quando a máquina dá xeque-mate (e subtraído
+	 * quando recebe), maior que o de qualquer posição
+	 */
+	public static final int VALOR_XEQUE_MATE = 100000;
+
 	/**
 	 * Informa com quantas camadas estamos lidando no problema (O valor pode ser
 	 * adequado na interface conforme dificuldade escolhida pelo jogador)
@@ -40,6 +53,34 @@ public class IAElaborada extends Maquina {
 	 */
 	private final boolean MAQUINA_INTELIGENTE;
 
+	/**
+	 * Informa quantas linhas de execução geram as camadas (0 para usar todos
+	 * os processadores)
+	 */
+	private final int THREADS;
+
+	/**
+	 * Avalia os nós folhas. Ou 'null', para usar
+	 * {@link TabuleiroXadrez#valorTabuleiro}.
+	 */
+	private final Avaliador avaliador;
+
+	/**
+	 * Informa se os nós folhas olham as capturas (ver
+	 * {@link BuscaQuiescencia}) antes de serem avaliados
+	 */
+	private boolean quiescencia;
+
+	/**
+	 * Nós visitados pela busca de quiescência na última jogada escolhida
+	 */
+	private transient long nosQuiescencia;
+
+	/**
+	 * Pool que executa a geração das camadas. Não é salvo com a partida.
+	 */
+	private transient ForkJoinPool pool;
+
 	/**
 	 * Informa o nível que o nó raiz deve responder (MAX ou MIN)
 	 */
@@ -59,7 +100,50 @@ public class IAElaborada extends Maquina {
 	 */
 	public IAElaborada(String nome, TipoCorJogador cor, int alcance,
 			int tempoMaximo, boolean maquinaInteligente) {
+		this(nome, cor, alcance, tempoMaximo, maquinaInteligente, 0);
+	}
+
+	/**
+	 * Classe construtora de IAElaborada, escolhendo também quantas linhas de
+	 * execução geram as camadas
+	 * 
+	 * @param nome
+	 * @param cor
+	 * @param alcance
+	 * @param tempoMaximo
+	 * @param maquinaInteligente
+	 * @param threads
+	 *            Quantidade de linhas de execução (0 para usar todos os
+	 *            processadores)
+	 */
+	public IAElaborada(String nome, TipoCorJogador cor, int alcance,
+			int tempoMaximo, boolean maquinaInteligente, int threads) {
+		this(nome, cor, alcance, tempoMaximo, maquinaInteligente, threads,
+				null);
+	}
+
+	/**
+	 * Classe construtora de IAElaborada, escolhendo também como os nós folhas
+	 * são avaliados
+	 * 
+	 * @param nome
+	 * @param cor
+	 * @param alcance
+	 * @param tempoMaximo
+	 * @param maquinaInteligente
+	 * @param threads
+	 *            Quantidade de linhas de execução (0 para usar todos os
+	 *            processadores)
+	 * @param avaliador
+	 *            Avalia os nós folhas (ou 'null', para contar somente o
+	 *            material com {@link TabuleiroXadrez#valorTabuleiro})
+	 */
+	public IAElaborada(String nome, TipoCorJogador cor, int alcance,
+			int tempoMaximo, boolean maquinaInteligente, int threads,
+			Avaliador avaliador) {
 		super(nome, cor, TipoJogador.IAELABORADA);
+		this.THREADS = threads;
+		this.avaliador = avaliador;
 		this.ALCANCE_MAQUINA = alcance;
 		this.TEMPO_MAXIMO = tempoMaximo;
 		this.MAQUINA_INTELIGENTE = maquinaInteligente;
@@ -70,77 +154,76 @@ public class IAElaborada extends Maquina {
 	}
 
 	/**
-	 * Método que gera todos os nós de uma camada
+	 * Método que gera todos os nós de uma camada. Os nós são divididos entre
+	 * as linhas de execução do pool da máquina (ver {@link GeraCamada}); se o
+	 * tempo máximo for alcançado, a geração é interrompida e a camada anterior
+	 * é mantida.
 	 * 
 	 * @param listaNos
+	 * @param tabuleiroRaiz
+	 *            Tabuleiro do nó raiz, a partir do qual os nós são refeitos.
 	 * @return
 	 * @throws InterruptedException
+	 * @throws CasaOcupadaException
 	 */
-	public List<NoArvore> criaCamada(List<NoArvore> listaNos)
-			throws InterruptedException {
-		// GeraCamada parte1 = new GeraCamada(0, (int) listaNos.size(),
-		// listaNos);
-		// Construa as partes
-		GeraCamada parte1 = new GeraCamada(0, (int) listaNos.size() * 1 / 4,
-				listaNos);
-		GeraCamada parte2 = new GeraCamada((int) listaNos.size() * 1 / 4,
-				(int) listaNos.size() * 2 / 4, listaNos);
-		GeraCamada parte3 = new GeraCamada((int) listaNos.size() * 2 / 4,
-				(int) listaNos.size() * 3 / 4, listaNos);
-		GeraCamada parte4 = new GeraCamada((int) listaNos.size() * 3 / 4,
-				listaNos.size(), listaNos);
-
-		// Construa as threads
-		Thread t1 = new Thread(parte1);
-		Thread t2 = new Thread(parte2);
-		Thread t3 = new Thread(parte3);
-		Thread t4 = new Thread(parte4);
-
-		// Inicia as threads
-		t1.start();
-		t2.start();
-		t3.start();
-		t4.start();
-
-		// Enquanto as threads estão rodando
-		while (t1.getState() == State.RUNNABLE
-				|| t2.getState() == State.RUNNABLE
-				|| t3.getState() == State.RUNNABLE
-				|| t4.getState() == State.RUNNABLE) {
-			long fim = System.currentTimeMillis();
-			// Se o tempo máximo for alcançado
-			if ((fim - inicio) / 1000 > this.TEMPO_MAXIMO) {
-
-				// Interrompa as threads e retorne true
-				parte1.setAcabou();
-				parte2.setAcabou();
-				parte3.setAcabou();
-				parte4.setAcabou();
-
-				// Espera as threads morrerem
-				t1.join();
-				t2.join();
-				t3.join();
-				t4.join();
-
-				return listaNos;
+	public List<NoArvore> criaCamada(List<NoArvore> listaNos,
+			TabuleiroXadrez tabuleiroRaiz) throws InterruptedException,
+			CasaOcupadaException {
+		AtomicBoolean acabou = new AtomicBoolean(false);
+		ForkJoinTask<List<NoArvore>> tarefa = getPool().submit(
+				new GeraCamada(0, listaNos.size(), listaNos, tabuleiroRaiz,
+						acabou));
+
+		// Espera as partes terminarem, no máximo até o fim do tempo
+		long restante = inicio + this.TEMPO_MAXIMO * 1000L
+				- System.currentTimeMillis();
+		try {
+			return tarefa.get(Math.max(restante, 0), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// Interrompa as partes e espere que parem
+			acabou.set(true);
+			try {
+				tarefa.get();
+			} catch (ExecutionException erro) {
+				// A camada incompleta é descartada de qualquer forma
 			}
+			return listaNos;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
 		}
+	}
 
-		// Crie a lista de nós
-		listaNos = parte1.getNovaListaNos();
-		listaNos.addAll(parte2.getNovaListaNos());
-		listaNos.addAll(parte3.getNovaListaNos());
-		listaNos.addAll(parte4.getNovaListaNos());
-		return listaNos;
+	/**
+	 * Pool de linhas de execução da máquina, criado na primeira jogada.
+	 * 
+	 * @return
+	 */
+	private ForkJoinPool getPool() {
+		if (pool == null)
+			pool = new ForkJoinPool(getTHREADS());
+		return pool;
 	}
 
 	/**
-	 * Método que insere nos nós folhas os seus respectivos valores
+	 * Método que insere nos nós folhas os seus respectivos valores. O
+	 * tabuleiro de cada folha é obtido refazendo as jogadas desde a raiz. Com
+	 * a busca de quiescência, as capturas a partir da folha são olhadas antes,
+	 * para que uma peça que acabou de capturar e pode ser recapturada não
+	 * conte como ganho.
 	 * 
 	 * @param listaNos
+	 * @param tabuleiroRaiz
+	 *            Tabuleiro do nó raiz. Volta ao que era ao final.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
 	 */
-	public void inserirValorFolhas(List<NoArvore> listaNos) {
+	public void inserirValorFolhas(List<NoArvore> listaNos,
+			TabuleiroXadrez tabuleiroRaiz) throws CasaOcupadaException,
+			JogadaInvalidaException {
+		if (quiescencia) {
+			inserirValorFolhasQuiescencia(listaNos, tabuleiroRaiz);
+			return;
+		}
 		for (NoArvore no : listaNos) {
 			int xequeMate = 0;
 			// Verifica se o nó está em xeque. Influencia no valor do tabuleiro
@@ -149,12 +232,37 @@ public class IAElaborada extends Maquina {
 					xequeMate = -1;
 				else
 					xequeMate = 1;
-			no.setValor(no.getEstado().getTabuleiro()
-					.valorTabuleiro(this.cor, xequeMate));
+			Deque<RegistroJogada> caminho = no.aplicarCaminho(tabuleiroRaiz);
+			if (avaliador == null)
+				no.setValor(tabuleiroRaiz.valorTabuleiro(this.cor, xequeMate));
+			else
+				no.setValor(avaliador.avaliar(tabuleiroRaiz, this.cor)
+						+ xequeMate * VALOR_XEQUE_MATE);
+			NoArvore.desfazerCaminho(tabuleiroRaiz, caminho);
 			no.setTemValor();
 		}
 	}
 
+	private void inserirValorFolhasQuiescencia(List<NoArvore> listaNos,
+			TabuleiroXadrez tabuleiroRaiz) throws CasaOcupadaException,
+			JogadaInvalidaException {
+		// Sem avaliador, as folhas são avaliadas somente pelo material
+		BuscaQuiescencia busca = new BuscaQuiescencia(tabuleiroRaiz,
+				avaliador != null ? avaliador : new AvaliadorPadrao(
+						TipoTermoAvaliacao.MATERIAL));
+		for (NoArvore no : listaNos) {
+			Deque<RegistroJogada> caminho = no.aplicarCaminho(tabuleiroRaiz);
+			// O valor vem do ponto de vista de quem joga na folha. O xeque-mate
+			// é reconhecido pela busca, que fica sem jogadas
+			int valor = busca.buscar(no.getCorNo(), -BuscaAlfaBeta.INFINITO,
+					BuscaAlfaBeta.INFINITO, 0);
+			no.setValor(no.getCorNo() == this.cor ? valor : -valor);
+			NoArvore.desfazerCaminho(tabuleiroRaiz, caminho);
+			no.setTemValor();
+		}
+		nosQuiescencia = busca.getNos();
+	}
+
 	/**
 	 * Método que escolhe a jogada da máquina
 	 * 
@@ -166,9 +274,12 @@ public class IAElaborada extends Maquina {
 			throws CasaOcupadaException, JogadaInvalidaException {
 		// Inicia uma lista de nós
 		List<NoArvore> listaNos = new ArrayList<NoArvore>();
+		// Trabalha sobre uma cópia do tabuleiro atual, já que as folhas
+		// refazem e desfazem jogadas sobre o tabuleiro da raiz
+		TabuleiroXadrez tabuleiroBusca = tabuleiroAtual.tabuleiroClonado();
 		// Crio nó raiz e informo a ele o tabuleiro atual
 		NoArvore raiz = new NoArvore(this.cor, this.nivel, new Estado(null,
-				tabuleiroAtual));
+				tabuleiroBusca));
 
 		// Cria lista de jogadas que possuem valor igual ao nó raiz
 		List<Jogada> possivelJogada = new ArrayList<Jogada>();
@@ -185,7 +296,7 @@ public class IAElaborada extends Maquina {
 			for (int camada = 1; camada <= ALCANCE_MAQUINA
 					&& atingiuTempoMaximo == false; camada++) {
 				try {
-					listaNos = criaCamada(listaNos);
+					listaNos = criaCamada(listaNos, tabuleiroBusca);
 					// Faça uma verificação de tempo para ver se deve rodar uma
 					// próxima camada
 					long fim = System.currentTimeMillis();
@@ -199,7 +310,7 @@ public class IAElaborada extends Maquina {
 			}
 
 			// Insiro os valores nos nós folhas
-			inserirValorFolhas(listaNos);
+			inserirValorFolhas(listaNos, tabuleiroBusca);
 
 			// Realizo a busca em profundidade (aplicando minimax e poda alfa
 			// beta)
@@ -258,4 +369,40 @@ public class IAElaborada extends Maquina {
 	public boolean isMAQUINAINTELIGENTE() {
 		return MAQUINA_INTELIGENTE;
 	}
+
+	public Avaliador getAvaliador() {
+		return avaliador;
+	}
+
+	public boolean isQuiescencia() {
+		return quiescencia;
+	}
+
+	/**
+	 * Liga ou desliga a busca de quiescência nos nós folhas (desligada por
+	 * padrão)
+	 * 
+	 * @param quiescencia
+	 */
+	public void setQuiescencia(boolean quiescencia) {
+		this.quiescencia = quiescencia;
+	}
+
+	/**
+	 * Nós visitados pela busca de quiescência na última jogada escolhida
+	 * 
+	 * @return
+	 */
+	public long getNosQuiescencia() {
+		return nosQuiescencia;
+	}
+
+	/**
+	 * @return A quantidade de linhas de execução que geram as camadas
+	 */
+	public int getTHREADS() {
+		if (THREADS > 0)
+			return THREADS;
+		return Runtime.getRuntime().availableProcessors();
+	}
 }
@@ -31,18 +31,17 @@ public class IARandomica extends Maquina {
 	 * @return
 	 */
 	public Jogada escolherJogada(TabuleiroXadrez tabuleiroAtual) {
-		// Criamos uma lista de estados possíveis
-		List<Estado> estadosPossiveis = null;
+		// Criamos uma lista de jogadas possíveis, sem gerar um tabuleiro para
+		// cada uma delas
+		List<Jogada> jogadasPossiveis = null;
 		try {
-			estadosPossiveis = tabuleiroAtual.getGeraEstado()
-					.proximosEstadosPossiveis(tabuleiroAtual, this.cor);
+			jogadasPossiveis = tabuleiroAtual.jogadasLegais(this.cor);
 		} catch (CasaOcupadaException | JogadaInvalidaException e) {
 			return null;
 		}
 		Random random = new Random();
-		if (!estadosPossiveis.isEmpty()) {
-			return estadosPossiveis
-					.get(random.nextInt(estadosPossiveis.size())).getJogada();
+		if (!jogadasPossiveis.isEmpty()) {
+			return jogadasPossiveis.get(random.nextInt(jogadasPossiveis.size()));
 		}
 		// Não há recomendação
 		return null;
@@ -1,10 +1,15 @@
 package br.edu.ifes.poo1.cln.cdp.ia;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.Jogada;
 import br.edu.ifes.poo1.cln.cdp.JogadaInvalidaException;
+import br.edu.ifes.poo1.cln.cdp.RegistroJogada;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 
 public class NoArvore {
@@ -68,28 +73,70 @@ public class NoArvore {
 	}
 
 	/**
-	 * Construtor de nó
+	 * Construtor de nó. O nó guarda apenas a jogada que o gerou; o tabuleiro
+	 * é reconstruído, quando necessário, refazendo as jogadas desde a raiz.
+	 * O nó ainda não é ligado ao pai: isso é feito por
+	 * {@link #adicionarFilhos(List)}, depois que todos os irmãos forem
+	 * criados.
 	 * 
 	 * @param noPai
-	 * @param valor
+	 * @param jogada
+	 *            Jogada que leva do nó pai a este nó.
+	 * @param tabuleiro
+	 *            Tabuleiro com a jogada já feita. Não é guardado pelo nó.
 	 * @throws CasaOcupadaException
 	 * @throws JogadaInvalidaException
 	 */
-	public NoArvore(NoArvore noPai, Estado estado) throws CasaOcupadaException,
-			JogadaInvalidaException {
+	public NoArvore(NoArvore noPai, Jogada jogada, TabuleiroXadrez tabuleiro)
+			throws CasaOcupadaException, JogadaInvalidaException {
 		this.noPai = noPai;
-		noPai.addFilho(this);
 		this.temValor = false;
 		this.insereListaAdjacencia(noPai);
-		this.posicaoListaAdjacencia = this.getNoPai().getListaAdjacencia()
-				.size();
 		this.marcado = false;
 		this.cor = TipoCorJogador.getCorOposta(noPai.getCorNo());
 		this.nivel = coloqueNivel();
 		this.podou = false;
-		this.estado = estado;
-		this.xequeMate = estado.getTabuleiro().verificarXequeMate(
-				TipoCorJogador.getCorOposta(noPai.getCorNo()));
+		this.estado = new Estado(jogada, null);
+		this.xequeMate = tabuleiro.verificarXequeMate(TipoCorJogador
+				.getCorOposta(noPai.getCorNo()));
+	}
+
+	/**
+	 * Refaz, sobre o tabuleiro da raiz, as jogadas que levam até este nó.
+	 * 
+	 * @param tabuleiro
+	 *            Tabuleiro no estado do nó raiz.
+	 * @return Os registros das jogadas feitas, para que sejam desfeitas com
+	 *         {@link #desfazerCaminho(TabuleiroXadrez, Deque)}.
+	 * @throws CasaOcupadaException
+	 * @throws JogadaInvalidaException
+	 */
+	public Deque<RegistroJogada> aplicarCaminho(TabuleiroXadrez tabuleiro)
+			throws CasaOcupadaException, JogadaInvalidaException {
+		// Empilha os nós do caminho, deste até o filho da raiz
+		Deque<NoArvore> caminho = new ArrayDeque<NoArvore>();
+		for (NoArvore no = this; no.temNoPai(); no = no.getNoPai())
+			caminho.push(no);
+
+		// Faz as jogadas a partir da raiz
+		Deque<RegistroJogada> registros = new ArrayDeque<RegistroJogada>();
+		for (NoArvore no : caminho)
+			registros.push(tabuleiro.fazerJogada(no.getEstado().getJogada(), no
+					.getNoPai().getCorNo()));
+		return registros;
+	}
+
+	/**
+	 * Desfaz as jogadas feitas por {@link #aplicarCaminho(TabuleiroXadrez)},
+	 * voltando o tabuleiro ao estado do nó raiz.
+	 * 
+	 * @param tabuleiro
+	 * @param registros
+	 */
+	public static void desfazerCaminho(TabuleiroXadrez tabuleiro,
+			Deque<RegistroJogada> registros) {
+		while (!registros.isEmpty())
+			tabuleiro.desfazerJogada(registros.pop());
 	}
 
 	/**
@@ -187,6 +234,23 @@ public class NoArvore {
 		this.insereListaAdjacencia(no);
 	}
 
+	/**
+	 * Liga ao nó, de uma só vez, os filhos gerados a partir dele. Cada nó tem
+	 * os seus filhos gerados por uma única linha de execução (ver
+	 * {@link GeraCamada}), que monta a lista de filhos à parte e só então
+	 * chama este método; assim, a lista de adjacência de um nó nunca é
+	 * alterada por duas linhas de execução.
+	 * 
+	 * @param filhos
+	 *            Nós criados com este nó como pai, na ordem das jogadas.
+	 */
+	public void adicionarFilhos(List<NoArvore> filhos) {
+		for (NoArvore filho : filhos) {
+			this.addFilho(filho);
+			filho.posicaoListaAdjacencia = this.getListaAdjacencia().size();
+		}
+	}
+
 	/**
 	 * Verifica se o nó possui irmãos
 	 * 
@@ -211,6 +275,15 @@ public class NoArvore {
 		return this.listaAdjacencia;
 	}
 
+	/**
+	 * Recupera a posição do nó na lista de adjacência do pai
+	 * 
+	 * @return
+	 */
+	public int getPosicaoListaAdjacencia() {
+		return this.posicaoListaAdjacencia;
+	}
+
 	/**
 	 * Insere um nó na lista de adjacência de outro nó
 	 * 
@@ -0,0 +1,307 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import br.edu.ifes.poo1.cln.cdp.CodigoJogada;
+import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogada;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+/**
+ * Decide a ordem em que a busca olha as jogadas de um nó. Quanto antes a
+ * melhor jogada for olhada, mais ramos a poda alfa-beta corta. A ordem é:
+ *
+ * <ol>
+ * <li>a jogada guardada na tabela de transposição para a posição;</li>
+ * <li>as capturas e promoções que não perdem material na troca (ver
+ * {@link TabuleiroXadrez#avaliarTroca(int)}), da vítima mais valiosa para a
+ * menos valiosa e, entre as de mesma vítima, do atacante menos valioso para o
+ * mais valioso (MVV-LVA, com os valores de {@link TipoPeca#getValor()});</li>
+ * <li>as duas últimas jogadas tranquilas que causaram poda na mesma distância
+ * da raiz (jogadas "assassinas");</li>
+ * <li>as demais jogadas tranquilas, pela quantidade de podas que já causaram
+ * em toda a busca (histórico), pesada pela profundidade;</li>
+ * <li>as capturas que perdem material na troca, também em MVV-LVA.</li>
+ * </ol>
+ *
+ * A troca só é avaliada se a busca resolver as capturas nas folhas (busca de
+ * quiescência). Sem ela, a recaptura que faz a captura perder material pode
+ * ficar além da profundidade da busca, e a captura, posta por último, seria
+ * justamente a melhor jogada do nó. Nesse caso todas as capturas ficam em
+ * MVV-LVA antes das jogadas tranquilas.
+ *
+ * As jogadas recebem um valor de ordenação e são escolhidas uma a uma, a de
+ * maior valor primeiro. Como a maioria dos nós é podada nas primeiras
+ * jogadas, a ordem das demais quase nunca precisa ser decidida.
+ */
+public class OrdenacaoJogadas {
+
+	/** Valor da jogada da tabela de transposição. */
+	private static final int VALOR_TABELA = 1 << 30;
+
+	/** Valor base das capturas e promoções. */
+	private static final int VALOR_CAPTURA = 1 << 24;
+
+	/** Valor da primeira jogada assassina. A segunda vale um a menos. */
+	private static final int VALOR_ASSASSINA = VALOR_CAPTURA - 1;
+
+	/** Maior valor do histórico, abaixo das jogadas assassinas. */
+	private static final int MAXIMO_HISTORICO = VALOR_ASSASSINA - 2;
+
+	/** Jogadas assassinas guardadas em cada distância da raiz. */
+	private final int[][] assassinas;
+
+	/** Podas causadas por cada jogada tranquila. Por cor, origem e destino. */
+	private final int[][][] historico = new int[2][64][64];
+
+	/**
+	 * Prepara a ordenação para uma busca.
+	 *
+	 * @param distanciaMaxima
+	 *            Maior distância da raiz que a busca alcança.
+	 */
+	public OrdenacaoJogadas(int distanciaMaxima) {
+		assassinas = new int[distanciaMaxima][2];
+	}
+
+	/**
+	 * Dá um valor de ordenação a cada jogada.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro do nó, antes das jogadas.
+	 * @param cor
+	 *            Cor de quem joga.
+	 * @param jogadas
+	 *            Códigos das jogadas (ver {@link CodigoJogada}).
+	 * @param valores
+	 *            Onde são escritos os valores, na mesma ordem das jogadas.
+	 * @param quantidade
+	 *            Quantidade de jogadas.
+	 * @param jogadaTabela
+	 *            Jogada da tabela de transposição. Ou
+	 *            {@link CodigoJogada#NENHUMA}.
+	 * @param distanciaRaiz
+	 *            Meias-jogadas feitas desde a raiz.
+	 * @param avaliarTrocas
+	 *            Se as capturas que perdem material na troca devem ir para o
+	 *            fim. Só vale a pena quando a busca resolve as capturas nas
+	 *            folhas.
+	 */
+	public void pontuar(TabuleiroXadrez tabuleiro, TipoCorJogador cor,
+			int[] jogadas, int[] valores, int quantidade, int jogadaTabela,
+			int distanciaRaiz, boolean avaliarTrocas) {
+		int[] assassinasNivel = assassinas[distanciaRaiz];
+		int[][] historicoCor = historico[cor.ordinal()];
+		for (int i = 0; i < quantidade; i++) {
+			int jogada = jogadas[i];
+			if (jogada == jogadaTabela)
+				valores[i] = VALOR_TABELA;
+			else if (CodigoJogada.ehCaptura(jogada)
+					|| CodigoJogada.ehPromocao(jogada))
+				valores[i] = (avaliarTrocas
+						&& perdeMaterial(tabuleiro, jogada) ? -VALOR_CAPTURA
+						: VALOR_CAPTURA) + valorCaptura(tabuleiro, jogada);
+			else if (jogada == assassinasNivel[0])
+				valores[i] = VALOR_ASSASSINA;
+			else if (jogada == assassinasNivel[1])
+				valores[i] = VALOR_ASSASSINA - 1;
+			else
+				valores[i] = historicoCor[CodigoJogada.origem(jogada)][CodigoJogada
+						.destino(jogada)];
+		}
+	}
+
+	/**
+	 * Mantém somente as capturas e promoções, dando a cada uma o seu valor
+	 * MVV-LVA. As demais jogadas são descartadas.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro do nó, antes das jogadas.
+	 * @param jogadas
+	 *            Códigos das jogadas. As capturas e promoções são movidas
+	 *            para o início do vetor.
+	 * @param valores
+	 *            Onde são escritos os valores, na mesma ordem das jogadas
+	 *            mantidas.
+	 * @param quantidade
+	 *            Quantidade de jogadas.
+	 * @return A quantidade de jogadas mantidas.
+	 */
+	public static int pontuarCapturas(TabuleiroXadrez tabuleiro,
+			int[] jogadas, int[] valores, int quantidade) {
+		int capturas = 0;
+		for (int i = 0; i < quantidade; i++) {
+			int jogada = jogadas[i];
+			if (CodigoJogada.ehCaptura(jogada)
+					|| CodigoJogada.ehPromocao(jogada)) {
+				jogadas[capturas] = jogada;
+				valores[capturas] = valorCaptura(tabuleiro, jogada);
+				capturas++;
+			}
+		}
+		return capturas;
+	}
+
+	/**
+	 * Tipo da peça capturada pela jogada.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro antes da jogada.
+	 * @param jogada
+	 *            Código da jogada.
+	 * @return O tipo da peça capturada. Ou 'null', se a jogada não for uma
+	 *         captura.
+	 */
+	public static TipoPeca vitima(TabuleiroXadrez tabuleiro, int jogada) {
+		TipoJogada tipo = CodigoJogada.tipo(jogada);
+		if (tipo == TipoJogada.EN_PASSANT_ESQUERDA
+				|| tipo == TipoJogada.EN_PASSANT_DIREITA)
+			return TipoPeca.PEAO;
+		if (tipo == TipoJogada.ATACAR)
+			return tabuleiro.tipoPeca(CodigoJogada.destino(jogada));
+		return null;
+	}
+
+	/**
+	 * Indica se a captura perde material na troca que ela inicia. Só é
+	 * preciso avaliar a troca quando o atacante vale mais que a vítima: se
+	 * não, mesmo perdendo o atacante, quem captura não perde material.
+	 *
+	 * @param tabuleiro
+	 *            Tabuleiro antes da jogada.
+	 * @param jogada
+	 *            Código da captura ou promoção.
+	 * @return Se a troca perde material.
+	 */
+	public static boolean perdeMaterial(TabuleiroXadrez tabuleiro, int jogada) {
+		TipoPeca tipoVitima = vitima(tabuleiro, jogada);
+		int vitima = tipoVitima == null ? 0 : tipoVitima.getValor();
+		if (!CodigoJogada.ehPromocao(jogada)
+				&& vitima >= tabuleiro.tipoPeca(CodigoJogada.origem(jogada))
+						.getValor())
+			return false;
+		return tabuleiro.avaliarTroca(jogada) < 0;
+	}
+
+	/**
+	 * Valor MVV-LVA da captura: a vítima pesa mais que o atacante. A promoção
+	 * conta como a captura de uma rainha.
+	 */
+	private static int valorCaptura(TabuleiroXadrez tabuleiro, int jogada) {
+		TipoPeca tipoVitima = vitima(tabuleiro, jogada);
+		int vitima = tipoVitima == null ? 0 : tipoVitima.getValor();
+		if (CodigoJogada.ehPromocao(jogada))
+			vitima += TipoPeca.RAINHA.getValor();
+		int atacante = tabuleiro.tipoPeca(CodigoJogada.origem(jogada))
+				.getValor();
+		return vitima * 16 - atacante;
+	}
+
+	/**
+	 * Escolhe a jogada de maior valor entre as que ainda não foram olhadas e
+	 * a coloca na posição indicada, trocando-a de lugar com a que estava lá.
+	 *
+	 * @param jogadas
+	 *            Códigos das jogadas.
+	 * @param valores
+	 *            Valores de ordenação, na mesma ordem das jogadas.
+	 * @param inicio
+	 *            Posição da próxima jogada a ser olhada. As anteriores já
+	 *            foram olhadas.
+	 * @param quantidade
+	 *            Quantidade de jogadas.
+	 * @return A jogada escolhida.
+	 */
+	public static int escolher(int[] jogadas, int[] valores, int inicio,
+			int quantidade) {
+		int melhor = inicio;
+		for (int i = inicio + 1; i < quantidade; i++)
+			if (valores[i] > valores[melhor])
+				melhor = i;
+		if (melhor != inicio) {
+			int jogada = jogadas[melhor];
+			jogadas[melhor] = jogadas[inicio];
+			jogadas[inicio] = jogada;
+			int valor = valores[melhor];
+			valores[melhor] = valores[inicio];
+			valores[inicio] = valor;
+		}
+		return jogadas[inicio];
+	}
+
+	/**
+	 * Ordena todas as jogadas, da de maior valor para a de menor valor.
+	 * Jogadas de mesmo valor mantêm a ordem em que estavam.
+	 *
+	 * @param jogadas
+	 *            Códigos das jogadas.
+	 * @param valores
+	 *            Valores de ordenação, na mesma ordem das jogadas.
+	 * @param quantidade
+	 *            Quantidade de jogadas.
+	 */
+	public static void ordenar(int[] jogadas, int[] valores, int quantidade) {
+		// Inserção: as listas são curtas, e a ordem dos empates é mantida
+		for (int i = 1; i < quantidade; i++) {
+			int jogada = jogadas[i];
+			int valor = valores[i];
+			int j = i - 1;
+			for (; j >= 0 && valores[j] < valor; j--) {
+				jogadas[j + 1] = jogadas[j];
+				valores[j + 1] = valores[j];
+			}
+			jogadas[j + 1] = jogada;
+			valores[j + 1] = valor;
+		}
+	}
+
+	/**
+	 * @param jogada
+	 *            Código da jogada.
+	 * @param distanciaRaiz
+	 *            Meias-jogadas feitas desde a raiz até o nó.
+	 * @return Se a jogada é uma das jogadas assassinas da distância indicada.
+	 */
+	public boolean ehAssassina(int jogada, int distanciaRaiz) {
+		int[] assassinasNivel = assassinas[distanciaRaiz];
+		return jogada == assassinasNivel[0] || jogada == assassinasNivel[1];
+	}
+
+	/**
+	 * Registra a jogada que causou uma poda. As capturas e promoções já são
+	 * olhadas cedo e não são registradas.
+	 *
+	 * @param jogada
+	 *            Código da jogada.
+	 * @param cor
+	 *            Cor de quem fez a jogada.
+	 * @param profundidade
+	 *            Meias-jogadas que ainda faltavam olhar no nó.
+	 * @param distanciaRaiz
+	 *            Meias-jogadas feitas desde a raiz até o nó.
+	 */
+	public void registrarPoda(int jogada, TipoCorJogador cor,
+			int profundidade, int distanciaRaiz) {
+		if (CodigoJogada.ehCaptura(jogada) || CodigoJogada.ehPromocao(jogada))
+			return;
+		int[] assassinasNivel = assassinas[distanciaRaiz];
+		if (assassinasNivel[0] != jogada) {
+			assassinasNivel[1] = assassinasNivel[0];
+			assassinasNivel[0] = jogada;
+		}
+		int[] historicoOrigem = historico[cor.ordinal()][CodigoJogada
+				.origem(jogada)];
+		int destino = CodigoJogada.destino(jogada);
+		historicoOrigem[destino] += profundidade * profundidade;
+		// Se o histórico crescer demais, todos os valores são reduzidos à
+		// metade, mantendo a proporção entre eles
+		if (historicoOrigem[destino] > MAXIMO_HISTORICO)
+			reduzirHistorico();
+	}
+
+	private void reduzirHistorico() {
+		for (int[][] historicoCor : historico)
+			for (int[] historicoOrigem : historicoCor)
+				for (int destino = 0; destino < 64; destino++)
+					historicoOrigem[destino] /= 2;
+	}
+}
@@ -0,0 +1,156 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+/**
+ * Guarda os valores dos termos de avaliação que dependem somente dos peões,
+ * indexados pela chave Zobrist dos peões (ver
+ * {@link br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez#getChavePeoes()}). Os peões
+ * mudam pouco de uma posição da busca para outra, então a maioria das
+ * estruturas já foi avaliada antes.
+ *
+ * Cada entrada guarda, do ponto de vista das brancas, os valores de abertura e
+ * de final da estrutura de peões (dobrados, isolados e atrasados) e dos peões
+ * passados. A tabela tem tamanho fixo, uma potência de dois, e cada estrutura
+ * tem uma única entrada possível, sempre substituída. Como na
+ * {@link TabelaTransposicao}, a chave é guardada misturada com os dados.
+ *
+ * Os contadores de acertos e falhas não são sincronizados: com várias linhas
+ * de execução, servem apenas como estimativa.
+ */
+public class TabelaPeoes {
+
+	/* Valores guardados em cada entrada. */
+	/** Estrutura de peões, na abertura. */
+	public static final int ESTRUTURA_ABERTURA = 0;
+	/** Estrutura de peões, no final. */
+	public static final int ESTRUTURA_FIM = 1;
+	/** Peões passados, na abertura. */
+	public static final int PASSADOS_ABERTURA = 2;
+	/** Peões passados, no final. */
+	public static final int PASSADOS_FIM = 3;
+
+	/** Bytes ocupados por cada entrada: chave e dois pares de valores. */
+	private static final int BYTES_ENTRADA = 24;
+
+	/** Chave de cada entrada, misturada com os seus valores. */
+	private final long[] chaves;
+
+	/** Valores de abertura e de final da estrutura de cada entrada. */
+	private final long[] estrutura;
+
+	/** Valores de abertura e de final dos peões passados de cada entrada. */
+	private final long[] passados;
+
+	/** Máscara que escolhe a entrada a partir da chave. */
+	private final long mascara;
+
+	/** Consultas que encontraram a estrutura. */
+	private long acertos;
+
+	/** Consultas que não encontraram a estrutura. */
+	private long falhas;
+
+	/**
+	 * Cria uma tabela que ocupa no máximo a memória indicada.
+	 *
+	 * @param megabytes
+	 *            Memória da tabela, em megabytes.
+	 */
+	public TabelaPeoes(int megabytes) {
+		long entradas = Long.highestOneBit(Math.max(1, megabytes * 1024L
+				* 1024L / BYTES_ENTRADA));
+		entradas = Math.min(entradas, 1 << 30);
+		chaves = new long[(int) entradas];
+		estrutura = new long[(int) entradas];
+		passados = new long[(int) entradas];
+		mascara = entradas - 1;
+	}
+
+	/**
+	 * Procura a estrutura de peões na tabela.
+	 *
+	 * @param chave
+	 *            Chave Zobrist dos peões.
+	 * @return O índice da entrada da estrutura, para ser lido com
+	 *         {@link #getValor(int, int)}. Ou -1, se a estrutura não estiver na
+	 *         tabela.
+	 */
+	public int consultar(long chave) {
+		int indice = (int) (chave & mascara);
+		if ((chaves[indice] ^ estrutura[indice] ^ passados[indice]) == chave) {
+			acertos++;
+			return indice;
+		}
+		falhas++;
+		return -1;
+	}
+
+	/**
+	 * Guarda os valores de uma estrutura de peões, do ponto de vista das
+	 * brancas.
+	 *
+	 * @param chave
+	 *            Chave Zobrist dos peões.
+	 * @param estruturaAbertura
+	 * @param estruturaFim
+	 * @param passadosAbertura
+	 * @param passadosFim
+	 * @return O índice da entrada onde os valores foram guardados.
+	 */
+	public int guardar(long chave, int estruturaAbertura, int estruturaFim,
+			int passadosAbertura, int passadosFim) {
+		int indice = (int) (chave & mascara);
+		long novaEstrutura = par(estruturaAbertura, estruturaFim);
+		long novosPassados = par(passadosAbertura, passadosFim);
+		estrutura[indice] = novaEstrutura;
+		passados[indice] = novosPassados;
+		chaves[indice] = chave ^ novaEstrutura ^ novosPassados;
+		return indice;
+	}
+
+	/**
+	 * Apaga todas as entradas e zera os contadores.
+	 */
+	public void limpar() {
+		for (int indice = 0; indice < chaves.length; indice++) {
+			chaves[indice] = 0L;
+			estrutura[indice] = 0L;
+			passados[indice] = 0L;
+		}
+		acertos = 0;
+		falhas = 0;
+	}
+
+	/**
+	 * @param indice
+	 *            Índice da entrada.
+	 * @param valor
+	 *            ESTRUTURA_ABERTURA, ESTRUTURA_FIM, PASSADOS_ABERTURA ou
+	 *            PASSADOS_FIM.
+	 * @return O valor guardado na entrada.
+	 */
+	public int getValor(int indice, int valor) {
+		long dados = valor < PASSADOS_ABERTURA ? estrutura[indice]
+				: passados[indice];
+		return (valor & 1) == 0 ? (int) (dados >> 32) : (int) dados;
+	}
+
+	/** @return A quantidade de consultas que encontraram a estrutura. */
+	public long getAcertos() {
+		return acertos;
+	}
+
+	/** @return A quantidade de consultas que não encontraram a estrutura. */
+	public long getFalhas() {
+		return falhas;
+	}
+
+	/** @return A quantidade de entradas da tabela. */
+	public int getTamanho() {
+		return chaves.length;
+	}
+
+	/** Junta os valores de abertura e de final num só número. */
+	private static long par(int abertura, int fim) {
+		return ((long) abertura << 32) | (fim & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,173 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+import br.edu.ifes.poo1.cln.cdp.CodigoJogada;
+
+/**
+ * Guarda o resultado das posições já avaliadas pela busca, indexadas pela sua
+ * chave Zobrist, para que uma posição alcançada por outra ordem de jogadas não
+ * precise ser avaliada de novo.
+ * 
+ * A tabela tem tamanho fixo, uma potência de dois, e é dividida em grupos de
+ * duas entradas. A primeira entrada de cada grupo guarda a avaliação mais
+ * profunda (ou a da busca atual, se a guardada for de uma busca anterior); a
+ * segunda é sempre substituída. Assim, as avaliações caras não são perdidas
+ * para as rasas, e as rasas ainda têm onde ficar.
+ * 
+ * Cada entrada guarda a chave misturada (ou-exclusivo) com os dados, de forma
+ * que uma entrada escrita pela metade por outra linha de execução é
+ * reconhecida e ignorada.
+ */
+public class TabelaTransposicao {
+
+	/* Tipos de valor guardado. */
+	/** O valor é exato. */
+	public static final int EXATO = 0;
+	/** O valor real é maior ou igual ao guardado (houve poda). */
+	public static final int LIMITE_INFERIOR = 1;
+	/** O valor real é menor ou igual ao guardado (nenhuma jogada o superou). */
+	public static final int LIMITE_SUPERIOR = 2;
+
+	/** Bytes ocupados por cada entrada: chave, dados e código da jogada. */
+	private static final int BYTES_ENTRADA = 20;
+
+	/** Entradas por grupo. */
+	private static final int ENTRADAS_GRUPO = 2;
+
+	/** Chave de cada entrada, misturada com os seus dados. */
+	private final long[] chaves;
+
+	/** Valor, profundidade, tipo e busca de cada entrada, num só número. */
+	private final long[] dados;
+
+	/**
+	 * Código da melhor jogada de cada entrada (ver {@link CodigoJogada}). Ou
+	 * {@link CodigoJogada#NENHUMA}, se não houver.
+	 */
+	private final int[] jogadas;
+
+	/** Máscara que escolhe o grupo a partir da chave. */
+	private final long mascara;
+
+	/** Número da busca atual, usado para reconhecer entradas antigas. */
+	private int busca;
+
+	/**
+	 * Cria uma tabela que ocupa no máximo a memória indicada.
+	 * 
+	 * @param megabytes
+	 *            Memória da tabela, em megabytes.
+	 */
+	public TabelaTransposicao(int megabytes) {
+		long entradas = Long.highestOneBit(Math.max(ENTRADAS_GRUPO,
+				megabytes * 1024L * 1024L / BYTES_ENTRADA));
+		entradas = Math.min(entradas, 1 << 30);
+		chaves = new long[(int) entradas];
+		dados = new long[(int) entradas];
+		jogadas = new int[(int) entradas];
+		mascara = entradas / ENTRADAS_GRUPO - 1;
+	}
+
+	/**
+	 * Marca o início de uma nova busca. As entradas das buscas anteriores
+	 * continuam válidas, mas passam a ser substituídas primeiro.
+	 */
+	public void novaBusca() {
+		busca = (busca + 1) & 0xFF;
+	}
+
+	/**
+	 * Procura a posição na tabela.
+	 * 
+	 * @param chave
+	 *            Chave Zobrist da posição.
+	 * @return O índice da entrada da posição, para ser lido com os métodos
+	 *         get*. Ou -1, se a posição não estiver na tabela.
+	 */
+	public int consultar(long chave) {
+		int primeira = (int) (chave & mascara) * ENTRADAS_GRUPO;
+		for (int indice = primeira; indice < primeira + ENTRADAS_GRUPO; indice++)
+			if ((chaves[indice] ^ dados[indice]) == chave)
+				return indice;
+		return -1;
+	}
+
+	/**
+	 * Guarda o resultado da avaliação de uma posição.
+	 * 
+	 * @param chave
+	 *            Chave Zobrist da posição.
+	 * @param profundidade
+	 *            Meias-jogadas que foram olhadas a partir da posição.
+	 * @param valor
+	 *            Valor da posição.
+	 * @param tipo
+	 *            EXATO, LIMITE_INFERIOR ou LIMITE_SUPERIOR.
+	 * @param jogada
+	 *            Código da melhor jogada encontrada. Ou
+	 *            {@link CodigoJogada#NENHUMA}, se não houver.
+	 */
+	public void guardar(long chave, int profundidade, int valor, int tipo,
+			int jogada) {
+		int indice = (int) (chave & mascara) * ENTRADAS_GRUPO;
+		long dadosAtuais = dados[indice];
+		// A primeira entrada só é substituída por uma avaliação tão profunda
+		// quanto a sua, pela mesma posição ou se for de uma busca anterior
+		if ((chaves[indice] ^ dadosAtuais) != chave
+				&& profundidade < profundidade(dadosAtuais)
+				&& busca(dadosAtuais) == busca)
+			indice++;
+		// Mantém a melhor jogada já conhecida da posição
+		if (jogada == CodigoJogada.NENHUMA && (chaves[indice] ^ dados[indice]) == chave)
+			jogada = jogadas[indice];
+		long novosDados = (valor & 0xFFFFFFFFL)
+				| ((long) (profundidade & 0xFF) << 32)
+				| ((long) tipo << 40) | ((long) busca << 42);
+		jogadas[indice] = jogada;
+		dados[indice] = novosDados;
+		chaves[indice] = chave ^ novosDados;
+	}
+
+	/**
+	 * Apaga todas as entradas.
+	 */
+	public void limpar() {
+		for (int indice = 0; indice < chaves.length; indice++) {
+			chaves[indice] = 0L;
+			dados[indice] = 0L;
+			jogadas[indice] = CodigoJogada.NENHUMA;
+		}
+	}
+
+	/** @return O valor guardado na entrada. */
+	public int getValor(int indice) {
+		return (int) dados[indice];
+	}
+
+	/** @return A profundidade guardada na entrada. */
+	public int getProfundidade(int indice) {
+		return profundidade(dados[indice]);
+	}
+
+	/** @return O tipo de valor guardado na entrada. */
+	public int getTipo(int indice) {
+		return (int) (dados[indice] >>> 40) & 3;
+	}
+
+	/** @return O código da melhor jogada guardada na entrada. */
+	public int getJogada(int indice) {
+		return jogadas[indice];
+	}
+
+	/** @return A quantidade de entradas da tabela. */
+	public int getTamanho() {
+		return chaves.length;
+	}
+
+	private static int profundidade(long dados) {
+		return (int) (dados >>> 32) & 0xFF;
+	}
+
+	private static int busca(long dados) {
+		return (int) (dados >>> 42) & 0xFF;
+	}
+}
@@ -0,0 +1,17 @@
+package br.edu.ifes.poo1.cln.cdp.ia;
+
+/**
+ * Termos somados pelo {@link AvaliadorPadrao}.
+ */
+public enum TipoTermoAvaliacao {
+	/** Material e casa de cada peça. */
+	MATERIAL,
+	/** Casas alcançadas pelas peças. */
+	MOBILIDADE,
+	/** Peões dobrados, isolados e atrasados. */
+	ESTRUTURA_PEOES,
+	/** Peões na frente do rei e ataques às casas vizinhas a ele. */
+	SEGURANCA_REI,
+	/** Peões sem peões inimigos à frente. */
+	PEOES_PASSADOS;
+}
@@ -2,6 +2,8 @@ package br.edu.ifes.poo1.cln.cdp.pecas;
 
 import br.edu.ifes.poo1.cln.cdp.Posicao;
 import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
+import br.edu.ifes.poo1.cln.cdp.bitboard.TabelaAtaques;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
 
@@ -22,16 +24,15 @@ public class Cavalo extends Peca {
 	@Override
 	protected boolean podeSeMover(Posicao origem, Posicao destino,
 			TabuleiroXadrez tabuleiro) {
+		// Consulta a tabela de ataques do cavalo
 		if (super.podeSeMover(origem, destino, tabuleiro))
-			if (this.medeDeslocamentoPeca(origem.getLinha(), destino.getLinha()) == 1
-					& this.medeDeslocamentoPeca(origem.getColuna(),
-							destino.getColuna()) == 2
-					| this.medeDeslocamentoPeca(origem.getLinha(),
-							destino.getLinha()) == 2
-					& this.medeDeslocamentoPeca(origem.getColuna(),
-							destino.getColuna()) == 1)
-				return true;
+			return (TabelaAtaques.CAVALO[Bitboard.casa(origem)] & Bitboard
+					.mascara(Bitboard.casa(destino))) != 0L;
 		return false;
 	}
 
+	@Override
+	protected long casasAlvo(Posicao origem, TabuleiroXadrez tabuleiro) {
+		return TabelaAtaques.CAVALO[Bitboard.casa(origem)];
+	}
 }
@@ -3,6 +3,8 @@ package br.edu.ifes.poo1.cln.cdp.pecas;
 import br.edu.ifes.poo1.cln.cdp.Jogada;
 import br.edu.ifes.poo1.cln.cdp.Posicao;
 import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
+import br.edu.ifes.poo1.cln.cdp.bitboard.TabelaAtaques;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
 
@@ -102,4 +104,17 @@ public class Peao extends Peca {
 		this.podeEnPassant = podeEnPassant;
 	}
 
-}
\ No newline at end of file
+	@Override
+	protected long casasAlvo(Posicao origem, TabuleiroXadrez tabuleiro) {
+		int casa = Bitboard.casa(origem);
+		long peao = Bitboard.mascara(casa);
+		// As duas casas à frente, além das capturas da tabela de ataques
+		long frente;
+		if (this.getCorJogador() == TipoCorJogador.BRANCO)
+			frente = (peao << 8) | (peao << 16);
+		else
+			frente = (peao >>> 8) | (peao >>> 16);
+		return TabelaAtaques.PEAO[this.getCorJogador().ordinal()][casa]
+				| frente;
+	}
+}
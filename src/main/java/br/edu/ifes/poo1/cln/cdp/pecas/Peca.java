@@ -5,9 +5,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import br.edu.ifes.poo1.cln.cdp.CasaOcupadaException;
+import br.edu.ifes.poo1.cln.cdp.CodigoJogada;
 import br.edu.ifes.poo1.cln.cdp.Jogada;
 import br.edu.ifes.poo1.cln.cdp.Posicao;
 import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogada;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
@@ -129,6 +131,22 @@ public abstract class Peca implements Comparable<Peca>, Cloneable, Serializable
 		return (Math.abs(posicaoOcupada - posicaoDesejada));
 	}
 
+	/**
+	 * Casas que a peça pode vir a alcançar a partir da origem, desconsiderando
+	 * as demais peças do tabuleiro. Somente essas casas são testadas ao gerar
+	 * as jogadas da peça. Cada peça sobrescreve este método com as suas
+	 * tabelas de ataque; por padrão, todas as casas são candidatas.
+	 * 
+	 * @param origem
+	 *            Posição atual da peça.
+	 * @param tabuleiro
+	 *            Tabuleiro em que a peça está.
+	 * @return Bitboard com as casas candidatas.
+	 */
+	protected long casasAlvo(Posicao origem, TabuleiroXadrez tabuleiro) {
+		return ~0L;
+	}
+
 	/**
 	 * Gera uma lista com todas as jogadas que uma peça pode realizar
 	 * 
@@ -139,43 +157,71 @@ public abstract class Peca implements Comparable<Peca>, Cloneable, Serializable
 	 */
 	public List<Jogada> jogadasPeca(Posicao posicaoOrigem,
 			TabuleiroXadrez tabuleiro) throws CasaOcupadaException {
-		List<Jogada> listaJogadas = new ArrayList<Jogada>();
-		// Caminhando pelo tabuleiro
-		for (int coluna = TabuleiroXadrez.COLUNAINFERIOR; coluna <= TabuleiroXadrez.COLUNASUPERIOR; coluna++)
-			for (int linha = TabuleiroXadrez.LINHAINFERIOR; linha <= TabuleiroXadrez.LINHASUPERIOR; linha++) {
-				// Se a peça puder se movimentar para uma posição
-				if (this.podeAndar(posicaoOrigem, new Posicao(coluna, linha),
-						tabuleiro) == true
-						&& tabuleiro.estaVazio(new Posicao(coluna, linha)))
-					if (tabuleiro.ehPromocao(posicaoOrigem))
-						listaJogadas.add(new Jogada(posicaoOrigem, new Posicao(
-								coluna, linha), TipoJogada.ANDAR,
-								TipoPeca.RAINHA));
-					else
-						listaJogadas.add(new Jogada(posicaoOrigem, new Posicao(
-								coluna, linha), TipoJogada.ANDAR));
-				// Se a peça puder atacar uma posição
-				if (this.podeAtacar(posicaoOrigem, new Posicao(coluna, linha),
-						tabuleiro) == true
-						&& tabuleiro.estaInimigo(this.getCorJogador(),
-								new Posicao(coluna, linha)))
-					if (tabuleiro.ehPromocao(posicaoOrigem))
-						listaJogadas.add(new Jogada(posicaoOrigem, new Posicao(
-								coluna, linha), TipoJogada.ATACAR,
-								TipoPeca.RAINHA));
-					else
-						listaJogadas.add(new Jogada(posicaoOrigem, new Posicao(
-								coluna, linha), TipoJogada.ATACAR));
+		int[] codigos = new int[CodigoJogada.MAXIMO_JOGADAS];
+		int quantidade = jogadasPeca(Bitboard.casa(posicaoOrigem), tabuleiro,
+				codigos, 0);
+		List<Jogada> listaJogadas = new ArrayList<Jogada>(quantidade);
+		for (int i = 0; i < quantidade; i++)
+			listaJogadas.add(CodigoJogada.paraJogada(codigos[i]));
+		return listaJogadas;
+	}
+
+	/**
+	 * Gera os códigos de todas as jogadas que a peça pode realizar (ver
+	 * {@link CodigoJogada}), escrevendo-os no vetor a partir da quantidade já
+	 * preenchida. Não cria objetos de jogada, para ser usado pela busca.
+	 * 
+	 * @param casaOrigem
+	 *            Casa da peça (de 0 a 63).
+	 * @param tabuleiro
+	 *            Tabuleiro em que a peça está.
+	 * @param jogadas
+	 *            Vetor onde os códigos são escritos.
+	 * @param quantidade
+	 *            Quantidade de códigos já presentes no vetor.
+	 * @return A nova quantidade de códigos no vetor.
+	 * @throws CasaOcupadaException
+	 */
+	public int jogadasPeca(int casaOrigem, TabuleiroXadrez tabuleiro,
+			int[] jogadas, int quantidade) throws CasaOcupadaException {
+		Posicao posicaoOrigem = Bitboard.posicao(casaOrigem);
+		// A promoção depende apenas da origem
+		boolean promocao = tabuleiro.ehPromocao(posicaoOrigem);
+		// Percorrendo somente as casas que a peça alcança
+		for (long alvos = casasAlvo(posicaoOrigem, tabuleiro); alvos != 0L; alvos &= alvos - 1) {
+			int casaDestino = Bitboard.primeiraCasa(alvos);
+			Posicao destino = Bitboard.posicao(casaDestino);
+			TipoJogada tipo;
+			// Se a peça puder se movimentar para uma posição
+			if (tabuleiro.estaVazio(destino)) {
+				if (!this.podeAndar(posicaoOrigem, destino, tabuleiro))
+					continue;
+				tipo = TipoJogada.ANDAR;
 			}
+			// Se a peça puder atacar uma posição
+			else if (tabuleiro.estaInimigo(this.getCorJogador(), destino)
+					&& this.podeAtacar(posicaoOrigem, destino, tabuleiro))
+				tipo = TipoJogada.ATACAR;
+			else
+				continue;
+			if (promocao)
+				jogadas[quantidade++] = CodigoJogada.codificar(casaOrigem,
+						casaDestino, tipo, TipoPeca.RAINHA);
+			else
+				jogadas[quantidade++] = CodigoJogada.codificar(casaOrigem,
+						casaDestino, tipo);
+		}
+		// O peão que captura en passant vai para a linha seguinte
+		int avanco = this.getCorJogador() == TipoCorJogador.BRANCO ? 8 : -8;
 		// Se puder En Passant a esquerda
 		if (tabuleiro.ehEnPassantEsquerda(posicaoOrigem))
-			listaJogadas.add(new Jogada(posicaoOrigem,
-					TipoJogada.EN_PASSANT_ESQUERDA));
+			jogadas[quantidade++] = CodigoJogada.codificar(casaOrigem,
+					casaOrigem + avanco - 1, TipoJogada.EN_PASSANT_ESQUERDA);
 		// Se puder En Passant a direita
 		if (tabuleiro.ehEnPassantDireita(posicaoOrigem))
-			listaJogadas.add(new Jogada(posicaoOrigem,
-					TipoJogada.EN_PASSANT_DIREITA));
-		return listaJogadas;
+			jogadas[quantidade++] = CodigoJogada.codificar(casaOrigem,
+					casaOrigem + avanco + 1, TipoJogada.EN_PASSANT_DIREITA);
+		return quantidade;
 	}
 
 	/**
@@ -234,6 +280,17 @@ public abstract class Peca implements Comparable<Peca>, Cloneable, Serializable
 		this.jaMoveu = true;
 	}
 
+	/**
+	 * Restaura a indicação de que a peça já se moveu. Usado ao desfazer uma
+	 * jogada feita sobre o tabuleiro.
+	 * 
+	 * @param jaMoveu
+	 *            Valor anterior do atributo.
+	 */
+	public void setJaMoveu(boolean jaMoveu) {
+		this.jaMoveu = jaMoveu;
+	}
+
 	public int compareTo(Peca outra) {
 		if (this.getValor() > outra.getValor()) {
 			return 1;
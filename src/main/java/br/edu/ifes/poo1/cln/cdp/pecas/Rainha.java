@@ -2,6 +2,8 @@ package br.edu.ifes.poo1.cln.cdp.pecas;
 
 import br.edu.ifes.poo1.cln.cdp.Posicao;
 import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.bitboard.AtaquesDeslizantes;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
 
@@ -22,15 +24,16 @@ public class Rainha extends Peca {
 	@Override
 	protected boolean podeSeMover(Posicao origem, Posicao destino,
 			TabuleiroXadrez tabuleiro) {
-		if (super.podeSeMover(origem, destino, tabuleiro)
-				&& tabuleiro.podeRealizarMovimentacao(origem, destino)) {
-			if ((this.medeDeslocamentoPeca(origem.getLinha(),
-					destino.getLinha()) > 0)
-					|| (this.medeDeslocamentoPeca(origem.getColuna(),
-							destino.getColuna()) > 0)) {
-				return true;
-			}
-		}
+		// Consulta os ataques da rainha, já considerando as peças no caminho
+		if (super.podeSeMover(origem, destino, tabuleiro))
+			return (casasAlvo(origem, tabuleiro) & Bitboard.mascara(Bitboard
+					.casa(destino))) != 0L;
 		return false;
 	}
-}
\ No newline at end of file
+
+	@Override
+	protected long casasAlvo(Posicao origem, TabuleiroXadrez tabuleiro) {
+		return AtaquesDeslizantes.rainha(Bitboard.casa(origem),
+				tabuleiro.getOcupacao());
+	}
+}
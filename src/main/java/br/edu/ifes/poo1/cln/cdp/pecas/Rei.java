@@ -2,6 +2,8 @@ package br.edu.ifes.poo1.cln.cdp.pecas;
 
 import br.edu.ifes.poo1.cln.cdp.Posicao;
 import br.edu.ifes.poo1.cln.cdp.TabuleiroXadrez;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
+import br.edu.ifes.poo1.cln.cdp.bitboard.TabelaAtaques;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
 
@@ -24,16 +26,16 @@ public class Rei extends Peca {
 	public boolean podeSeMover(Posicao origem, Posicao destino,
 			TabuleiroXadrez tabuleiro) {
 		
-		// Verifica o movimento natural do rei.
-		if (super.podeSeMover(origem, destino, tabuleiro)
-				&& tabuleiro.podeRealizarMovimentacao(origem, destino))
-			if ((this.medeDeslocamentoPeca(origem.getLinha(),
-					destino.getLinha()) > 1)
-					|| (this.medeDeslocamentoPeca(origem.getColuna(),
-							destino.getColuna()) > 1))
-				return false;
-			else
-				return true;
+		// Verifica o movimento natural do rei, pela tabela de ataques. Como
+		// o rei anda uma casa só, não há caminho a ser verificado.
+		if (super.podeSeMover(origem, destino, tabuleiro))
+			return (TabelaAtaques.REI[Bitboard.casa(origem)] & Bitboard
+					.mascara(Bitboard.casa(destino))) != 0L;
 		return false;
 	}
-}
\ No newline at end of file
+
+	@Override
+	protected long casasAlvo(Posicao origem, TabuleiroXadrez tabuleiro) {
+		return TabelaAtaques.REI[Bitboard.casa(origem)];
+	}
+}
@@ -1,7 +1,7 @@
 package br.edu.ifes.poo1.cln.cdp.tipos;
 
 public enum TipoJogador {
-	PESSOA, IAELABORADA, IARANDOMICA;
+	PESSOA, IAELABORADA, IARANDOMICA, IAALFABETA;
 
 	public String toString() {
 		switch (this) {
@@ -11,6 +11,8 @@ public enum TipoJogador {
 			return "IAELABORADA";
 		case IARANDOMICA:
 			return "IARANDOMICA";
+		case IAALFABETA:
+			return "IAALFABETA";
 		default:
 			return null;
 		}
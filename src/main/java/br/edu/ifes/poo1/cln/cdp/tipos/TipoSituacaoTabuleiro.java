@@ -0,0 +1,18 @@
+package br.edu.ifes.poo1.cln.cdp.tipos;
+
+/**
+ * Enumera as situações em que o jogador da vez pode se encontrar no tabuleiro.
+ */
+public enum TipoSituacaoTabuleiro {
+	/** O rei não está em xeque e há jogadas legais. */
+	NORMAL,
+
+	/** O rei está em xeque, mas há jogadas que o tiram do xeque. */
+	XEQUE,
+
+	/** O rei está em xeque e não há jogadas legais. */
+	XEQUE_MATE,
+
+	/** O rei não está em xeque, mas não há jogadas legais. */
+	AFOGADO;
+}
@@ -206,7 +206,8 @@ public class AplJogo implements Serializable {
 
 		// Se o jogador for uma máquina, realize a modificação da promoção
 		if (this.getJogadorTurnoAtual().getTipoJogador() == TipoJogador.IAELABORADA
-				|| this.getJogadorTurnoAtual().getTipoJogador() == TipoJogador.IARANDOMICA)
+				|| this.getJogadorTurnoAtual().getTipoJogador() == TipoJogador.IARANDOMICA
+				|| this.getJogadorTurnoAtual().getTipoJogador() == TipoJogador.IAALFABETA)
 			modificarMaquinaPromocao(jogada);
 
 		// Reseta as propriedades que controlam o en passant.
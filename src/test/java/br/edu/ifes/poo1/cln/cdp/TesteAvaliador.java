@@ -0,0 +1,218 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import br.edu.ifes.poo1.cln.cdp.ia.AvaliadorPadrao;
+import br.edu.ifes.poo1.cln.cdp.ia.IAElaborada;
+import br.edu.ifes.poo1.cln.cdp.ia.TabelaPeoes;
+import br.edu.ifes.poo1.cln.cdp.ia.TipoTermoAvaliacao;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+public class TesteAvaliador {
+
+	private static final String[] POSICOES = {
+			NotacaoFen.POSICAO_INICIAL,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"4k3/3p4/2P5/8/8/1P6/PP6/4K3 w - - 0 1" };
+
+	private final AvaliadorPadrao avaliador = new AvaliadorPadrao();
+
+	@Test
+	public void simetria() throws Exception {
+		for (String fen : POSICOES) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TabuleiroXadrez espelhado = NotacaoFen.lerTabuleiro(espelhar(fen));
+			for (TipoTermoAvaliacao termo : TipoTermoAvaliacao.values()) {
+				int valor = avaliador.avaliar(tabuleiro, TipoCorJogador.BRANCO,
+						termo);
+				// Cada termo é visto pelo oponente com o sinal trocado...
+				Assert.assertEquals(fen + " " + termo, -valor, avaliador
+						.avaliar(tabuleiro, TipoCorJogador.PRETO, termo));
+				// ...e é o mesmo na posição espelhada, com as cores trocadas
+				Assert.assertEquals(fen + " " + termo, valor, avaliador
+						.avaliar(espelhado, TipoCorJogador.PRETO, termo));
+			}
+		}
+	}
+
+	@Test
+	public void somaDosTermos() throws Exception {
+		for (String fen : POSICOES) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			int soma = 0;
+			for (TipoTermoAvaliacao termo : TipoTermoAvaliacao.values())
+				soma += avaliador.avaliar(tabuleiro, TipoCorJogador.BRANCO,
+						termo);
+			Assert.assertEquals(soma,
+					avaliador.avaliar(tabuleiro, TipoCorJogador.BRANCO));
+			Assert.assertEquals(tabuleiro
+					.valorPosicional(TipoCorJogador.BRANCO),
+					new AvaliadorPadrao(TipoTermoAvaliacao.MATERIAL).avaliar(
+							tabuleiro, TipoCorJogador.BRANCO));
+		}
+	}
+
+	@Test
+	public void peoes() throws Exception {
+		// Peão passado, tanto mais valioso quanto mais avançado
+		int passado = termo("4k3/8/8/8/3P4/8/8/4K3 w - - 0 1",
+				TipoTermoAvaliacao.PEOES_PASSADOS);
+		Assert.assertTrue(passado > 0);
+		Assert.assertTrue(termo("4k3/8/3P4/8/8/8/8/4K3 w - - 0 1",
+				TipoTermoAvaliacao.PEOES_PASSADOS) > passado);
+		// Um peão inimigo na coluna vizinha, à frente, impede. E o peão
+		// inimigo também não é passado.
+		Assert.assertEquals(0, termo("4k3/4p3/8/8/3P4/8/8/4K3 w - - 0 1",
+				TipoTermoAvaliacao.PEOES_PASSADOS));
+
+		// Peões dobrados e isolados são piores que peões unidos
+		int unidos = termo("4k3/8/8/8/8/8/PP6/4K3 w - - 0 1",
+				TipoTermoAvaliacao.ESTRUTURA_PEOES);
+		Assert.assertEquals(0, unidos);
+		Assert.assertTrue(termo("4k3/8/8/8/8/P7/P7/4K3 w - - 0 1",
+				TipoTermoAvaliacao.ESTRUTURA_PEOES) < termo(
+				"4k3/8/8/8/8/8/P7/4K3 w - - 0 1",
+				TipoTermoAvaliacao.ESTRUTURA_PEOES));
+		Assert.assertTrue(termo("4k3/8/8/8/8/8/P1P5/4K3 w - - 0 1",
+				TipoTermoAvaliacao.ESTRUTURA_PEOES) < unidos);
+		// Peão atrasado: sem apoio e com a casa da frente atacada
+		Assert.assertTrue(termo("4k3/8/8/8/2p5/P7/1P6/4K3 w - - 0 1",
+				TipoTermoAvaliacao.ESTRUTURA_PEOES) < termo(
+				"4k3/8/8/8/2p5/8/PP6/4K3 w - - 0 1",
+				TipoTermoAvaliacao.ESTRUTURA_PEOES));
+	}
+
+	@Test
+	public void segurancaRei() throws Exception {
+		// Peões na frente do rei o protegem
+		Assert.assertTrue(termo("r5k1/8/8/8/8/8/5PPP/6K1 w - - 0 1",
+				TipoTermoAvaliacao.SEGURANCA_REI) > termo(
+				"r5k1/8/8/8/8/8/PPP5/6K1 w - - 0 1",
+				TipoTermoAvaliacao.SEGURANCA_REI));
+		// Peças inimigas atacando as casas vizinhas ao rei o ameaçam
+		Assert.assertTrue(termo("6k1/8/8/8/8/5q2/5PPP/6K1 w - - 0 1",
+				TipoTermoAvaliacao.SEGURANCA_REI) < termo(
+				"q5k1/8/8/8/8/8/5PPP/6K1 w - - 0 1",
+				TipoTermoAvaliacao.SEGURANCA_REI));
+	}
+
+	@Test
+	public void mobilidade() throws Exception {
+		// O cavalo no centro alcança mais casas que no canto
+		Assert.assertTrue(termo("4k3/8/8/8/3N4/8/8/4K3 w - - 0 1",
+				TipoTermoAvaliacao.MOBILIDADE) > termo(
+				"4k3/8/8/8/8/8/8/N3K3 w - - 0 1", TipoTermoAvaliacao.MOBILIDADE));
+	}
+
+	@Test
+	public void chavePeoes() throws Exception {
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(POSICOES[1]);
+		long chave = tabuleiro.getChavePeoes();
+		// Somente as jogadas que movem ou capturam peões mudam a chave
+		int mudaram = 0;
+		for (Jogada jogada : tabuleiro.jogadasLegais(TipoCorJogador.BRANCO)) {
+			long peoes = tabuleiro.getPecas(TipoPeca.PEAO,
+					TipoCorJogador.BRANCO)
+					| tabuleiro.getPecas(TipoPeca.PEAO, TipoCorJogador.PRETO);
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada,
+					TipoCorJogador.BRANCO);
+			long peoesDepois = tabuleiro.getPecas(TipoPeca.PEAO,
+					TipoCorJogador.BRANCO)
+					| tabuleiro.getPecas(TipoPeca.PEAO, TipoCorJogador.PRETO);
+			Assert.assertEquals(peoes == peoesDepois,
+					chave == tabuleiro.getChavePeoes());
+			Assert.assertEquals(tabuleiro.tabuleiroClonado().getChavePeoes(),
+					tabuleiro.getChavePeoes());
+			if (peoes != peoesDepois)
+				mudaram++;
+			tabuleiro.desfazerJogada(registro);
+			Assert.assertEquals(chave, tabuleiro.getChavePeoes());
+		}
+		Assert.assertTrue(mudaram > 0);
+	}
+
+	@Test
+	public void tabelaPeoes() throws Exception {
+		AvaliadorPadrao comTabela = new AvaliadorPadrao(1);
+		AvaliadorPadrao semTabela = new AvaliadorPadrao(0);
+		Assert.assertNull(semTabela.getTabelaPeoes());
+
+		// Os valores são os mesmos, consultando a tabela ou não
+		for (int vez = 0; vez < 2; vez++)
+			for (String fen : POSICOES) {
+				TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+				for (TipoCorJogador cor : TipoCorJogador.values())
+					Assert.assertEquals(semTabela.avaliar(tabuleiro, cor),
+							comTabela.avaliar(tabuleiro, cor));
+			}
+
+		// Na primeira vez, cada estrutura falha uma vez e as demais consultas
+		// acertam
+		TabelaPeoes tabela = comTabela.getTabelaPeoes();
+		Assert.assertEquals(POSICOES.length, tabela.getFalhas());
+		Assert.assertEquals(2 * 2 * 2 * POSICOES.length - POSICOES.length,
+				tabela.getAcertos());
+
+		tabela.limpar();
+		Assert.assertEquals(0, tabela.getAcertos());
+		Assert.assertEquals(-1, tabela.consultar(NotacaoFen.lerTabuleiro(
+				POSICOES[0]).getChavePeoes()));
+	}
+
+	@Test
+	public void tabelaPeoesValores() {
+		TabelaPeoes tabela = new TabelaPeoes(1);
+		int indice = tabela.guardar(12345L, -7, 30, 0, -120);
+		Assert.assertEquals(indice, tabela.consultar(12345L));
+		Assert.assertEquals(-7,
+				tabela.getValor(indice, TabelaPeoes.ESTRUTURA_ABERTURA));
+		Assert.assertEquals(30, tabela.getValor(indice, TabelaPeoes.ESTRUTURA_FIM));
+		Assert.assertEquals(0,
+				tabela.getValor(indice, TabelaPeoes.PASSADOS_ABERTURA));
+		Assert.assertEquals(-120,
+				tabela.getValor(indice, TabelaPeoes.PASSADOS_FIM));
+		// Outra chave na mesma entrada não é confundida
+		Assert.assertEquals(-1, tabela.consultar(12345L + tabela.getTamanho()));
+	}
+
+	@Test
+	public void iaElaboradaComAvaliador() throws Exception {
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("4k3/8/8/3q4/8/4N3/8/4K3 w - - 0 1");
+		IAElaborada ia = new IAElaborada("", TipoCorJogador.BRANCO, 1, 60,
+				true, 1, avaliador);
+
+		Jogada jogada = ia.escolherJogada(tabuleiro);
+		Assert.assertEquals("e3d5",
+				Perft.descrever(jogada, TipoCorJogador.BRANCO));
+	}
+
+	/** Valor do termo na posição, para as brancas. */
+	private int termo(String fen, TipoTermoAvaliacao termo)
+			throws ConstrucaoTabuleiroException {
+		return avaliador.avaliar(NotacaoFen.lerTabuleiro(fen),
+				TipoCorJogador.BRANCO, termo);
+	}
+
+	/**
+	 * Espelha as peças da posição de cima para baixo, trocando as cores. Os
+	 * demais campos da notação são descartados.
+	 */
+	private static String espelhar(String fen) {
+		String[] linhas = fen.split(" ")[0].split("/");
+		StringBuilder espelhada = new StringBuilder();
+		for (int linha = linhas.length - 1; linha >= 0; linha--) {
+			for (char c : linhas[linha].toCharArray())
+				espelhada.append(Character.isUpperCase(c) ? Character
+						.toLowerCase(c) : Character.toUpperCase(c));
+			if (linha > 0)
+				espelhada.append('/');
+		}
+		return espelhada + " b - - 0 1";
+	}
+}
@@ -0,0 +1,184 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.edu.ifes.poo1.cln.cdp.bitboard.AtaquesDeslizantes;
+import br.edu.ifes.poo1.cln.cdp.bitboard.Bitboard;
+import br.edu.ifes.poo1.cln.cdp.bitboard.TabelaAtaques;
+import br.edu.ifes.poo1.cln.cdp.pecas.Bispo;
+import br.edu.ifes.poo1.cln.cdp.pecas.Cavalo;
+import br.edu.ifes.poo1.cln.cdp.pecas.Peao;
+import br.edu.ifes.poo1.cln.cdp.pecas.Rainha;
+import br.edu.ifes.poo1.cln.cdp.pecas.Rei;
+import br.edu.ifes.poo1.cln.cdp.pecas.Torre;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogada;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+
+public class TesteBitboard {
+
+	TabuleiroXadrez tabuleiro;
+
+	@Before
+	public void before() {
+		tabuleiro = new TabuleiroXadrez();
+	}
+
+	@Test
+	public void bitboardsTabuleiroInicial() throws ConstrucaoTabuleiroException {
+		TabuleiroXadrez inicial = new TabuleiroXadrez(new Pessoa("Brancas",
+				TipoCorJogador.BRANCO), new Pessoa("Pretas",
+				TipoCorJogador.PRETO));
+
+		// As duas primeiras e as duas últimas linhas estão ocupadas.
+		Assert.assertEquals(0xFFFF00000000FFFFL, inicial.getOcupacao());
+		Assert.assertEquals(0xFFFFL,
+				inicial.getOcupacao(TipoCorJogador.BRANCO));
+		Assert.assertEquals(0xFF00L,
+				inicial.getPecas(TipoPeca.PEAO, TipoCorJogador.BRANCO));
+
+		// Os reis são encontrados nas casas iniciais.
+		Assert.assertEquals(new Posicao(5, 1),
+				inicial.encontrarRei(TipoCorJogador.BRANCO));
+		Assert.assertEquals(new Posicao(5, 8),
+				inicial.encontrarRei(TipoCorJogador.PRETO));
+	}
+
+	@Test
+	public void verificarXeque() throws CasaOcupadaException {
+		tabuleiro.colocarPeca(new Posicao(5, 1), new Rei(TipoCorJogador.BRANCO));
+		tabuleiro.colocarPeca(new Posicao(5, 8), new Rei(TipoCorJogador.PRETO));
+		tabuleiro.colocarPeca(new Posicao(1, 5), new Rainha(
+				TipoCorJogador.PRETO));
+
+		// A rainha ataca o rei branco pela diagonal.
+		assertXeque(true, false);
+
+		// Um peão bloqueia a diagonal.
+		tabuleiro.colocarPeca(new Posicao(3, 3), new Peao(
+				TipoCorJogador.BRANCO));
+		assertXeque(false, false);
+
+		// Um cavalo branco dá xeque no rei preto.
+		tabuleiro.colocarPeca(new Posicao(4, 6), new Cavalo(
+				TipoCorJogador.BRANCO));
+		assertXeque(false, true);
+
+		// O peão preto ataca a casa do rei branco.
+		tabuleiro.retirarPeca(new Posicao(4, 6));
+		tabuleiro.colocarPeca(new Posicao(6, 2), new Peao(
+				TipoCorJogador.PRETO));
+		assertXeque(true, false);
+
+		// O bispo branco ataca o rei preto de longe.
+		tabuleiro.retirarPeca(new Posicao(6, 2));
+		tabuleiro.colocarPeca(new Posicao(2, 5), new Bispo(
+				TipoCorJogador.BRANCO));
+		assertXeque(false, true);
+	}
+
+	@Test
+	public void validacaoPorBitboard() throws CasaOcupadaException {
+		tabuleiro.colocarPeca(new Posicao(5, 1), new Rei(TipoCorJogador.BRANCO));
+		tabuleiro.colocarPeca(new Posicao(5, 8), new Torre(
+				TipoCorJogador.PRETO));
+
+		// Andar na coluna da torre é uma jogada suicida, sair dela não é.
+		Assert.assertTrue(tabuleiro.jogadaSuicida(new Jogada(
+				new Posicao(5, 1), new Posicao(5, 2), TipoJogada.ANDAR),
+				TipoCorJogador.BRANCO));
+		Assert.assertFalse(tabuleiro.jogadaSuicida(new Jogada(new Posicao(5,
+				1), new Posicao(4, 2), TipoJogada.ANDAR),
+				TipoCorJogador.BRANCO));
+	}
+
+	@Test
+	public void tabelasAtaque() {
+		// Cavalo e rei no canto têm poucas casas
+		Assert.assertEquals(2, Bitboard.contar(TabelaAtaques.CAVALO[0]));
+		Assert.assertEquals(8, Bitboard.contar(TabelaAtaques.CAVALO[Bitboard
+				.casa(4, 4)]));
+		Assert.assertEquals(3, Bitboard.contar(TabelaAtaques.REI[63]));
+
+		// Peões atacam para frente, conforme a cor
+		Assert.assertEquals(
+				Bitboard.mascara(Bitboard.casa(1, 3))
+						| Bitboard.mascara(Bitboard.casa(3, 3)),
+				TabelaAtaques.PEAO[TipoCorJogador.BRANCO.ordinal()][Bitboard
+						.casa(2, 2)]);
+		Assert.assertEquals(Bitboard.mascara(Bitboard.casa(7, 1)),
+				TabelaAtaques.PEAO[TipoCorJogador.PRETO.ordinal()][Bitboard
+						.casa(8, 2)]);
+
+		// O raio é cortado no primeiro bloqueador, que é incluído
+		long bloqueador = Bitboard.mascara(Bitboard.casa(1, 4));
+		Assert.assertEquals(3, Bitboard.contar(TabelaAtaques.raio(
+				TabelaAtaques.NORTE, 0, bloqueador)));
+		Assert.assertEquals(7, Bitboard.contar(TabelaAtaques.raio(
+				TabelaAtaques.SUL, 63, bloqueador)));
+		Assert.assertEquals(14, Bitboard.contar(Bitboard.ataquesTorre(0, 0L)));
+	}
+
+	@Test
+	public void ataquesDeslizantes() {
+		// Os ataques por números mágicos coincidem com os obtidos pelos raios
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			int casa = random.nextInt(64);
+			long ocupacao = random.nextLong() & random.nextLong();
+			long torre = 0L;
+			long bispo = 0L;
+			for (int direcao = 0; direcao < 8; direcao++)
+				if (direcao == TabelaAtaques.NORTE
+						|| direcao == TabelaAtaques.SUL
+						|| direcao == TabelaAtaques.LESTE
+						|| direcao == TabelaAtaques.OESTE)
+					torre |= TabelaAtaques.raio(direcao, casa, ocupacao);
+				else
+					bispo |= TabelaAtaques.raio(direcao, casa, ocupacao);
+			Assert.assertEquals(torre, AtaquesDeslizantes.torre(casa, ocupacao));
+			Assert.assertEquals(bispo, AtaquesDeslizantes.bispo(casa, ocupacao));
+			Assert.assertEquals(torre | bispo,
+					AtaquesDeslizantes.rainha(casa, ocupacao));
+		}
+	}
+
+	@Test
+	public void ocupacaoMantidaPeloTabuleiro() throws Exception {
+		tabuleiro.colocarPeca(new Posicao(1, 1), new Torre(
+				TipoCorJogador.BRANCO));
+		tabuleiro.colocarPeca(new Posicao(8, 8), new Bispo(
+				TipoCorJogador.PRETO));
+		tabuleiro.retirarPeca(new Posicao(1, 1));
+		Assert.assertEquals(Bitboard.mascara(63), tabuleiro.getOcupacao());
+		Assert.assertEquals(0L, tabuleiro.getOcupacao(TipoCorJogador.BRANCO));
+
+		// Os bitboards são refeitos ao carregar um tabuleiro salvo
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream saida = new ObjectOutputStream(bytes);
+		saida.writeObject(tabuleiro);
+		saida.close();
+		TabuleiroXadrez carregado = (TabuleiroXadrez) new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		Assert.assertEquals(Bitboard.mascara(63), carregado.getOcupacao());
+	}
+
+	/**
+	 * Verifica o xeque dos dois reis.
+	 */
+	private void assertXeque(boolean xequeBranco, boolean xequePreto) {
+		Assert.assertEquals(xequeBranco,
+				tabuleiro.verificarXeque(TipoCorJogador.BRANCO));
+		Assert.assertEquals(xequePreto,
+				tabuleiro.verificarXeque(TipoCorJogador.PRETO));
+	}
+}
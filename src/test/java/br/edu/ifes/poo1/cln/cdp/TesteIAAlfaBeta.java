@@ -0,0 +1,460 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import br.edu.ifes.poo1.cln.cdp.ia.AvaliadorPadrao;
+import br.edu.ifes.poo1.cln.cdp.ia.BuscaAlfaBeta;
+import br.edu.ifes.poo1.cln.cdp.ia.BuscaQuiescencia;
+import br.edu.ifes.poo1.cln.cdp.ia.GerenciadorTempo;
+import br.edu.ifes.poo1.cln.cdp.ia.IAAlfaBeta;
+import br.edu.ifes.poo1.cln.cdp.ia.TabelaTransposicao;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+public class TesteIAAlfaBeta {
+
+	/** Tempo suficiente para as buscas dos testes nunca serem interrompidas. */
+	private static final long SEM_LIMITE = Long.MAX_VALUE / 2;
+
+	private static GerenciadorTempo semLimite() {
+		GerenciadorTempo tempo = new GerenciadorTempo(SEM_LIMITE);
+		tempo.iniciarJogada();
+		return tempo;
+	}
+
+	@Test
+	public void mateEmUm() throws Exception {
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+		IAAlfaBeta ia = new IAAlfaBeta("", TipoCorJogador.BRANCO, 3, 60);
+
+		Jogada jogada = ia.escolherJogada(tabuleiro);
+		Assert.assertEquals("a1a8",
+				Perft.descrever(jogada, TipoCorJogador.BRANCO));
+	}
+
+	@Test
+	public void capturaPecaIndefesa() throws Exception {
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("4k3/8/8/3q4/8/4N3/8/4K3 w - - 0 1");
+		IAAlfaBeta ia = new IAAlfaBeta("", TipoCorJogador.BRANCO, 2, 60);
+
+		Jogada jogada = ia.escolherJogada(tabuleiro);
+		Assert.assertEquals("e3d5",
+				Perft.descrever(jogada, TipoCorJogador.BRANCO));
+	}
+
+	@Test
+	public void semJogadas() throws Exception {
+		// O rei preto já está em xeque-mate
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+		IAAlfaBeta ia = new IAAlfaBeta("", TipoCorJogador.PRETO, 3, 60);
+
+		Assert.assertNull(ia.escolherJogada(tabuleiro));
+	}
+
+	@Test
+	public void mesmoValorQueMinimax() throws Exception {
+		String[] posicoes = {
+				"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+				"r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3" };
+		for (String fen : posicoes) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TipoCorJogador vez = NotacaoFen.lerVez(fen);
+			BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiro, semLimite());
+
+			busca.buscar(vez, 3);
+			Assert.assertEquals(fen, minimax(tabuleiro, vez, 3, 0),
+					busca.getValor());
+			// O tabuleiro volta ao estado original
+			Assert.assertEquals(NotacaoFen.lerTabuleiro(fen).toString(),
+					tabuleiro.toString());
+		}
+	}
+
+	@Test
+	public void aprofundamentoIterativo() throws Exception {
+		String fen = "r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3";
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiro, semLimite());
+		busca.buscar(TipoCorJogador.PRETO, 3);
+		int valorDireto = busca.getValor();
+
+		busca = new BuscaAlfaBeta(tabuleiro, semLimite());
+		Assert.assertNotNull(busca.aprofundar(TipoCorJogador.PRETO, 3));
+		Assert.assertEquals(3, busca.getProfundidadeAlcancada());
+		Assert.assertEquals(valorDireto, busca.getValor());
+	}
+
+	@Test
+	public void ordenacaoReduzNos() throws Exception {
+		String[] posicoes = {
+				"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10" };
+		for (String fen : posicoes) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TipoCorJogador vez = NotacaoFen.lerVez(fen);
+			BuscaAlfaBeta semOrdem = new BuscaAlfaBeta(tabuleiro, semLimite());
+			semOrdem.setOrdenarJogadas(false);
+			semOrdem.buscar(vez, 4);
+			BuscaAlfaBeta comOrdem = new BuscaAlfaBeta(tabuleiro, semLimite());
+			comOrdem.buscar(vez, 4);
+
+			// A ordem não muda o valor, somente os nós visitados
+			Assert.assertEquals(fen, semOrdem.getValor(), comOrdem.getValor());
+			Assert.assertTrue(fen, comOrdem.getNos() * 2 < semOrdem.getNos());
+
+			long[] nosPorNivel = comOrdem.getNosPorNivel();
+			Assert.assertEquals(5, nosPorNivel.length);
+			Assert.assertEquals(1, nosPorNivel[0]);
+			long soma = 0;
+			for (int nivel = 1; nivel < nosPorNivel.length; nivel++)
+				soma += nosPorNivel[nivel];
+			Assert.assertEquals(comOrdem.getNos(), soma);
+		}
+	}
+
+	@Test
+	public void quiescenciaEvitaRecaptura() throws Exception {
+		// A rainha captura o peão de d5, mas é recapturada pelo peão de e6
+		String fen = "4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1";
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		BuscaAlfaBeta semQuiescencia = new BuscaAlfaBeta(tabuleiro,
+				semLimite());
+		Jogada jogada = semQuiescencia.buscar(TipoCorJogador.BRANCO, 1);
+		Assert.assertEquals("d1d5",
+				Perft.descrever(jogada, TipoCorJogador.BRANCO));
+		Assert.assertEquals(0, semQuiescencia.getNosQuiescencia());
+
+		BuscaAlfaBeta comQuiescencia = new BuscaAlfaBeta(tabuleiro,
+				semLimite());
+		comQuiescencia.setQuiescencia(true);
+		jogada = comQuiescencia.buscar(TipoCorJogador.BRANCO, 1);
+		Assert.assertFalse("d1d5".equals(Perft.descrever(jogada,
+				TipoCorJogador.BRANCO)));
+		Assert.assertTrue(comQuiescencia.getNosQuiescencia() > 0);
+		Assert.assertEquals(NotacaoFen.lerTabuleiro(fen).toString(),
+				tabuleiro.toString());
+	}
+
+	@Test
+	public void quiescenciaLimitada() throws Exception {
+		String[] posicoes = {
+				"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10" };
+		for (String fen : posicoes) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TipoCorJogador vez = NotacaoFen.lerVez(fen);
+
+			// Com a janela inteira, o jogador da vez nunca fica com menos que
+			// a avaliação da posição
+			AvaliadorPadrao avaliador = new AvaliadorPadrao();
+			BuscaQuiescencia quiescencia = new BuscaQuiescencia(tabuleiro,
+					avaliador);
+			Assert.assertTrue(fen, quiescencia.buscar(vez,
+					-BuscaAlfaBeta.INFINITO, BuscaAlfaBeta.INFINITO, 0) >= avaliador
+					.avaliar(tabuleiro, vez));
+			Assert.assertEquals(NotacaoFen.lerTabuleiro(fen).toString(),
+					tabuleiro.toString());
+
+			// As capturas a partir das folhas não multiplicam os nós da busca
+			BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiro, semLimite());
+			busca.setQuiescencia(true);
+			busca.aprofundar(vez, 3);
+			Assert.assertTrue(fen + ": " + busca.getNos() + " nós na busca, "
+					+ busca.getNosQuiescencia() + " na quiescência",
+					busca.getNosQuiescencia() < 8 * busca.getNos());
+		}
+	}
+
+	@Test
+	public void quiescenciaDescartaTrocasPerdedoras() throws Exception {
+		String[] posicoes = {
+				"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10" };
+		for (String fen : posicoes) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TipoCorJogador vez = NotacaoFen.lerVez(fen);
+			AvaliadorPadrao avaliador = new AvaliadorPadrao();
+			BuscaQuiescencia todas = new BuscaQuiescencia(tabuleiro, avaliador);
+			todas.setPodaTrocas(false);
+			BuscaQuiescencia semPerdedoras = new BuscaQuiescencia(tabuleiro,
+					avaliador);
+			// Quiescência a partir de cada filho da raiz
+			for (Jogada jogada : tabuleiro.jogadasLegais(vez)) {
+				RegistroJogada registro = tabuleiro.fazerJogada(jogada, vez);
+				TipoCorJogador oposta = TipoCorJogador.getCorOposta(vez);
+				todas.buscar(oposta, -BuscaAlfaBeta.INFINITO,
+						BuscaAlfaBeta.INFINITO, 1);
+				Assert.assertTrue(semPerdedoras.buscar(oposta,
+						-BuscaAlfaBeta.INFINITO, BuscaAlfaBeta.INFINITO, 1) >= avaliador
+						.avaliar(tabuleiro, oposta));
+				tabuleiro.desfazerJogada(registro);
+			}
+			Assert.assertTrue(fen + ": " + todas.getNos()
+					+ " nós com todas as capturas, " + semPerdedoras.getNos()
+					+ " sem as perdedoras",
+					semPerdedoras.getNos() * 2 < todas.getNos());
+		}
+	}
+
+	@Test
+	public void jogadaNulaEReducao() throws Exception {
+		String[] posicoes = {
+				"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10" };
+		for (String fen : posicoes) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TipoCorJogador vez = NotacaoFen.lerVez(fen);
+			BuscaAlfaBeta completa = new BuscaAlfaBeta(tabuleiro, semLimite(),
+					new TabelaTransposicao(4));
+			completa.aprofundar(vez, 5);
+			BuscaAlfaBeta seletiva = new BuscaAlfaBeta(tabuleiro, semLimite(),
+					new TabelaTransposicao(4));
+			seletiva.setJogadaNula(true);
+			seletiva.setReducao(true);
+			Assert.assertNotNull(seletiva.aprofundar(vez, 5));
+
+			Assert.assertTrue(fen + ": " + completa.getNos()
+					+ " nós sem seleção, " + seletiva.getNos()
+					+ " com seleção", seletiva.getNos() < completa.getNos());
+			Assert.assertEquals(NotacaoFen.lerTabuleiro(fen).toString(),
+					tabuleiro.toString());
+		}
+
+		// Mesmo com a seleção, o mate é encontrado
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+		BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiro, semLimite(),
+				new TabelaTransposicao(1));
+		busca.setJogadaNula(true);
+		busca.setReducao(true);
+		Assert.assertNotNull(busca.aprofundar(TipoCorJogador.BRANCO, 5));
+		Assert.assertEquals(BuscaAlfaBeta.MATE - 3, busca.getValor());
+	}
+
+	@Test
+	public void jogadaNulaSomenteComPecas() throws Exception {
+		// Num final só com peões, a jogada nula nunca é tentada: a busca
+		// visita os mesmos nós
+		String fen = "8/8/p1k5/1p6/1P6/P1K5/8/8 w - - 0 1";
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		BuscaAlfaBeta semNula = new BuscaAlfaBeta(tabuleiro, semLimite());
+		semNula.buscar(TipoCorJogador.BRANCO, 6);
+		BuscaAlfaBeta comNula = new BuscaAlfaBeta(tabuleiro, semLimite());
+		comNula.setJogadaNula(true);
+		comNula.buscar(TipoCorJogador.BRANCO, 6);
+		Assert.assertEquals(semNula.getNos(), comNula.getNos());
+		Assert.assertEquals(semNula.getValor(), comNula.getValor());
+
+		// Com uma torre de cada lado, a jogada nula poda
+		fen = "8/8/p1k5/1p6/1P6/P1K5/8/r6R w - - 0 1";
+		tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		semNula = new BuscaAlfaBeta(tabuleiro, semLimite());
+		semNula.buscar(TipoCorJogador.BRANCO, 6);
+		comNula = new BuscaAlfaBeta(tabuleiro, semLimite());
+		comNula.setJogadaNula(true);
+		comNula.buscar(TipoCorJogador.BRANCO, 6);
+		Assert.assertTrue(comNula.getNos() < semNula.getNos());
+	}
+
+	@Test
+	public void janelasReduzidas() throws Exception {
+		String[] posicoes = {
+				"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10" };
+		for (String fen : posicoes) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TipoCorJogador vez = NotacaoFen.lerVez(fen);
+
+			// A janela nula nas demais jogadas não muda o valor, e visita
+			// menos nós
+			BuscaAlfaBeta inteira = new BuscaAlfaBeta(tabuleiro, semLimite());
+			inteira.buscar(vez, 5);
+			BuscaAlfaBeta reduzida = new BuscaAlfaBeta(tabuleiro, semLimite());
+			reduzida.setJanelasReduzidas(true);
+			reduzida.buscar(vez, 5);
+			Assert.assertEquals(fen, inteira.getValor(), reduzida.getValor());
+			Assert.assertTrue(fen + ": " + inteira.getNos()
+					+ " nós com a janela inteira, " + reduzida.getNos()
+					+ " com a janela nula", reduzida.getNos() < inteira.getNos());
+
+			// Nem a janela de aspiração, repetida quando o valor cai fora dela
+			inteira = new BuscaAlfaBeta(tabuleiro, semLimite());
+			inteira.setQuiescencia(true);
+			inteira.aprofundar(vez, 4);
+			reduzida = new BuscaAlfaBeta(tabuleiro, semLimite());
+			reduzida.setJanelasReduzidas(true);
+			reduzida.setQuiescencia(true);
+			reduzida.aprofundar(vez, 4);
+			Assert.assertEquals(fen, inteira.getValor(), reduzida.getValor());
+			Assert.assertEquals(NotacaoFen.lerTabuleiro(fen).toString(),
+					tabuleiro.toString());
+		}
+	}
+
+	@Test
+	public void variacaoPrincipal() throws Exception {
+		// Ta7 Rg8 Tb8 é mate
+		String fen = "7k/8/8/8/8/8/R7/1R4K1 w - - 0 1";
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiro, semLimite());
+		Jogada jogada = busca.aprofundar(TipoCorJogador.BRANCO, 5);
+		List<Jogada> variacao = busca.getVariacaoPrincipal();
+		Assert.assertEquals(3, variacao.size());
+		Assert.assertEquals(Perft.descrever(jogada, TipoCorJogador.BRANCO),
+				Perft.descrever(variacao.get(0), TipoCorJogador.BRANCO));
+
+		// As jogadas da variação são legais, alternando as cores, e levam ao
+		// mate
+		TipoCorJogador cor = TipoCorJogador.BRANCO;
+		for (Jogada esperada : variacao) {
+			String descricao = Perft.descrever(esperada, cor);
+			Jogada legal = null;
+			for (Jogada candidata : tabuleiro.jogadasLegais(cor))
+				if (Perft.descrever(candidata, cor).equals(descricao))
+					legal = candidata;
+			Assert.assertNotNull(descricao, legal);
+			tabuleiro.fazerJogada(legal, cor);
+			cor = TipoCorJogador.getCorOposta(cor);
+		}
+		Assert.assertTrue(tabuleiro.jogadasLegais(cor).isEmpty());
+
+		// A máquina guarda a variação da última jogada escolhida
+		IAAlfaBeta ia = new IAAlfaBeta("", TipoCorJogador.BRANCO, 5, 60);
+		jogada = ia.escolherJogada(NotacaoFen.lerTabuleiro(fen));
+		variacao = ia.getVariacaoPrincipal();
+		Assert.assertFalse(variacao.isEmpty());
+		Assert.assertEquals(Perft.descrever(jogada, TipoCorJogador.BRANCO),
+				Perft.descrever(variacao.get(0), TipoCorJogador.BRANCO));
+	}
+
+	@Test
+	public void paraQuandoTempoAcaba() throws Exception {
+		String fen = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		GerenciadorTempo tempo = new GerenciadorTempo(500);
+		tempo.iniciarJogada();
+		BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiro, tempo);
+
+		Jogada jogada = busca.aprofundar(TipoCorJogador.BRANCO, 30);
+		Assert.assertNotNull(jogada);
+		Assert.assertTrue(busca.getProfundidadeAlcancada() >= 1);
+		Assert.assertTrue(busca.getProfundidadeAlcancada() < 30);
+		Assert.assertTrue(tempo.getTempoGasto() < 1500);
+		Assert.assertEquals(NotacaoFen.lerTabuleiro(fen).toString(),
+				tabuleiro.toString());
+	}
+
+	@Test
+	public void orcamentoDoRelogio() {
+		// 60 s no relógio, sem incremento e até 10 s por jogada
+		GerenciadorTempo tempo = new GerenciadorTempo(60000, 0, 10000);
+		tempo.iniciarJogada();
+		Assert.assertEquals(2000, tempo.getOrcamento());
+		tempo.terminarJogada();
+		Assert.assertTrue(tempo.getTempoRestante() <= 60000);
+
+		// Com muito tempo no relógio, vale o tempo máximo da jogada
+		tempo = new GerenciadorTempo(3600000, 1000, 10000);
+		tempo.iniciarJogada();
+		Assert.assertEquals(10000, tempo.getOrcamento());
+	}
+
+	@Test
+	public void tabelaTransposicao() {
+		TabelaTransposicao tabela = new TabelaTransposicao(1);
+		Assert.assertEquals(Integer.bitCount(tabela.getTamanho()), 1);
+		Assert.assertTrue(tabela.getTamanho() * 24 <= 1024 * 1024);
+
+		long chave = 0x123456789ABCDEFL;
+		Assert.assertEquals(-1, tabela.consultar(chave));
+		tabela.guardar(chave, 5, -42, TabelaTransposicao.LIMITE_SUPERIOR,
+				CodigoJogada.NENHUMA);
+		int indice = tabela.consultar(chave);
+		Assert.assertEquals(5, tabela.getProfundidade(indice));
+		Assert.assertEquals(-42, tabela.getValor(indice));
+		Assert.assertEquals(TabelaTransposicao.LIMITE_SUPERIOR,
+				tabela.getTipo(indice));
+
+		// Uma posição rasa do mesmo grupo não substitui a profunda
+		long outraChave = chave + tabela.getTamanho();
+		tabela.guardar(outraChave, 1, 7, TabelaTransposicao.EXATO,
+				CodigoJogada.NENHUMA);
+		Assert.assertEquals(5, tabela.getProfundidade(tabela.consultar(chave)));
+		Assert.assertEquals(7, tabela.getValor(tabela.consultar(outraChave)));
+
+		// Numa nova busca, a entrada antiga pode ser substituída
+		tabela.novaBusca();
+		tabela.guardar(outraChave, 1, 8, TabelaTransposicao.EXATO,
+				CodigoJogada.NENHUMA);
+		Assert.assertEquals(-1, tabela.consultar(chave));
+		Assert.assertEquals(8, tabela.getValor(tabela.consultar(outraChave)));
+	}
+
+	@Test
+	public void buscaComTabela() throws Exception {
+		// O valor não muda com a tabela
+		String[] posicoes = {
+				"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+				"r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3" };
+		for (String fen : posicoes) {
+			TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+			TipoCorJogador vez = NotacaoFen.lerVez(fen);
+			BuscaAlfaBeta semTabela = new BuscaAlfaBeta(tabuleiro, semLimite());
+			semTabela.buscar(vez, 3);
+			BuscaAlfaBeta comTabela = new BuscaAlfaBeta(tabuleiro,
+					semLimite(), new TabelaTransposicao(1));
+			comTabela.buscar(vez, 3);
+			Assert.assertEquals(fen, semTabela.getValor(),
+					comTabela.getValor());
+		}
+
+		// O aprofundamento olha menos nós com a tabela
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL);
+		BuscaAlfaBeta semTabela = new BuscaAlfaBeta(tabuleiro, semLimite());
+		semTabela.aprofundar(TipoCorJogador.BRANCO, 4);
+		BuscaAlfaBeta comTabela = new BuscaAlfaBeta(tabuleiro, semLimite(),
+				new TabelaTransposicao(4));
+		comTabela.aprofundar(TipoCorJogador.BRANCO, 4);
+		Assert.assertTrue(semTabela.getNos() + " nós sem tabela, "
+				+ comTabela.getNos() + " com tabela",
+				comTabela.getNos() < semTabela.getNos());
+	}
+
+	@Test
+	public void mateEmDoisComTabela() throws Exception {
+		// Ta7 e, depois de Rg8, Tb8 é mate
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+		BuscaAlfaBeta busca = new BuscaAlfaBeta(tabuleiro, semLimite(),
+				new TabelaTransposicao(1));
+		Assert.assertNotNull(busca.aprofundar(TipoCorJogador.BRANCO, 5));
+		Assert.assertEquals(BuscaAlfaBeta.MATE - 3, busca.getValor());
+	}
+
+	/** Negamax sem poda, usado como referência. */
+	private int minimax(TabuleiroXadrez tabuleiro, TipoCorJogador cor,
+			int profundidade, int distanciaRaiz) throws Exception {
+		List<Jogada> jogadas = tabuleiro.jogadasLegais(cor);
+		if (jogadas.isEmpty())
+			return -BuscaAlfaBeta.MATE + distanciaRaiz;
+		if (profundidade == 0)
+			return tabuleiro.valorPosicional(cor);
+		int melhor = -BuscaAlfaBeta.INFINITO;
+		for (Jogada jogada : jogadas) {
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada, cor);
+			melhor = Math.max(
+					melhor,
+					-minimax(tabuleiro, TipoCorJogador.getCorOposta(cor),
+							profundidade - 1, distanciaRaiz + 1));
+			tabuleiro.desfazerJogada(registro);
+		}
+		return melhor;
+	}
+}
@@ -1,11 +1,20 @@
 package br.edu.ifes.poo1.cln.cdp;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import junit.framework.Assert;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import br.edu.ifes.poo1.cln.cdp.ia.Estado;
+import br.edu.ifes.poo1.cln.cdp.ia.GeraCamada;
 import br.edu.ifes.poo1.cln.cdp.ia.IAElaborada;
+import br.edu.ifes.poo1.cln.cdp.ia.NoArvore;
+import br.edu.ifes.poo1.cln.cdp.ia.TipoNivel;
 import br.edu.ifes.poo1.cln.cdp.pecas.Bispo;
 import br.edu.ifes.poo1.cln.cdp.pecas.Cavalo;
 import br.edu.ifes.poo1.cln.cdp.pecas.Peao;
@@ -80,4 +89,122 @@ public class TesteIAElaborada {
 		Assert.assertNotNull(ia.escolherJogada(tabuleiro));
 	}
 
+
+	@Test
+	public void geraCamadaEmParalelo() throws Exception {
+		// A camada gerada por várias linhas de execução é igual à gerada por
+		// uma só, com os nós na mesma ordem
+		List<NoArvore> sequencial = gerarCamadas(1, 3);
+		List<NoArvore> paralela = gerarCamadas(4, 3);
+		Assert.assertEquals(8902, sequencial.size());
+		Assert.assertEquals(sequencial.size(), paralela.size());
+		for (int indice = 0; indice < sequencial.size(); indice++)
+			Assert.assertEquals(
+					Perft.descrever(sequencial.get(indice).getEstado()
+							.getJogada(), TipoCorJogador.BRANCO),
+					Perft.descrever(paralela.get(indice).getEstado()
+							.getJogada(), TipoCorJogador.BRANCO));
+	}
+
+	@Test
+	public void escolherJogada_threads() throws Exception {
+		TabuleiroXadrez inicial = NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL);
+		IAElaborada umaThread = new IAElaborada("", TipoCorJogador.BRANCO, 2,
+				15, true, 1);
+		IAElaborada todas = new IAElaborada("", TipoCorJogador.BRANCO, 2, 15,
+				true);
+		Assert.assertEquals(1, umaThread.getTHREADS());
+		Assert.assertEquals(Runtime.getRuntime().availableProcessors(),
+				todas.getTHREADS());
+		Assert.assertNotNull(umaThread.escolherJogada(inicial));
+		Assert.assertNotNull(todas.escolherJogada(inicial));
+	}
+
+	@Test
+	public void geraCamadaEmParalelo_estresse() throws Exception {
+		TabuleiroXadrez inicial = NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL);
+
+		// Filhos de cada nó da segunda camada, gerados por uma só linha de
+		// execução
+		List<NoArvore> referencia = gerarCamadas(1, 2);
+		ForkJoinPool sequencial = new ForkJoinPool(1);
+		sequencial.invoke(new GeraCamada(0, referencia.size(), referencia,
+				inicial, new AtomicBoolean(false)));
+		sequencial.shutdown();
+
+		// A mesma camada, gerada muitas vezes por várias linhas de execução,
+		// deve ter sempre os mesmos filhos em cada nó, na mesma ordem
+		ForkJoinPool pool = new ForkJoinPool(8);
+		for (int repeticao = 0; repeticao < 10; repeticao++) {
+			List<NoArvore> camada = gerarCamadas(1, 2);
+			List<NoArvore> filhos = pool.invoke(new GeraCamada(0, camada
+					.size(), camada, inicial, new AtomicBoolean(false)));
+			Assert.assertEquals(8902, filhos.size());
+			for (int indice = 0; indice < camada.size(); indice++) {
+				List<NoArvore> esperados = referencia.get(indice)
+						.getListaAdjacencia();
+				NoArvore no = camada.get(indice);
+				Assert.assertEquals(esperados.size(), no.getListaAdjacencia()
+						.size());
+				for (int filho = 1; filho < esperados.size(); filho++) {
+					NoArvore esperado = esperados.get(filho);
+					NoArvore gerado = no.getListaAdjacencia().get(filho);
+					Assert.assertSame(no, gerado.getNoPai());
+					Assert.assertEquals(
+							esperado.getPosicaoListaAdjacencia(),
+							gerado.getPosicaoListaAdjacencia());
+					Assert.assertEquals(Perft.descrever(esperado.getEstado()
+							.getJogada(), TipoCorJogador.BRANCO), Perft
+							.descrever(gerado.getEstado().getJogada(),
+									TipoCorJogador.BRANCO));
+				}
+			}
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void quiescenciaNasFolhas() throws Exception {
+		// Com uma só camada, a rainha captura o peão de d5 sem ver que o peão
+		// de e6 a recaptura
+		String fen = "4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1";
+		IAElaborada semQuiescencia = new IAElaborada("",
+				TipoCorJogador.BRANCO, 1, 15, true);
+		Jogada jogada = semQuiescencia.escolherJogada(NotacaoFen
+				.lerTabuleiro(fen));
+		Assert.assertEquals("d1d5",
+				Perft.descrever(jogada, TipoCorJogador.BRANCO));
+
+		IAElaborada comQuiescencia = new IAElaborada("",
+				TipoCorJogador.BRANCO, 1, 15, true);
+		comQuiescencia.setQuiescencia(true);
+		for (int repeticao = 0; repeticao < 10; repeticao++) {
+			jogada = comQuiescencia.escolherJogada(NotacaoFen
+					.lerTabuleiro(fen));
+			Assert.assertFalse("d1d5".equals(Perft.descrever(jogada,
+					TipoCorJogador.BRANCO)));
+		}
+		Assert.assertTrue(comQuiescencia.getNosQuiescencia() > 0);
+	}
+
+	/**
+	 * Gera as camadas a partir da posição inicial, com a quantidade de linhas
+	 * de execução indicada.
+	 */
+	static List<NoArvore> gerarCamadas(int threads, int camadas)
+			throws Exception {
+		TabuleiroXadrez inicial = NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL);
+		List<NoArvore> listaNos = new ArrayList<NoArvore>();
+		listaNos.add(new NoArvore(TipoCorJogador.BRANCO, TipoNivel.MAX,
+				new Estado(null, inicial)));
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		for (int camada = 0; camada < camadas; camada++)
+			listaNos = pool.invoke(new GeraCamada(0, listaNos.size(),
+					listaNos, inicial, new AtomicBoolean(false)));
+		pool.shutdown();
+		return listaNos;
+	}
 }
@@ -0,0 +1,119 @@
+package br.edu.ifes.poo1.cln.cdp;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+
+/**
+ * Confere a geração de jogadas contra as contagens de referência de posições
+ * conhecidas. As posições escolhidas não dependem do que este jogo simplifica
+ * (roque através de casas atacadas e promoção para outras peças que não a
+ * rainha).
+ */
+public class TestePerft {
+
+	/** Posição 3 da lista de referência: en passant, xeques e cravadas. */
+	private static final String POSICAO_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+	/** Posição 6 da lista de referência: meio-jogo com todas as peças. */
+	private static final String POSICAO_6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+	@Test
+	public void posicaoInicial() throws Exception {
+		conferir(NotacaoFen.POSICAO_INICIAL, 20L, 400L, 8902L, 197281L);
+	}
+
+	@Test
+	public void posicao3() throws Exception {
+		conferir(POSICAO_3, 14L, 191L, 2812L, 43238L);
+	}
+
+	@Test
+	public void posicao6() throws Exception {
+		conferir(POSICAO_6, 46L, 2079L, 89890L);
+	}
+
+	@Test
+	public void geradorLegalIgualAoAnterior() throws Exception {
+		// O gerador com cravadas e xeques gera, em cada posição da árvore, as
+		// mesmas jogadas que fazer e desfazer cada jogada possível
+		String[] posicoes = {
+				NotacaoFen.POSICAO_INICIAL,
+				"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				POSICAO_3,
+				"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+				POSICAO_6,
+				// Xeque duplo, com o roque ainda permitido pelas regras
+				"4r2k/8/8/8/8/3n4/8/4K2R w K - 0 1" };
+		for (String fen : posicoes) {
+			long nos = comparar(NotacaoFen.lerTabuleiro(fen),
+					NotacaoFen.lerVez(fen), 3);
+			Assert.assertTrue(nos > 0);
+		}
+	}
+
+	/**
+	 * Compara os dois geradores em cada posição da árvore e devolve a
+	 * quantidade de posições comparadas.
+	 */
+	private long comparar(TabuleiroXadrez tabuleiro, TipoCorJogador vez,
+			int profundidade) throws Exception {
+		int[] anteriores = new int[CodigoJogada.MAXIMO_JOGADAS];
+		int[] legais = new int[CodigoJogada.MAXIMO_JOGADAS];
+		int quantidade = tabuleiro.jogadasLegais(vez, anteriores);
+		Assert.assertEquals(quantidade,
+				tabuleiro.gerarJogadasLegais(vez, legais));
+		Arrays.sort(anteriores, 0, quantidade);
+		Arrays.sort(legais, 0, quantidade);
+		for (int i = 0; i < quantidade; i++)
+			Assert.assertEquals(anteriores[i], legais[i]);
+
+		long nos = 1;
+		if (profundidade > 1)
+			for (int i = 0; i < quantidade; i++) {
+				RegistroJogada registro = tabuleiro.fazerJogada(legais[i], vez);
+				nos += comparar(tabuleiro, TipoCorJogador.getCorOposta(vez),
+						profundidade - 1);
+				tabuleiro.desfazerJogada(registro);
+			}
+		return nos;
+	}
+
+	@Test
+	public void tabuleiroInicialIgualAoFen() throws Exception {
+		TabuleiroXadrez inicial = new TabuleiroXadrez(new Pessoa("Brancas",
+				TipoCorJogador.BRANCO), new Pessoa("Pretas",
+				TipoCorJogador.PRETO));
+		Assert.assertEquals(inicial.estadoTabuleiro(), NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL).estadoTabuleiro());
+	}
+
+	@Test
+	public void dividir() throws Exception {
+		Perft perft = new Perft(NotacaoFen.POSICAO_INICIAL);
+		Map<String, Long> contagens = perft.dividir(3);
+		Assert.assertEquals(20, contagens.size());
+		Assert.assertEquals(Long.valueOf(600L), contagens.get("e2e4"));
+		Assert.assertEquals(Long.valueOf(440L), contagens.get("g1f3"));
+
+		long total = 0;
+		for (long contagem : contagens.values())
+			total += contagem;
+		Assert.assertEquals(8902L, total);
+	}
+
+	/**
+	 * Confere as contagens de cada profundidade, a partir de 1.
+	 */
+	private void conferir(String fen, long... esperado) throws Exception {
+		Perft perft = new Perft(fen);
+		for (int profundidade = 1; profundidade <= esperado.length; profundidade++)
+			Assert.assertEquals("perft(" + profundidade + "): " + fen,
+					esperado[profundidade - 1], perft.contar(profundidade));
+	}
+}
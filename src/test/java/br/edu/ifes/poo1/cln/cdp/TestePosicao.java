@@ -50,4 +50,30 @@ public class TestePosicao {
 		Assert.assertFalse(w1.equals(w2));
 		Assert.assertFalse(k1.equals(k2));
 	}
+
+	@Test
+	public void de_mesmaInstancia() {
+		// Dentro do tabuleiro, a mesma posição é sempre devolvida.
+		Assert.assertSame(Posicao.de(3, 5), Posicao.de(3, 5));
+		Assert.assertSame(Posicao.de(3, 5), Posicao.de(34));
+		Assert.assertEquals(new Posicao(3, 5), Posicao.de(3, 5));
+
+		// Fora do tabuleiro, a posição ainda é criada.
+		Posicao fora = Posicao.de(0, 9);
+		Assert.assertEquals(0, fora.getColuna());
+		Assert.assertEquals(9, fora.getLinha());
+	}
+
+	@Test
+	public void indiceEHashCode() {
+		for (int indice = 0; indice < 64; indice++) {
+			Posicao posicao = Posicao.de(indice);
+			Assert.assertEquals(indice, posicao.getIndice());
+			// Posições iguais têm o mesmo hashCode.
+			Posicao igual = new Posicao(posicao.getColuna(), posicao.getLinha());
+			Assert.assertEquals(posicao.hashCode(), igual.hashCode());
+		}
+		Assert.assertEquals(0, Posicao.de(1, 1).getIndice());
+		Assert.assertEquals(63, Posicao.de(8, 8).getIndice());
+	}
 }
@@ -1,16 +1,22 @@
 package br.edu.ifes.poo1.cln.cdp;
 
+import java.util.List;
+
 import junit.framework.Assert;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import br.edu.ifes.poo1.cln.cdp.bitboard.ValoresPosicionais;
 import br.edu.ifes.poo1.cln.cdp.pecas.Cavalo;
 import br.edu.ifes.poo1.cln.cdp.pecas.Peao;
 import br.edu.ifes.poo1.cln.cdp.pecas.Peca;
 import br.edu.ifes.poo1.cln.cdp.pecas.Rei;
 import br.edu.ifes.poo1.cln.cdp.pecas.Torre;
 import br.edu.ifes.poo1.cln.cdp.tipos.TipoCorJogador;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoJogada;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoPeca;
+import br.edu.ifes.poo1.cln.cdp.tipos.TipoSituacaoTabuleiro;
 
 public class TesteTabuleiro {
 
@@ -350,6 +356,31 @@ public class TesteTabuleiro {
 
 	}
 
+	@Test
+	public void situacao() throws Exception {
+		// Sem xeque, com jogadas
+		Assert.assertEquals(TipoSituacaoTabuleiro.NORMAL, NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL).situacao(
+						TipoCorJogador.BRANCO));
+		// Em xeque, mas o rei pode fugir
+		Assert.assertEquals(TipoSituacaoTabuleiro.XEQUE, NotacaoFen
+				.lerTabuleiro("7k/8/8/8/8/8/8/r3K3 w - - 0 1").situacao(
+						TipoCorJogador.BRANCO));
+		// Xeque-mate do corredor
+		TabuleiroXadrez mate = NotacaoFen
+				.lerTabuleiro("6rk/8/8/8/8/8/5PPP/r5K1 w - - 0 1");
+		Assert.assertEquals(TipoSituacaoTabuleiro.XEQUE_MATE,
+				mate.situacao(TipoCorJogador.BRANCO));
+		Assert.assertFalse(mate.temJogadaLegal(TipoCorJogador.BRANCO));
+		Assert.assertTrue(mate.temJogadaLegal(TipoCorJogador.PRETO));
+		// Afogado: sem xeque e sem jogadas, que também encerra a partida
+		TabuleiroXadrez afogado = NotacaoFen
+				.lerTabuleiro("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1");
+		Assert.assertEquals(TipoSituacaoTabuleiro.AFOGADO,
+				afogado.situacao(TipoCorJogador.PRETO));
+		Assert.assertTrue(afogado.verificarXequeMate(TipoCorJogador.PRETO));
+	}
+
 	@Test
 	public void valorTabuleiro() throws CasaOcupadaException {
 		// Testa valor tabuleiro conforme insere peças
@@ -375,4 +406,415 @@ public class TesteTabuleiro {
 				-102);
 	}
 
+	@Test
+	public void fazerDesfazerJogada() throws CasaOcupadaException,
+			JogadaInvalidaException {
+		tabuleiro.colocarPeca(new Posicao(5, 1), reiBranco);
+		tabuleiro.colocarPeca(new Posicao(8, 1), torreBranca);
+		tabuleiro.colocarPeca(new Posicao(5, 8), reiPreto);
+		tabuleiro.colocarPeca(new Posicao(2, 2), peaoBranco);
+		tabuleiro.colocarPeca(new Posicao(3, 3), cavaloPreto);
+		tabuleiro.colocarPeca(new Posicao(1, 7), new Peao(
+				TipoCorJogador.BRANCO));
+		List<String> estadoInicial = tabuleiro.estadoTabuleiro();
+
+		// Peão anda duas casas e pode sofrer en passant
+		RegistroJogada registro = tabuleiro.fazerJogada(new Jogada(
+				new Posicao(2, 2), new Posicao(2, 4), TipoJogada.ANDAR),
+				TipoCorJogador.BRANCO);
+		Assert.assertEquals(peaoBranco,
+				tabuleiro.espiarPeca(new Posicao(2, 4)));
+		Assert.assertTrue(peaoBranco.isPodeEnPassant());
+		Assert.assertTrue(peaoBranco.getJaMoveu());
+		tabuleiro.desfazerJogada(registro);
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+
+		// Peão captura o cavalo
+		registro = tabuleiro.fazerJogada(new Jogada(new Posicao(2, 2),
+				new Posicao(3, 3), TipoJogada.ATACAR), TipoCorJogador.BRANCO);
+		Assert.assertEquals(cavaloPreto, registro.getPecaCapturada());
+		Assert.assertEquals(peaoBranco,
+				tabuleiro.espiarPeca(new Posicao(3, 3)));
+		tabuleiro.desfazerJogada(registro);
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+
+		// Roque menor
+		registro = tabuleiro.fazerJogada(new Jogada(TipoJogada.ROQUE_MENOR),
+				TipoCorJogador.BRANCO);
+		Assert.assertEquals(reiBranco, tabuleiro.espiarPeca(new Posicao(7, 1)));
+		Assert.assertEquals(torreBranca,
+				tabuleiro.espiarPeca(new Posicao(6, 1)));
+		tabuleiro.desfazerJogada(registro);
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+		Assert.assertFalse(reiBranco.getJaMoveu());
+
+		// Promoção para rainha
+		registro = tabuleiro.fazerJogada(new Jogada(new Posicao(1, 7),
+				new Posicao(1, 8), TipoJogada.ANDAR, TipoPeca.RAINHA),
+				TipoCorJogador.BRANCO);
+		Assert.assertEquals(TipoPeca.RAINHA,
+				tabuleiro.espiarPeca(new Posicao(1, 8)).getTipoPeca());
+		tabuleiro.desfazerJogada(registro);
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+	}
+
+	@Test
+	public void fazerDesfazerEnPassant() throws CasaOcupadaException,
+			JogadaInvalidaException {
+		peaoBranco.setJaMoveu();
+		peaoPreto.setJaMoveu();
+		peaoPreto.setPodeEnPassant(true);
+		Peao outroPeaoPreto = new Peao(TipoCorJogador.PRETO);
+		outroPeaoPreto.setJaMoveu();
+		outroPeaoPreto.setPodeEnPassant(true);
+		tabuleiro.colocarPeca(new Posicao(4, 5), peaoBranco);
+		tabuleiro.colocarPeca(new Posicao(3, 5), peaoPreto);
+		tabuleiro.colocarPeca(new Posicao(8, 5), outroPeaoPreto);
+		List<String> estadoInicial = tabuleiro.estadoTabuleiro();
+
+		// O peão branco captura en passant à esquerda
+		RegistroJogada registro = tabuleiro.fazerJogada(new Jogada(
+				new Posicao(4, 5), TipoJogada.EN_PASSANT_ESQUERDA),
+				TipoCorJogador.BRANCO);
+		Assert.assertEquals(peaoPreto, registro.getPecaCapturada());
+		Assert.assertTrue(tabuleiro.estaVazio(new Posicao(3, 5)));
+		Assert.assertEquals(peaoBranco,
+				tabuleiro.espiarPeca(new Posicao(3, 6)));
+		tabuleiro.desfazerJogada(registro);
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+
+		// Uma jogada das pretas anula o en passant dos seus peões, e a
+		// jogada desfeita o restaura
+		registro = tabuleiro.fazerJogada(new Jogada(new Posicao(8, 5),
+				new Posicao(8, 4), TipoJogada.ANDAR), TipoCorJogador.PRETO);
+		Assert.assertFalse(peaoPreto.isPodeEnPassant());
+		Assert.assertFalse(outroPeaoPreto.isPodeEnPassant());
+		tabuleiro.desfazerJogada(registro);
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+	}
+
+	@Test
+	public void fazerJogada_casaOcupada() throws CasaOcupadaException,
+			JogadaInvalidaException {
+		tabuleiro.colocarPeca(new Posicao(1, 1), torreBranca);
+		tabuleiro.colocarPeca(new Posicao(1, 2), cavaloBranco);
+		List<String> estadoInicial = tabuleiro.estadoTabuleiro();
+		try {
+			tabuleiro.fazerJogada(new Jogada(new Posicao(1, 1), new Posicao(1,
+					2), TipoJogada.ANDAR), TipoCorJogador.BRANCO);
+			Assert.fail();
+		} catch (CasaOcupadaException e) {
+			// O tabuleiro não deve ser alterado
+			Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+		}
+	}
+
+	@Test
+	public void jogadasLegais() throws CasaOcupadaException,
+			JogadaInvalidaException {
+		tabuleiro.colocarPeca(new Posicao(1, 1), reiBranco);
+		tabuleiro.colocarPeca(new Posicao(2, 8), torrePreta);
+		tabuleiro.colocarPeca(new Posicao(3, 3), cavaloBranco);
+		List<String> estadoInicial = tabuleiro.estadoTabuleiro();
+
+		// O rei só pode ir para a2, e o cavalo tem suas oito casas
+		Assert.assertEquals(9, tabuleiro.jogadasLegais(TipoCorJogador.BRANCO)
+				.size());
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+
+		// Os estados gerados correspondem às jogadas legais
+		Assert.assertEquals(9, tabuleiro.getGeraEstado()
+				.proximosEstadosPossiveis(tabuleiro, TipoCorJogador.BRANCO)
+				.size());
+		Assert.assertEquals(estadoInicial, tabuleiro.estadoTabuleiro());
+	}
+
+	@Test
+	public void chaveZobrist_transposicao() throws Exception {
+		TabuleiroXadrez porCavaloRei = NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL);
+		TabuleiroXadrez porCavaloDama = NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL);
+		long chaveInicial = porCavaloRei.getChave(TipoCorJogador.BRANCO);
+
+		// Cf3 Cc6 Cc3 e Cc3 Cc6 Cf3 chegam à mesma posição
+		Jogada cf3 = new Jogada(new Posicao(7, 1), new Posicao(6, 3),
+				TipoJogada.ANDAR);
+		Jogada cc3 = new Jogada(new Posicao(2, 1), new Posicao(3, 3),
+				TipoJogada.ANDAR);
+		Jogada cc6 = new Jogada(new Posicao(2, 8), new Posicao(3, 6),
+				TipoJogada.ANDAR);
+		porCavaloRei.fazerJogada(cf3, TipoCorJogador.BRANCO);
+		porCavaloRei.fazerJogada(cc6, TipoCorJogador.PRETO);
+		porCavaloRei.fazerJogada(cc3, TipoCorJogador.BRANCO);
+		porCavaloDama.fazerJogada(cc3, TipoCorJogador.BRANCO);
+		porCavaloDama.fazerJogada(cc6, TipoCorJogador.PRETO);
+		RegistroJogada registro = porCavaloDama.fazerJogada(cf3,
+				TipoCorJogador.BRANCO);
+		Assert.assertEquals(porCavaloRei.getChave(TipoCorJogador.PRETO),
+				porCavaloDama.getChave(TipoCorJogador.PRETO));
+
+		// A vez faz parte da chave
+		Assert.assertFalse(porCavaloRei.getChave(TipoCorJogador.PRETO) == porCavaloRei
+				.getChave(TipoCorJogador.BRANCO));
+
+		// Desfazer a jogada devolve a chave anterior
+		long chaveAntes = porCavaloDama.getChave(TipoCorJogador.BRANCO);
+		porCavaloDama.desfazerJogada(registro);
+		porCavaloDama.fazerJogada(cf3, TipoCorJogador.BRANCO);
+		Assert.assertEquals(chaveAntes,
+				porCavaloDama.getChave(TipoCorJogador.BRANCO));
+		Assert.assertFalse(chaveInicial == chaveAntes);
+	}
+
+	@Test
+	public void chaveZobrist_roqueEnPassant() throws Exception {
+		// O rei que foi e voltou perde o direito de roque
+		TabuleiroXadrez comRoque = NotacaoFen
+				.lerTabuleiro("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+		TabuleiroXadrez semRoque = NotacaoFen
+				.lerTabuleiro("r3k2r/8/8/8/8/8/8/R3K2R w kq - 0 1");
+		Assert.assertFalse(comRoque.getChave(TipoCorJogador.BRANCO) == semRoque
+				.getChave(TipoCorJogador.BRANCO));
+		Jogada vai = new Jogada(new Posicao(5, 1), new Posicao(5, 2),
+				TipoJogada.ANDAR);
+		Jogada volta = new Jogada(new Posicao(5, 2), new Posicao(5, 1),
+				TipoJogada.ANDAR);
+		comRoque.fazerJogada(vai, TipoCorJogador.BRANCO);
+		comRoque.fazerJogada(volta, TipoCorJogador.BRANCO);
+		Assert.assertEquals(semRoque.getChave(TipoCorJogador.BRANCO),
+				comRoque.getChave(TipoCorJogador.BRANCO));
+
+		// O en passant só conta para quem pode capturar
+		TabuleiroXadrez comEnPassant = NotacaoFen
+				.lerTabuleiro("4k3/8/8/8/3Pp3/8/8/4K3 b - d3 0 1");
+		TabuleiroXadrez semEnPassant = NotacaoFen
+				.lerTabuleiro("4k3/8/8/8/3Pp3/8/8/4K3 b - - 0 1");
+		Assert.assertFalse(comEnPassant.getChave(TipoCorJogador.PRETO) == semEnPassant
+				.getChave(TipoCorJogador.PRETO));
+		Assert.assertEquals(semEnPassant.getChave(TipoCorJogador.BRANCO),
+				comEnPassant.getChave(TipoCorJogador.BRANCO));
+	}
+
+	@Test
+	public void passarVez() throws Exception {
+		// Depois de o branco passar a vez, o peão de d4 não pode mais sofrer
+		// en passant
+		String fen = "4k3/8/8/8/3Pp3/8/8/4K3 b - d3 0 1";
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		TabuleiroXadrez semEnPassant = NotacaoFen
+				.lerTabuleiro("4k3/8/8/8/3Pp3/8/8/4K3 b - - 0 1");
+		int jogadas = tabuleiro.jogadasLegais(TipoCorJogador.PRETO).size();
+
+		RegistroJogada registro = tabuleiro.passarVez(TipoCorJogador.BRANCO);
+		Assert.assertEquals(semEnPassant.getChave(TipoCorJogador.PRETO),
+				tabuleiro.getChave(TipoCorJogador.PRETO));
+		Assert.assertEquals(jogadas - 1,
+				tabuleiro.jogadasLegais(TipoCorJogador.PRETO).size());
+
+		tabuleiro.desfazerJogada(registro);
+		Assert.assertEquals(NotacaoFen.lerTabuleiro(fen).getChave(
+				TipoCorJogador.PRETO), tabuleiro.getChave(TipoCorJogador.PRETO));
+		Assert.assertEquals(jogadas,
+				tabuleiro.jogadasLegais(TipoCorJogador.PRETO).size());
+	}
+
+	@Test
+	public void avaliarTroca() throws Exception {
+		int peao = ValoresPosicionais.material(TipoPeca.PEAO);
+		int rainha = ValoresPosicionais.material(TipoPeca.RAINHA);
+
+		// Peão indefeso e peão defendido
+		Assert.assertEquals(peao, troca("4k3/8/8/3p4/8/8/8/3QK3 w - - 0 1",
+				"d1d5"));
+		Assert.assertEquals(peao - rainha, troca(
+				"4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1", "d1d5"));
+
+		// A torre de trás entra na troca depois que a da frente captura
+		Assert.assertEquals(peao, troca("4k3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1",
+				"d2d5"));
+		Assert.assertEquals(0, troca("4k3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1",
+				"d2d3"));
+
+		// En passant
+		Assert.assertEquals(peao, troca("4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1",
+				"d5e6"));
+
+		// O rei só recaptura se a casa não estiver mais defendida
+		Assert.assertEquals(peao - rainha, troca(
+				"4k3/3q4/8/8/8/8/3P4/4K3 b - - 0 1", "d7d2"));
+		Assert.assertEquals(peao, troca("3rk3/3q4/8/8/8/8/3P4/4K3 b - - 0 1",
+				"d7d2"));
+	}
+
+	/** Avalia a troca iniciada pela jogada descrita, na posição indicada. */
+	private static int troca(String fen, String descricao) throws Exception {
+		TabuleiroXadrez tabuleiro = NotacaoFen.lerTabuleiro(fen);
+		TipoCorJogador vez = NotacaoFen.lerVez(fen);
+		int[] jogadas = new int[CodigoJogada.MAXIMO_JOGADAS];
+		int quantidade = tabuleiro.gerarJogadasLegais(vez, jogadas);
+		for (int i = 0; i < quantidade; i++)
+			if (Perft.descrever(CodigoJogada.paraJogada(jogadas[i]), vez)
+					.equals(descricao))
+				return tabuleiro.avaliarTroca(jogadas[i]);
+		throw new AssertionError("Jogada não encontrada: " + descricao);
+	}
+
+	@Test
+	public void codigoJogada() throws Exception {
+		// Posição com roques, en passant e promoções
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("r3k2r/1P6/8/2PpP3/8/8/8/R3K2R w KQkq d6 0 1");
+		int[] codigos = new int[CodigoJogada.MAXIMO_JOGADAS];
+		int quantidade = tabuleiro.jogadasLegais(TipoCorJogador.BRANCO,
+				codigos);
+		List<Jogada> jogadas = tabuleiro.jogadasLegais(TipoCorJogador.BRANCO);
+		Assert.assertEquals(jogadas.size(), quantidade);
+
+		boolean[] tipos = new boolean[TipoJogada.values().length];
+		for (int i = 0; i < quantidade; i++) {
+			// Os códigos gerados são os das jogadas, na mesma ordem
+			Jogada jogada = jogadas.get(i);
+			Assert.assertEquals(codigos[i],
+					CodigoJogada.codificar(jogada, TipoCorJogador.BRANCO));
+			Jogada convertida = CodigoJogada.paraJogada(codigos[i]);
+			Assert.assertEquals(jogada.getTipoJogada(),
+					convertida.getTipoJogada());
+			Assert.assertEquals(jogada.getOrigem(), convertida.getOrigem());
+			Assert.assertEquals(jogada.getDestino(), convertida.getDestino());
+			Assert.assertEquals(jogada.ehPromocao(), convertida.ehPromocao());
+			tipos[CodigoJogada.tipo(codigos[i]).ordinal()] = true;
+
+			// Fazer a jogada pelo código equivale a fazê-la pelo objeto
+			RegistroJogada registro = tabuleiro.fazerJogada(codigos[i],
+					TipoCorJogador.BRANCO);
+			List<String> estado = tabuleiro.estadoTabuleiro();
+			tabuleiro.desfazerJogada(registro);
+			registro = tabuleiro.fazerJogada(jogada, TipoCorJogador.BRANCO);
+			Assert.assertEquals(estado, tabuleiro.estadoTabuleiro());
+			Assert.assertEquals(codigos[i], registro.getCodigo());
+			tabuleiro.desfazerJogada(registro);
+		}
+		for (boolean tipo : tipos)
+			Assert.assertTrue(tipo);
+	}
+
+	@Test
+	public void chaveZobrist_incremental() throws Exception {
+		// A chave mantida a cada jogada é igual à calculada do zero
+		TabuleiroXadrez tabuleiro = NotacaoFen
+				.lerTabuleiro("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+		verificarChaves(tabuleiro, TipoCorJogador.BRANCO, 3);
+
+		// Inclusive nas jogadas feitas pelo jogador
+		TabuleiroXadrez partida = new TabuleiroXadrez(new Pessoa("",
+				TipoCorJogador.BRANCO), new Pessoa("", TipoCorJogador.PRETO));
+		Pessoa brancas = new Pessoa("", TipoCorJogador.BRANCO);
+		brancas.setTabuleiro(partida);
+		brancas.executarJogada(new Jogada(new Posicao(5, 2),
+				new Posicao(5, 4), TipoJogada.ANDAR));
+		Assert.assertEquals(partida.tabuleiroClonado().getChave(
+				TipoCorJogador.PRETO), partida.getChave(TipoCorJogador.PRETO));
+	}
+
+	@Test
+	public void xequePelaCasaDoRei() throws Exception {
+		// A verificação a partir da casa do rei concorda com a varredura das
+		// peças inimigas, inclusive depois de jogadas que deixam o rei em
+		// xeque
+		String[] posicoes = {
+				"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1" };
+		for (String fen : posicoes)
+			verificarXeques(NotacaoFen.lerTabuleiro(fen),
+					NotacaoFen.lerVez(fen), 2);
+	}
+
+	private void verificarXeques(TabuleiroXadrez tabuleiro,
+			TipoCorJogador vez, int profundidade) throws Exception {
+		for (TipoCorJogador cor : TipoCorJogador.values()) {
+			Posicao rei = null;
+			for (int coluna = 1; coluna <= 8; coluna++)
+				for (int linha = 1; linha <= 8; linha++) {
+					Peca peca = tabuleiro.espiarPeca(new Posicao(coluna, linha));
+					if (peca != null && peca.getTipoPeca() == TipoPeca.REI
+							&& peca.getCorJogador() == cor)
+						rei = new Posicao(coluna, linha);
+				}
+			Assert.assertEquals(rei, tabuleiro.encontrarRei(cor));
+			// O rei pode ter sido capturado por uma jogada ilegal
+			if (rei != null)
+				Assert.assertEquals(tabuleiro.estaAmeacadoPor(rei,
+						TipoCorJogador.getCorOposta(cor)),
+						tabuleiro.verificarXeque(cor));
+		}
+		if (profundidade == 0)
+			return;
+		for (Jogada jogada : tabuleiro.geraJogadasPossiveis(vez)) {
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada, vez);
+			verificarXeques(tabuleiro, TipoCorJogador.getCorOposta(vez),
+					profundidade - 1);
+			tabuleiro.desfazerJogada(registro);
+		}
+	}
+
+	@Test
+	public void valorPosicional() throws Exception {
+		// A posição inicial é simétrica
+		TabuleiroXadrez inicial = NotacaoFen
+				.lerTabuleiro(NotacaoFen.POSICAO_INICIAL);
+		Assert.assertEquals(0, inicial.valorPosicional(TipoCorJogador.BRANCO));
+		Assert.assertEquals(24, inicial.getFase());
+
+		// O cavalo no centro vale mais que na borda
+		TabuleiroXadrez centro = NotacaoFen
+				.lerTabuleiro("4k3/8/8/8/4N3/8/8/4K3 w - - 0 1");
+		TabuleiroXadrez borda = NotacaoFen
+				.lerTabuleiro("4k3/8/8/8/7N/8/8/4K3 w - - 0 1");
+		Assert.assertTrue(centro.valorPosicional(TipoCorJogador.BRANCO) > borda
+				.valorPosicional(TipoCorJogador.BRANCO));
+		// A mesma posição espelhada tem o valor oposto
+		TabuleiroXadrez espelhada = NotacaoFen
+				.lerTabuleiro("4k3/8/8/4n3/8/8/8/4K3 w - - 0 1");
+		Assert.assertEquals(centro.valorPosicional(TipoCorJogador.BRANCO),
+				espelhada.valorPosicional(TipoCorJogador.PRETO));
+
+		// Os valores mantidos a cada jogada são iguais aos calculados do zero
+		verificarValores(
+				NotacaoFen
+						.lerTabuleiro("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"),
+				TipoCorJogador.BRANCO, 3);
+	}
+
+	private void verificarValores(TabuleiroXadrez tabuleiro,
+			TipoCorJogador vez, int profundidade) throws Exception {
+		TabuleiroXadrez clone = tabuleiro.tabuleiroClonado();
+		Assert.assertEquals(clone.valorPosicional(vez),
+				tabuleiro.valorPosicional(vez));
+		Assert.assertEquals(clone.valorTabuleiro(vez, 0),
+				tabuleiro.valorTabuleiro(vez, 0));
+		Assert.assertEquals(clone.getFase(), tabuleiro.getFase());
+		if (profundidade == 0)
+			return;
+		for (Jogada jogada : tabuleiro.jogadasLegais(vez)) {
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada, vez);
+			verificarValores(tabuleiro, TipoCorJogador.getCorOposta(vez),
+					profundidade - 1);
+			tabuleiro.desfazerJogada(registro);
+		}
+	}
+
+	private void verificarChaves(TabuleiroXadrez tabuleiro,
+			TipoCorJogador vez, int profundidade) throws Exception {
+		Assert.assertEquals(tabuleiro.tabuleiroClonado().getChave(vez),
+				tabuleiro.getChave(vez));
+		if (profundidade == 0)
+			return;
+		for (Jogada jogada : tabuleiro.jogadasLegais(vez)) {
+			RegistroJogada registro = tabuleiro.fazerJogada(jogada, vez);
+			verificarChaves(tabuleiro, TipoCorJogador.getCorOposta(vez),
+					profundidade - 1);
+			tabuleiro.desfazerJogada(registro);
+		}
+	}
 }